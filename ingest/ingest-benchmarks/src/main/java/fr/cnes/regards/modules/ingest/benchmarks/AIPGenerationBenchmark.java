@@ -0,0 +1,73 @@
+/*
+ * Copyright 2017-2020 CNES - CENTRE NATIONAL d'ETUDES SPATIALES
+ *
+ * This file is part of REGARDS.
+ *
+ * REGARDS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * REGARDS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with REGARDS. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.cnes.regards.modules.ingest.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fr.cnes.regards.framework.urn.EntityType;
+import fr.cnes.regards.modules.ingest.domain.sip.SIPEntity;
+import fr.cnes.regards.modules.ingest.dto.aip.AIP;
+import fr.cnes.regards.modules.ingest.service.chain.plugin.DefaultSingleAIPGeneration;
+
+/**
+ * AIP generation step of the default processing chain
+ *
+ * @author Sébastien Binda
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AIPGenerationBenchmark {
+
+    @Param({ "1", "10", "100" })
+    private int dataObjects;
+
+    private DefaultSingleAIPGeneration generation;
+
+    private SIPEntity sipEntity;
+
+    @Setup
+    public void setup() {
+        generation = new DefaultSingleAIPGeneration();
+        sipEntity = BenchmarkFixtures
+                .buildSipEntity(BenchmarkFixtures.buildSip("SIP_BENCHMARK", dataObjects, dataObjects * 10),
+                                BenchmarkFixtures.buildMetadata("disk"));
+    }
+
+    @Benchmark
+    public List<AIP> generate() {
+        return generation.generate(sipEntity, BenchmarkFixtures.TENANT, EntityType.DATA);
+    }
+}
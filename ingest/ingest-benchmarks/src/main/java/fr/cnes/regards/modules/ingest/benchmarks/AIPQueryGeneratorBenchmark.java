@@ -0,0 +1,104 @@
+/*
+ * Copyright 2017-2020 CNES - CENTRE NATIONAL d'ETUDES SPATIALES
+ *
+ * This file is part of REGARDS.
+ *
+ * REGARDS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * REGARDS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with REGARDS. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.cnes.regards.modules.ingest.benchmarks;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fr.cnes.regards.modules.ingest.dao.AIPQueryGenerator;
+import fr.cnes.regards.modules.ingest.domain.aip.AIPState;
+import fr.cnes.regards.modules.ingest.domain.dto.NativeSelectQuery;
+import fr.cnes.regards.modules.ingest.dto.aip.SearchFacetsAIPsParameters;
+
+/**
+ * Native SQL query building of AIP facet searches (tags, storages, categories)
+ *
+ * @author Sébastien Binda
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AIPQueryGeneratorBenchmark {
+
+    /**
+     * Number of values of each list criterion (AIP ids, provider ids, tags, storages, categories)
+     */
+    @Param({ "1", "100", "1000" })
+    private int values;
+
+    private SearchFacetsAIPsParameters filters;
+
+    @Setup
+    public void setup() {
+        List<String> aipIds = new ArrayList<>(values);
+        List<String> providerIds = new ArrayList<>(values);
+        List<String> tags = new ArrayList<>(values);
+        List<String> storages = new ArrayList<>(values);
+        List<String> categories = new ArrayList<>(values);
+        for (int i = 0; i < values; i++) {
+            aipIds.add("URN:AIP:DATA:" + BenchmarkFixtures.TENANT + ":" + i + ":V1");
+            providerIds.add("SIP_" + i + "%");
+            tags.add("TAG_" + i);
+            storages.add("STORAGE_" + i);
+            categories.add("CATEGORY_" + i);
+        }
+        filters = SearchFacetsAIPsParameters.build().withState(AIPState.STORED)
+                .withLastUpdateFrom(OffsetDateTime.now().minusDays(1)).withLastUpdateTo(OffsetDateTime.now())
+                .withSessionOwner(BenchmarkFixtures.SESSION_OWNER).withSession(BenchmarkFixtures.SESSION)
+                .withAipIds(aipIds).withProviderIds(providerIds).withTags(tags).withStorages(storages)
+                .withCategories(categories);
+    }
+
+    @Benchmark
+    public NativeSelectQuery searchAipTags() {
+        return AIPQueryGenerator.searchAipTagsUsingSQL(filters);
+    }
+
+    @Benchmark
+    public NativeSelectQuery searchAipStorages() {
+        return AIPQueryGenerator.searchAipStoragesUsingSQL(filters);
+    }
+
+    @Benchmark
+    public NativeSelectQuery searchAipCategories() {
+        return AIPQueryGenerator.searchAipCategoriesUsingSQL(filters);
+    }
+
+    @Benchmark
+    public String searchAipTagsSql() {
+        return AIPQueryGenerator.searchAipTagsUsingSQL(filters).getSQL();
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2017-2020 CNES - CENTRE NATIONAL d'ETUDES SPATIALES
+ *
+ * This file is part of REGARDS.
+ *
+ * REGARDS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * REGARDS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with REGARDS. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.cnes.regards.modules.ingest.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.Sets;
+
+import fr.cnes.regards.framework.module.rest.exception.ModuleException;
+import fr.cnes.regards.modules.ingest.domain.aip.AIPEntity;
+import fr.cnes.regards.modules.ingest.domain.sip.IngestMetadata;
+import fr.cnes.regards.modules.ingest.service.aip.AIPStorageService;
+import fr.cnes.regards.modules.storage.client.IStorageClient;
+import fr.cnes.regards.modules.storage.client.RequestInfo;
+import fr.cnes.regards.modules.storage.domain.dto.request.RequestResultInfoDTO;
+
+/**
+ * {@link AIPStorageService} hot paths on a batch of AIPs :
+ * <ul>
+ * <li>dispatching of AIP files into storage requests,</li>
+ * <li>report of storage results into AIP content informations and locations.</li>
+ * </ul>
+ * Storage client is replaced by a stub that only returns a request group per call.
+ *
+ * @author Sébastien Binda
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AIPStorageBenchmark {
+
+    private static final String STORAGE = "disk";
+
+    /**
+     * Number of AIPs in the batch
+     */
+    @Param({ "100", "1000" })
+    private int aips;
+
+    /**
+     * Number of data objects per AIP
+     */
+    @Param({ "1", "10" })
+    private int dataObjects;
+
+    private AIPStorageService aipStorageService;
+
+    private IngestMetadata metadata;
+
+    private List<AIPEntity> aipEntities;
+
+    private List<RequestResultInfoDTO> storageResults;
+
+    @Setup
+    public void setup() {
+        aipStorageService = new AIPStorageService();
+        BenchmarkFixtures.inject(aipStorageService, "storageClient", buildStorageClientStub());
+        metadata = BenchmarkFixtures.buildMetadata(STORAGE, "tape");
+        aipEntities = BenchmarkFixtures.buildAipEntities(aips, dataObjects, metadata);
+        storageResults = BenchmarkFixtures.buildStorageResults(UUID.randomUUID().toString(), aipEntities, STORAGE);
+    }
+
+    /**
+     * Storage results update AIPs in place, so each invocation works on fresh ones
+     */
+    @Setup(Level.Invocation)
+    public void resetAips() {
+        aipEntities = BenchmarkFixtures.buildAipEntities(aips, dataObjects, metadata);
+    }
+
+    @Benchmark
+    public List<String> storeAIPFiles() throws ModuleException {
+        return aipStorageService.storeAIPFiles(aipEntities, metadata);
+    }
+
+    @Benchmark
+    public List<AIPEntity> updateAIPsContentInfosAndLocations() {
+        aipStorageService.updateAIPsContentInfosAndLocations(aipEntities, storageResults);
+        return aipEntities;
+    }
+
+    /**
+     * Build a storage client answering a single request group to each call, without any message sending
+     */
+    private static IStorageClient buildStorageClientStub() {
+        return (IStorageClient) Proxy
+                .newProxyInstance(IStorageClient.class.getClassLoader(), new Class<?>[] { IStorageClient.class },
+                                  (proxy, method, args) -> {
+                                      if (Collection.class.isAssignableFrom(method.getReturnType())) {
+                                          return Collections.singletonList(buildRequestInfo());
+                                      }
+                                      if (RequestInfo.class.equals(method.getReturnType())) {
+                                          return buildRequestInfo();
+                                      }
+                                      return null;
+                                  });
+    }
+
+    private static RequestInfo buildRequestInfo() {
+        return RequestInfo.build(UUID.randomUUID().toString(), Sets.newHashSet(), Sets.newHashSet());
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2017-2020 CNES - CENTRE NATIONAL d'ETUDES SPATIALES
+ *
+ * This file is part of REGARDS.
+ *
+ * REGARDS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * REGARDS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with REGARDS. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.cnes.regards.modules.ingest.benchmarks;
+
+import java.lang.reflect.Field;
+import java.nio.file.Paths;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.util.MimeType;
+import org.springframework.util.ReflectionUtils;
+
+import com.google.common.collect.Sets;
+import com.google.gson.Gson;
+
+import fr.cnes.regards.framework.gson.autoconfigure.GsonAutoConfiguration;
+import fr.cnes.regards.framework.oais.ContentInformation;
+import fr.cnes.regards.framework.oais.OAISDataObject;
+import fr.cnes.regards.framework.urn.DataType;
+import fr.cnes.regards.framework.urn.EntityType;
+import fr.cnes.regards.modules.ingest.domain.aip.AIPEntity;
+import fr.cnes.regards.modules.ingest.domain.aip.AIPState;
+import fr.cnes.regards.modules.ingest.domain.sip.IngestMetadata;
+import fr.cnes.regards.modules.ingest.domain.sip.SIPEntity;
+import fr.cnes.regards.modules.ingest.domain.sip.SIPState;
+import fr.cnes.regards.modules.ingest.dto.aip.AIP;
+import fr.cnes.regards.modules.ingest.dto.aip.StorageMetadata;
+import fr.cnes.regards.modules.ingest.dto.sip.SIP;
+import fr.cnes.regards.modules.ingest.service.chain.plugin.DefaultSingleAIPGeneration;
+import fr.cnes.regards.modules.storage.domain.dto.FileLocationDTO;
+import fr.cnes.regards.modules.storage.domain.dto.FileReferenceDTO;
+import fr.cnes.regards.modules.storage.domain.dto.FileReferenceMetaInfoDTO;
+import fr.cnes.regards.modules.storage.domain.dto.request.RequestResultInfoDTO;
+
+/**
+ * Shared fixtures for ingest benchmarks
+ *
+ * @author Sébastien Binda
+ */
+public final class BenchmarkFixtures {
+
+    public static final String TENANT = "BENCHMARK";
+
+    public static final String SESSION_OWNER = "BENCHMARK_OWNER";
+
+    public static final String SESSION = "BENCHMARK_SESSION";
+
+    public static final String INGEST_CHAIN = "DefaultProcessingChain";
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * @return the {@link Gson} instance configured as in the microservice (REGARDS adapters and factories)
+     */
+    public static Gson gson() {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(
+                GsonAutoConfiguration.class)) {
+            return context.getBean(Gson.class);
+        }
+    }
+
+    /**
+     * Build a representative SIP
+     * @param providerId SIP provider id
+     * @param dataObjects number of data objects
+     * @param properties number of descriptive properties
+     */
+    public static SIP buildSip(String providerId, int dataObjects, int properties) {
+        SIP sip = SIP.build(EntityType.DATA, providerId);
+        for (int i = 0; i < dataObjects; i++) {
+            sip.withDataObject(DataType.RAWDATA, Paths.get("data_" + i + ".fits"), "MD5",
+                               String.format("%032x", i));
+            sip.withSyntax("FITS(FlexibleImageTransport)",
+                           "http://www.iana.org/assignments/media-types/application/fits",
+                           MimeType.valueOf("application/fits"));
+            sip.registerContentInformation();
+        }
+        for (int i = 0; i < properties; i++) {
+            sip.withDescriptiveInformation("property" + i, "Lorem ipsum dolor sit amet " + i);
+        }
+        sip.withContextTags("CNES", "TOULOUSE", "FRANCE");
+        sip.withProvenanceInformationEvent("SIP_CREATION", "SIP creation", OffsetDateTime.now());
+        return sip;
+    }
+
+    /**
+     * Build ingest metadata targeting the given storages
+     */
+    public static IngestMetadata buildMetadata(String... storages) {
+        StorageMetadata[] storageMetadata = new StorageMetadata[storages.length];
+        for (int i = 0; i < storages.length; i++) {
+            storageMetadata[i] = StorageMetadata.build(storages[i]);
+        }
+        return IngestMetadata.build(SESSION_OWNER, SESSION, INGEST_CHAIN, Sets.newHashSet("CATEGORY"),
+                                    storageMetadata);
+    }
+
+    public static SIPEntity buildSipEntity(SIP sip, IngestMetadata metadata) {
+        SIPEntity sipEntity = SIPEntity.build(TENANT, metadata, sip, 1, SIPState.INGESTED);
+        sipEntity.setChecksum(String.format("%032x", sip.getId().hashCode()));
+        sipEntity.setLastUpdate(OffsetDateTime.now());
+        return sipEntity;
+    }
+
+    /**
+     * Build AIP entities as the default generation plugin does, one per SIP
+     * @param count number of AIP entities
+     * @param dataObjects number of data objects per AIP
+     * @param metadata ingest metadata of the SIPs
+     */
+    public static List<AIPEntity> buildAipEntities(int count, int dataObjects, IngestMetadata metadata) {
+        DefaultSingleAIPGeneration generation = new DefaultSingleAIPGeneration();
+        List<AIPEntity> aipEntities = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            SIPEntity sipEntity = buildSipEntity(buildSip("SIP_" + i, dataObjects, 10), metadata);
+            for (AIP aip : generation.generate(sipEntity, TENANT, EntityType.DATA)) {
+                aipEntities.add(AIPEntity.build(sipEntity, AIPState.GENERATED, aip));
+            }
+        }
+        return aipEntities;
+    }
+
+    /**
+     * Build the storage results of the given AIP data objects, as sent back by storage once files are stored
+     */
+    public static List<RequestResultInfoDTO> buildStorageResults(String groupId, List<AIPEntity> aipEntities,
+            String storage) {
+        List<RequestResultInfoDTO> results = new ArrayList<>();
+        for (AIPEntity aipEntity : aipEntities) {
+            Set<String> owners = Sets.newHashSet(aipEntity.getAipId());
+            for (ContentInformation ci : aipEntity.getAip().getProperties().getContentInformations()) {
+                OAISDataObject dataObject = ci.getDataObject();
+                String url = "file:///" + storage + "/" + dataObject.getChecksum();
+                FileReferenceMetaInfoDTO metaInfo = FileReferenceMetaInfoDTO
+                        .build(dataObject.getChecksum(), dataObject.getAlgorithm(), dataObject.getFilename(), 1024L,
+                               null, null, MimeType.valueOf("application/fits"), DataType.RAWDATA.toString());
+                results.add(RequestResultInfoDTO
+                        .build(groupId, dataObject.getChecksum(), storage, null, owners,
+                               FileReferenceDTO.build(OffsetDateTime.now(), metaInfo,
+                                                      FileLocationDTO.build(storage, url), owners),
+                               null));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Set a field normally injected by Spring
+     */
+    public static void inject(Object target, String fieldName, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), fieldName);
+        if (field == null) {
+            throw new IllegalArgumentException(String.format("Unknown field %s in %s", fieldName,
+                                                             target.getClass().getName()));
+        }
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+}
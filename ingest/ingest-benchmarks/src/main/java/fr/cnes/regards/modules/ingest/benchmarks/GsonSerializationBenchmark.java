@@ -0,0 +1,97 @@
+/*
+ * Copyright 2017-2020 CNES - CENTRE NATIONAL d'ETUDES SPATIALES
+ *
+ * This file is part of REGARDS.
+ *
+ * REGARDS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * REGARDS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with REGARDS. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.cnes.regards.modules.ingest.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.Gson;
+
+import fr.cnes.regards.modules.ingest.domain.sip.IngestMetadata;
+import fr.cnes.regards.modules.ingest.dto.aip.AIP;
+import fr.cnes.regards.modules.ingest.dto.sip.SIP;
+
+/**
+ * SIP and AIP (de)serialization with the microservice {@link Gson} configuration.<br/>
+ * SIPs are parsed from incoming messages and AIPs are serialized to JSONB on each save.
+ *
+ * @author Sébastien Binda
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GsonSerializationBenchmark {
+
+    @Param({ "1", "10", "100" })
+    private int dataObjects;
+
+    private Gson gson;
+
+    private SIP sip;
+
+    private AIP aip;
+
+    private String jsonSip;
+
+    private String jsonAip;
+
+    @Setup
+    public void setup() {
+        gson = BenchmarkFixtures.gson();
+        sip = BenchmarkFixtures.buildSip("SIP_BENCHMARK", dataObjects, dataObjects * 10);
+        IngestMetadata metadata = BenchmarkFixtures.buildMetadata("disk");
+        aip = BenchmarkFixtures.buildAipEntities(1, dataObjects, metadata).get(0).getAip();
+        jsonSip = gson.toJson(sip);
+        jsonAip = gson.toJson(aip);
+    }
+
+    @Benchmark
+    public String serializeSip() {
+        return gson.toJson(sip);
+    }
+
+    @Benchmark
+    public SIP deserializeSip() {
+        return gson.fromJson(jsonSip, SIP.class);
+    }
+
+    @Benchmark
+    public String serializeAip() {
+        return gson.toJson(aip);
+    }
+
+    @Benchmark
+    public AIP deserializeAip() {
+        return gson.fromJson(jsonAip, AIP.class);
+    }
+}
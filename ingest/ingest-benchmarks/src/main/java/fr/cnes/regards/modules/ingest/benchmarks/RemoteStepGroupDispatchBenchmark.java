@@ -0,0 +1,113 @@
+/*
+ * Copyright 2017-2020 CNES - CENTRE NATIONAL d'ETUDES SPATIALES
+ *
+ * This file is part of REGARDS.
+ *
+ * REGARDS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * REGARDS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with REGARDS. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.cnes.regards.modules.ingest.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.SetMultimap;
+
+import fr.cnes.regards.modules.ingest.domain.request.AbstractRequest;
+import fr.cnes.regards.modules.ingest.domain.request.ingest.IngestRequest;
+import fr.cnes.regards.modules.ingest.service.request.RequestService;
+
+/**
+ * Dispatch of storage group responses to the requests waiting for them.<br/>
+ * Compare the legacy nested loop (responses x requests x group ids) with the group id index.
+ *
+ * @author Sébastien Binda
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RemoteStepGroupDispatchBenchmark {
+
+    /**
+     * Number of group responses received from storage
+     */
+    @Param({ "1000", "10000" })
+    private int groupIds;
+
+    /**
+     * Number of group ids each request waits for
+     */
+    @Param({ "2" })
+    private int groupsPerRequest;
+
+    private List<String> responses;
+
+    private List<AbstractRequest> requests;
+
+    @Setup
+    public void setup() {
+        responses = new ArrayList<>(groupIds);
+        for (int i = 0; i < groupIds; i++) {
+            responses.add(UUID.randomUUID().toString());
+        }
+        requests = new ArrayList<>();
+        for (List<String> requestGroupIds : Lists.partition(responses, groupsPerRequest)) {
+            IngestRequest request = new IngestRequest();
+            request.setRemoteStepGroupIds(new ArrayList<>(requestGroupIds));
+            requests.add(request);
+        }
+    }
+
+    @Benchmark
+    public void nestedLoop(Blackhole blackhole) {
+        for (String groupId : responses) {
+            for (AbstractRequest request : requests) {
+                if (request.getRemoteStepGroupIds().contains(groupId)) {
+                    blackhole.consume(request);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void groupIdIndex(Blackhole blackhole) {
+        Set<String> groupIdSet = new HashSet<>(responses);
+        SetMultimap<String, AbstractRequest> index = RequestService.indexByRemoteStepGroupId(requests, groupIdSet);
+        for (String groupId : responses) {
+            for (AbstractRequest request : index.get(groupId)) {
+                blackhole.consume(request);
+            }
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2017-2020 CNES - CENTRE NATIONAL d'ETUDES SPATIALES
+ *
+ * This file is part of REGARDS.
+ *
+ * REGARDS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * REGARDS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with REGARDS. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.cnes.regards.modules.ingest.benchmarks;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fr.cnes.regards.modules.ingest.dao.ExistsRepository;
+import fr.cnes.regards.modules.ingest.dao.IAbstractRequestRepository;
+import fr.cnes.regards.modules.ingest.dto.request.RequestTypeConstant;
+
+/**
+ * Blocking request check on a t_request table of 1 000 000 requests.<br/>
+ * Compare the SQL run by a one element page request (select + count of every matching row, as the former
+ * {@link IAbstractRequestRepository} exists did) with the SQL run by {@link ExistsRepository} (select ... limit 1).
+ * <br/>
+ * Needs a PostgreSQL database, set with -Dbenchmark.jdbc.url, -Dbenchmark.jdbc.user and -Dbenchmark.jdbc.password.
+ * The table is created and filled in the benchmark.schema schema (ingest_benchmark by default) on first run.
+ *
+ * @author Sébastien Binda
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestExistsBenchmark {
+
+    private static final int NB_REQUESTS = 1_000_000;
+
+    private static final String SESSION_OWNER = "owner";
+
+    /**
+     * Running requests blocking an {@link RequestTypeConstant#AIP_POST_PROCESS_VALUE} request, as built by the
+     * blocking request specification
+     */
+    private static final String BLOCKING_PREDICATE = " FROM t_request r WHERE ("
+            + "(r.session_owner = ? AND r.session_name = ? AND r.dtype = '" + RequestTypeConstant.UPDATE_VALUE + "')"
+            + " OR (r.session_owner = ? AND r.session_name = ? AND r.dtype = '"
+            + RequestTypeConstant.OAIS_DELETION_VALUE + "')"
+            + " OR r.dtype = '" + RequestTypeConstant.AIP_UPDATES_CREATOR_VALUE + "'"
+            + " OR r.dtype = '" + RequestTypeConstant.OAIS_DELETION_CREATOR_VALUE + "')"
+            + " AND (r.state = 'CREATED' OR r.state = 'RUNNING')";
+
+    private static final String PAGE_QUERY = "SELECT r.id, r.dtype, r.state, r.session_owner, r.session_name,"
+            + " r.provider_id, r.creation_date" + BLOCKING_PREDICATE + " LIMIT 1";
+
+    private static final String COUNT_QUERY = "SELECT COUNT(r.id)" + BLOCKING_PREDICATE;
+
+    private static final String EXISTS_QUERY = "SELECT r.id" + BLOCKING_PREDICATE + " LIMIT 1";
+
+    /**
+     * Number of sessions the running update requests are spread over.
+     * The checked session holds NB_REQUESTS / sessions blocking requests.
+     */
+    @Param({ "1", "100" })
+    private int sessions;
+
+    private Connection connection;
+
+    private PreparedStatement pageStatement;
+
+    private PreparedStatement countStatement;
+
+    private PreparedStatement existsStatement;
+
+    @Setup
+    public void setup() throws SQLException {
+        String schema = System.getProperty("benchmark.schema", "ingest_benchmark") + "_" + sessions;
+        connection = DriverManager
+                .getConnection(System.getProperty("benchmark.jdbc.url", "jdbc:postgresql://localhost:5432/regards"),
+                               System.getProperty("benchmark.jdbc.user", "regards"),
+                               System.getProperty("benchmark.jdbc.password", "regards"));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE SCHEMA IF NOT EXISTS " + schema);
+            statement.execute("SET search_path TO " + schema);
+            statement.execute("CREATE TABLE IF NOT EXISTS t_request (id int8 NOT NULL, dtype varchar(32) NOT NULL,"
+                    + " state varchar(50), session_owner varchar(128), session_name varchar(128),"
+                    + " provider_id varchar(128), creation_date timestamp NOT NULL, PRIMARY KEY (id))");
+            statement.execute("CREATE INDEX IF NOT EXISTS idx_request_search"
+                    + " ON t_request (session_owner, session_name, provider_id)");
+            try (ResultSet count = statement.executeQuery("SELECT COUNT(*) FROM t_request")) {
+                count.next();
+                if (count.getLong(1) != NB_REQUESTS) {
+                    statement.execute("TRUNCATE t_request");
+                    statement.execute("INSERT INTO t_request (id, dtype, state, session_owner, session_name,"
+                            + " provider_id, creation_date) SELECT i, '" + RequestTypeConstant.UPDATE_VALUE
+                            + "', 'CREATED', '" + SESSION_OWNER + "', 'session-' || (i % " + sessions + "),"
+                            + " 'provider-' || i, now() FROM generate_series(1, " + NB_REQUESTS + ") i");
+                    statement.execute("ANALYZE t_request");
+                }
+            }
+        }
+        pageStatement = prepare(PAGE_QUERY);
+        countStatement = prepare(COUNT_QUERY);
+        existsStatement = prepare(EXISTS_QUERY);
+    }
+
+    private PreparedStatement prepare(String sql) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql);
+        statement.setString(1, SESSION_OWNER);
+        statement.setString(2, "session-0");
+        statement.setString(3, SESSION_OWNER);
+        statement.setString(4, "session-0");
+        return statement;
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public boolean pageAndCount() throws SQLException {
+        try (ResultSet page = pageStatement.executeQuery(); ResultSet count = countStatement.executeQuery()) {
+            return page.next() && count.next() && (count.getLong(1) > 0);
+        }
+    }
+
+    @Benchmark
+    public boolean existsLimitOne() throws SQLException {
+        try (ResultSet result = existsStatement.executeQuery()) {
+            return result.next();
+        }
+    }
+}
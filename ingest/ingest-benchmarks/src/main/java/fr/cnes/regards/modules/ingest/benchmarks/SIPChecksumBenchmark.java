@@ -0,0 +1,95 @@
+/*
+ * Copyright 2017-2020 CNES - CENTRE NATIONAL d'ETUDES SPATIALES
+ *
+ * This file is part of REGARDS.
+ *
+ * REGARDS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * REGARDS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with REGARDS. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.cnes.regards.modules.ingest.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.Gson;
+
+import fr.cnes.regards.framework.utils.file.ChecksumUtils;
+import fr.cnes.regards.modules.ingest.dto.sip.SIP;
+import fr.cnes.regards.modules.ingest.service.sip.JsonChecksumUtils;
+import fr.cnes.regards.modules.ingest.service.sip.SIPService;
+
+/**
+ * Compare the legacy SIP checksum computation (full JSON string, then byte array) with the streamed one.<br/>
+ * Run with <code>-prof gc</code> to compare allocation rates.
+ *
+ * @author Sébastien Binda
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SIPChecksumBenchmark {
+
+    private static final String MD5_ALGORITHM = "MD5";
+
+    @Param({ "1", "10", "100" })
+    private int dataObjects;
+
+    private Gson gson;
+
+    private SIP sip;
+
+    private SIPService sipService;
+
+    @Setup
+    public void setup() {
+        gson = BenchmarkFixtures.gson();
+        sipService = new SIPService();
+        BenchmarkFixtures.inject(sipService, "gson", gson);
+        sip = BenchmarkFixtures.buildSip("SIP_BENCHMARK", dataObjects, dataObjects * 10);
+    }
+
+    @Benchmark
+    public String legacy() throws NoSuchAlgorithmException, IOException {
+        String jsonSip = gson.toJson(sip);
+        InputStream inputStream = new ByteArrayInputStream(jsonSip.getBytes());
+        return ChecksumUtils.computeHexChecksum(inputStream, MD5_ALGORITHM);
+    }
+
+    @Benchmark
+    public String streamed() throws NoSuchAlgorithmException, IOException {
+        return JsonChecksumUtils.computeHexChecksum(gson, sip, MD5_ALGORITHM);
+    }
+
+    @Benchmark
+    public String sipService() throws NoSuchAlgorithmException, IOException {
+        return sipService.calculateChecksum(sip);
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2017-2020 CNES - CENTRE NATIONAL d'ETUDES SPATIALES
+ *
+ * This file is part of REGARDS.
+ *
+ * REGARDS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * REGARDS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with REGARDS. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.cnes.regards.modules.ingest.benchmarks;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.validation.Errors;
+import org.springframework.validation.MapBindingResult;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import fr.cnes.regards.modules.ingest.dto.sip.SIP;
+import fr.cnes.regards.modules.ingest.dto.sip.validator.CheckSIPValidator;
+
+/**
+ * SIP validation : the {@link CheckSIPValidator} constraint alone and the whole bean validation run on each
+ * submitted SIP.
+ *
+ * @author Sébastien Binda
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SIPValidationBenchmark {
+
+    @Param({ "1", "10", "100" })
+    private int dataObjects;
+
+    private SIP sip;
+
+    private CheckSIPValidator checkSipValidator;
+
+    private LocalValidatorFactoryBean validator;
+
+    @Setup
+    public void setup() {
+        sip = BenchmarkFixtures.buildSip("SIP_BENCHMARK", dataObjects, dataObjects * 10);
+        checkSipValidator = new CheckSIPValidator();
+        validator = new LocalValidatorFactoryBean();
+        validator.afterPropertiesSet();
+    }
+
+    @TearDown
+    public void tearDown() {
+        validator.destroy();
+    }
+
+    @Benchmark
+    public boolean checkSip() {
+        return checkSipValidator.isValid(sip, null);
+    }
+
+    @Benchmark
+    public Errors validateSip() {
+        Errors errors = new MapBindingResult(new HashMap<>(), SIP.class.getName());
+        validator.validate(sip, errors);
+        return errors;
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 
 import fr.cnes.regards.framework.feign.annotation.RestClient;
 import fr.cnes.regards.modules.ingest.domain.aip.AIPEntity;
+import fr.cnes.regards.modules.ingest.domain.aip.AIPEntitySummary;
 import fr.cnes.regards.modules.ingest.dto.aip.SearchAIPsParameters;
 import fr.cnes.regards.modules.ingest.dto.request.OAISDeletionPayloadDto;
 
@@ -25,9 +26,28 @@ public interface IAIPRestClient {
 
     static final String DELETE_BY_SESSION_PATH = "/aips/delete";
 
+    static final String WITH_MANIFEST_PARAM = "withManifest";
+
+    /**
+     * Search AIPs with their raw AIP. Prefer {@link #searchAIPSummaries(SearchAIPsParameters, int, int)} when the
+     * raw AIP is not needed.
+     */
+    default ResponseEntity<PagedModel<EntityModel<AIPEntity>>> searchAIPs(SearchAIPsParameters filters, int page,
+            int size) {
+        return searchAIPs(filters, true, page, size);
+    }
+
     @RequestMapping(method = RequestMethod.POST, path = "/aips")
     ResponseEntity<PagedModel<EntityModel<AIPEntity>>> searchAIPs(@RequestBody SearchAIPsParameters filters,
-            @RequestParam("page") int page, @RequestParam("size") int size);
+            @RequestParam(WITH_MANIFEST_PARAM) boolean withManifest, @RequestParam("page") int page,
+            @RequestParam("size") int size);
+
+    /**
+     * Search AIPs without their raw AIP
+     */
+    @RequestMapping(method = RequestMethod.POST, path = "/aips")
+    ResponseEntity<PagedModel<EntityModel<AIPEntitySummary>>> searchAIPSummaries(
+            @RequestBody SearchAIPsParameters filters, @RequestParam("page") int page, @RequestParam("size") int size);
 
     @RequestMapping(value = IAIPRestClient.DELETE_BY_SESSION_PATH, method = RequestMethod.POST)
     void delete(@RequestBody OAISDeletionPayloadDto deletionRequest);
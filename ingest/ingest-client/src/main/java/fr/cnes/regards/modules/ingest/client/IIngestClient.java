@@ -18,6 +18,9 @@
  */
 package fr.cnes.regards.modules.ingest.client;
 
+import java.util.Collection;
+import java.util.List;
+
 import fr.cnes.regards.modules.ingest.dto.sip.IngestMetadataDto;
 import fr.cnes.regards.modules.ingest.dto.sip.SIP;
 
@@ -39,4 +42,15 @@ public interface IIngestClient {
      * @throws IngestClientException if error occurs preparing ingestion submission
      */
     RequestInfo ingest(IngestMetadataDto ingestMetadata, SIP sip) throws IngestClientException;
+
+    /**
+     * Requests the ingestion of several SIPs with the same ingestion metadata.<br/>
+     * All requests are validated before any of them is sent. Requests are then published by batches of
+     * regards.ingest.client.publish.chunk.size messages.
+     * @param ingestMetadata related {@link IngestMetadataDto}
+     * @param sips the {@link SIP}s to ingest
+     * @return one {@link RequestInfo} per SIP, in SIPs order, each containing a unique request id
+     * @throws IngestClientException if any request is invalid, no request is sent then
+     */
+    List<RequestInfo> ingest(IngestMetadataDto ingestMetadata, Collection<SIP> sips) throws IngestClientException;
 }
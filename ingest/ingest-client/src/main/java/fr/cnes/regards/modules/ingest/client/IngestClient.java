@@ -18,14 +18,20 @@
  */
 package fr.cnes.regards.modules.ingest.client;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.Errors;
 import org.springframework.validation.MapBindingResult;
 import org.springframework.validation.Validator;
 
+import com.google.common.collect.Lists;
+
 import fr.cnes.regards.framework.amqp.IPublisher;
 import fr.cnes.regards.framework.jpa.utils.RegardsTransactional;
 import fr.cnes.regards.framework.module.validation.ErrorTranslator;
@@ -51,6 +57,12 @@ public class IngestClient implements IIngestClient {
     @Autowired(required = false)
     private Validator validator;
 
+    /**
+     * Maximum number of requests published at once by bulk methods
+     */
+    @Value("${regards.ingest.client.publish.chunk.size:1000}")
+    private int publishChunkSize;
+
     @Override
     public RequestInfo ingest(IngestMetadataDto ingestMetadata, SIP sip) throws IngestClientException {
         RequestInfo requestInfo = RequestInfo.build(sip.getId(), null, null);
@@ -60,6 +72,24 @@ public class IngestClient implements IIngestClient {
         return requestInfo;
     }
 
+    @Override
+    public List<RequestInfo> ingest(IngestMetadataDto ingestMetadata, Collection<SIP> sips)
+            throws IngestClientException {
+        List<RequestInfo> requestInfos = new ArrayList<>(sips.size());
+        List<IngestRequestFlowItem> items = new ArrayList<>(sips.size());
+        for (SIP sip : sips) {
+            RequestInfo requestInfo = RequestInfo.build(sip.getId(), null, null);
+            IngestRequestFlowItem item = IngestRequestFlowItem.build(requestInfo.getRequestId(), ingestMetadata, sip);
+            tryValidate(item);
+            requestInfos.add(requestInfo);
+            items.add(item);
+        }
+        for (List<IngestRequestFlowItem> chunk : Lists.partition(items, Math.max(publishChunkSize, 1))) {
+            publisher.publish(chunk);
+        }
+        return requestInfos;
+    }
+
     /**
      * Validate if a {@link Validator} exists! Depends on Hibernate validator for instance!
      */
@@ -25,6 +25,13 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PreDestroy;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -45,7 +52,11 @@ import fr.cnes.regards.modules.ingest.dto.request.event.IngestRequestEvent;
 
 /**
  *
- * Listen to {@link IngestRequestEvent} and call back the client on each one.
+ * Listen to {@link IngestRequestEvent} and call back the client on each one.<br/>
+ * Events are queued per tenant and handled by bulk. A tenant queue reaching the bulk size is drained at once
+ * instead of waiting for the next scheduled tick. When queued events reach the high watermark, the subscription is
+ * paused so that the broker keeps the remaining messages, and it is resumed once the queues are back under the
+ * low watermark.
  *
  * @author Marc SORDI
  */
@@ -61,6 +72,18 @@ public class IngestRequestEventHandler
     @Value("${regards.ingest.client.responses.items.bulk.size:1000}")
     private int BULK_SIZE;
 
+    /**
+     * Number of queued events from which the subscription is paused
+     */
+    @Value("${regards.ingest.client.responses.queue.high.watermark:50000}")
+    private int highWatermark;
+
+    /**
+     * Number of queued events under which a paused subscription is resumed
+     */
+    @Value("${regards.ingest.client.responses.queue.low.watermark:10000}")
+    private int lowWatermark;
+
     @Autowired(required = false)
     private IIngestClientListener listener;
 
@@ -70,7 +93,30 @@ public class IngestRequestEventHandler
     @Autowired
     private ISubscriber subscriber;
 
-    private final Map<String, ConcurrentLinkedQueue<IngestRequestEvent>> items = new ConcurrentHashMap<>();
+    private final Map<String, TenantQueue> items = new ConcurrentHashMap<>();
+
+    /**
+     * Number of queued events, all tenants included
+     */
+    private final AtomicInteger queuedCount = new AtomicInteger();
+
+    /**
+     * Whether a drain is already waiting to be run
+     */
+    private final AtomicBoolean drainRequested = new AtomicBoolean();
+
+    private final AtomicBoolean paused = new AtomicBoolean();
+
+    private final ExecutorService drainExecutorService = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "ingest-responses-drain");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Executor running on demand drains. Listener threads never handle events nor pause the subscription themselves.
+     */
+    private Executor drainExecutor = drainExecutorService;
 
     @Override
     public void onApplicationEvent(ApplicationReadyEvent event) {
@@ -81,70 +127,79 @@ public class IngestRequestEventHandler
         }
     }
 
+    @PreDestroy
+    public void destroy() {
+        drainExecutorService.shutdownNow();
+    }
+
     @Override
     public void handle(TenantWrapper<IngestRequestEvent> wrapper) {
         String tenant = wrapper.getTenant();
-        runtimeTenantResolver.forceTenant(tenant);
         LOGGER.trace("[EVENT] New IngestRequestEvent received -- {}", wrapper.getContent().toString());
-
-        while ((items.get(tenant) != null) && (items.get(tenant).size() >= (50 * BULK_SIZE))) {
-            // Do not overload the concurrent queue if the configured listener does not handle queued message faster
-            try {
-                LOGGER.warn("Slow process detected. Waiting 30s for getting new message from amqp queue.");
-                Thread.sleep(30_000);
-            } catch (InterruptedException e) {
-                LOGGER.error(String
-                        .format("Error waiting for storage client responses handling by custom listener. Current responses pool to handle = %s",
-                                items.size()),
-                             e);
-            }
+        int tenantCount = items.computeIfAbsent(tenant, t -> new TenantQueue()).add(wrapper.getContent());
+        int totalCount = queuedCount.incrementAndGet();
+        if ((tenantCount >= BULK_SIZE) || (totalCount >= highWatermark)) {
+            requestDrain();
         }
-        IngestRequestEvent item = wrapper.getContent();
-        if (!items.containsKey(tenant)) {
-            items.put(tenant, new ConcurrentLinkedQueue<>());
+    }
+
+    /**
+     * Ask for a drain of the queues without waiting for the next scheduled tick
+     */
+    private void requestDrain() {
+        if (drainRequested.compareAndSet(false, true)) {
+            drainExecutor.execute(() -> {
+                drainRequested.set(false);
+                handleQueue();
+            });
         }
-        items.get(tenant).add(item);
     }
 
     /**
-     * Bulk save queued items every second.
+     * Bulk handle queued items every second, or on demand when a queue reaches the bulk size.
      */
     @Scheduled(fixedDelay = 1_000)
-    public void handleQueue() {
-        for (Map.Entry<String, ConcurrentLinkedQueue<IngestRequestEvent>> entry : items.entrySet()) {
+    public synchronized void handleQueue() {
+        if ((queuedCount.get() >= highWatermark) && paused.compareAndSet(false, true)) {
+            LOGGER.warn("[INGEST RESPONSES HANDLER] Slow process detected, {} events queued. Pausing subscription.",
+                        queuedCount.get());
+            subscriber.unsubscribeFrom(IngestRequestEvent.class);
+        }
+        for (Map.Entry<String, TenantQueue> entry : items.entrySet()) {
             try {
                 runtimeTenantResolver.forceTenant(entry.getKey());
-                ConcurrentLinkedQueue<IngestRequestEvent> tenantItems = entry.getValue();
-                List<IngestRequestEvent> list = new ArrayList<>();
-                do {
-                    // Build a 100 (at most) documents bulk request
-                    for (int i = 0; i < BULK_SIZE; i++) {
-                        IngestRequestEvent doc = tenantItems.poll();
-                        if (doc == null) {
-                            if (list.isEmpty()) {
-                                // nothing to do
-                                return;
-                            }
-                            // Less than BULK_SIZE documents, bulk save what we have already
-                            break;
-                        } else { // enqueue document
-                            list.add(doc);
-                        }
-                    }
-                    if (!list.isEmpty()) {
-                        LOGGER.info("[INGEST RESPONSES HANDLER] Total events queue size={}", tenantItems.size());
-                        LOGGER.info("[INGEST RESPONSES HANDLER] Handling {} IngestRequestEvent...", list.size());
-                        long start = System.currentTimeMillis();
-                        handle(list);
-                        LOGGER.info("[INGEST RESPONSES HANDLER] {} IngestRequestEvent handled in {} ms", list.size(),
-                                    System.currentTimeMillis() - start);
-                        list.clear();
-                    }
-                } while (tenantItems.size() >= BULK_SIZE); // continue while more than BULK_SIZE items are to be saved
+                handleTenantQueue(entry.getValue());
             } finally {
                 runtimeTenantResolver.clearTenant();
             }
         }
+        if ((queuedCount.get() <= lowWatermark) && paused.compareAndSet(true, false)) {
+            LOGGER.info("[INGEST RESPONSES HANDLER] {} events queued. Resuming subscription.", queuedCount.get());
+            subscriber.subscribeTo(IngestRequestEvent.class, this);
+        }
+    }
+
+    private void handleTenantQueue(TenantQueue tenantItems) {
+        List<IngestRequestEvent> list = new ArrayList<>();
+        do {
+            // Build a BULK_SIZE (at most) events bulk
+            IngestRequestEvent item;
+            while ((list.size() < BULK_SIZE) && ((item = tenantItems.poll()) != null)) {
+                list.add(item);
+            }
+            if (list.isEmpty()) {
+                // nothing to do
+                return;
+            }
+            queuedCount.addAndGet(-list.size());
+            LOGGER.info("[INGEST RESPONSES HANDLER] Total events queue size={}", tenantItems.size());
+            LOGGER.info("[INGEST RESPONSES HANDLER] Handling {} IngestRequestEvent...", list.size());
+            long start = System.currentTimeMillis();
+            handle(list);
+            LOGGER.info("[INGEST RESPONSES HANDLER] {} IngestRequestEvent handled in {} ms", list.size(),
+                        System.currentTimeMillis() - start);
+            list.clear();
+        } while (tenantItems.size() >= BULK_SIZE); // continue while more than BULK_SIZE items are to be handled
     }
 
     public void handle(Collection<IngestRequestEvent> events) {
@@ -189,4 +244,34 @@ public class IngestRequestEventHandler
             success.clear();
         }
     }
+
+    /**
+     * Tenant events queue keeping track of its size, {@link ConcurrentLinkedQueue#size()} being linear.
+     */
+    private static class TenantQueue {
+
+        private final ConcurrentLinkedQueue<IngestRequestEvent> queue = new ConcurrentLinkedQueue<>();
+
+        private final AtomicInteger size = new AtomicInteger();
+
+        /**
+         * @return queue size after adding given event
+         */
+        public int add(IngestRequestEvent event) {
+            queue.add(event);
+            return size.incrementAndGet();
+        }
+
+        public IngestRequestEvent poll() {
+            IngestRequestEvent event = queue.poll();
+            if (event != null) {
+                size.decrementAndGet();
+            }
+            return event;
+        }
+
+        public int size() {
+            return size.get();
+        }
+    }
 }
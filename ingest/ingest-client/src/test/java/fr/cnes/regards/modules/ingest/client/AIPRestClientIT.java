@@ -40,6 +40,7 @@ import fr.cnes.regards.framework.module.rest.exception.ModuleException;
 import fr.cnes.regards.framework.multitenant.IRuntimeTenantResolver;
 import fr.cnes.regards.framework.test.integration.AbstractRegardsWebIT;
 import fr.cnes.regards.modules.ingest.domain.aip.AIPEntity;
+import fr.cnes.regards.modules.ingest.domain.aip.AIPEntitySummary;
 import fr.cnes.regards.modules.ingest.domain.aip.AIPState;
 import fr.cnes.regards.modules.ingest.dto.aip.SearchAIPsParameters;
 
@@ -83,4 +84,11 @@ public class AIPRestClientIT extends AbstractRegardsWebIT {
                 .searchAIPs(SearchAIPsParameters.build().withState(AIPState.STORED), 0, 100);
         Assert.assertEquals(HttpStatus.OK, response.getStatusCode());
     }
+
+    @Test
+    public void searchAipSummaries() {
+        ResponseEntity<PagedModel<EntityModel<AIPEntitySummary>>> response = client
+                .searchAIPSummaries(SearchAIPsParameters.build().withState(AIPState.STORED), 0, 100);
+        Assert.assertEquals(HttpStatus.OK, response.getStatusCode());
+    }
 }
@@ -19,6 +19,7 @@
 package fr.cnes.regards.modules.ingest.client;
 
 import java.nio.file.Paths;
+import java.util.List;
 import java.util.UUID;
 
 import org.junit.After;
@@ -37,6 +38,7 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.TestPropertySource;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 
 import fr.cnes.regards.framework.amqp.event.Target;
@@ -119,6 +121,29 @@ public class IngestClientIT extends AbstractRegardsWebIT {
                 .anyMatch(r -> r.getRequestId().equals(clientInfo.getRequestId())));
     }
 
+    @Test
+    public void ingestBulk() throws IngestClientException, InterruptedException {
+
+        Mockito.clearInvocations(listener);
+        List<SIP> sips = Lists.newArrayList(create("sipFromClient1"), create("sipFromClient2"),
+                                            create("sipFromClient3"));
+        List<RequestInfo> clientInfos = ingestClient.ingest(IngestMetadataDto
+                .build("sessionOwner", "session", IngestProcessingChain.DEFAULT_INGEST_CHAIN_LABEL,
+                       Sets.newHashSet("cat 1"), StorageMetadata.build("disk")), sips);
+        Assert.assertEquals("One request info per SIP expected", sips.size(), clientInfos.size());
+        for (int i = 0; i < sips.size(); i++) {
+            Assert.assertEquals("Request infos must follow SIPs order", sips.get(i).getId(),
+                                clientInfos.get(i).getProviderId());
+        }
+        ingestServiceTest.waitForIngestion(3, 15_000, SIPState.STORED);
+
+        Thread.sleep(5_000);
+        for (RequestInfo clientInfo : clientInfos) {
+            Assert.assertTrue("Missing granted request response", listener.getGranted().stream()
+                    .anyMatch(r -> r.getRequestId().equals(clientInfo.getRequestId())));
+        }
+    }
+
     private SIP create(String providerId) {
 
         String fileName = String.format("file-%s.dat", providerId);
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2017-2020 CNES - CENTRE NATIONAL d'ETUDES SPATIALES
+ *
+ * This file is part of REGARDS.
+ *
+ * REGARDS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * REGARDS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with REGARDS. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.cnes.regards.modules.ingest.client;
+
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import fr.cnes.regards.framework.amqp.ISubscriber;
+import fr.cnes.regards.framework.amqp.domain.TenantWrapper;
+import fr.cnes.regards.framework.multitenant.IRuntimeTenantResolver;
+import fr.cnes.regards.modules.ingest.dto.request.RequestState;
+import fr.cnes.regards.modules.ingest.dto.request.event.IngestRequestEvent;
+
+/**
+ * Test {@link IngestRequestEventHandler} queuing and flow control
+ *
+ * @author Sébastien Binda
+ */
+public class IngestRequestEventHandlerTest {
+
+    private IngestRequestEventHandler handler;
+
+    private IIngestClientListener listener;
+
+    private ISubscriber subscriber;
+
+    @Before
+    public void init() {
+        handler = new IngestRequestEventHandler();
+        listener = Mockito.mock(IIngestClientListener.class);
+        subscriber = Mockito.mock(ISubscriber.class);
+        ReflectionTestUtils.setField(handler, "listener", listener);
+        ReflectionTestUtils.setField(handler, "subscriber", subscriber);
+        ReflectionTestUtils.setField(handler, "runtimeTenantResolver", Mockito.mock(IRuntimeTenantResolver.class));
+        ReflectionTestUtils.setField(handler, "BULK_SIZE", 10);
+        ReflectionTestUtils.setField(handler, "highWatermark", 100);
+        ReflectionTestUtils.setField(handler, "lowWatermark", 20);
+    }
+
+    @Test
+    public void handleQueueAllTenants() {
+        handler.handle(wrap("tenant1"));
+        handler.handle(wrap("tenant2"));
+        handler.handleQueue();
+        Mockito.verify(listener, Mockito.times(2)).onGranted(Mockito.anyCollection());
+    }
+
+    @Test
+    public void drainOnDemand() {
+        // Drain synchronously on the calling thread
+        ReflectionTestUtils.setField(handler, "drainExecutor", (Executor) Runnable::run);
+        for (int i = 0; i < 9; i++) {
+            handler.handle(wrap("tenant"));
+        }
+        Mockito.verify(listener, Mockito.never()).onGranted(Mockito.anyCollection());
+        // Bulk size reached
+        handler.handle(wrap("tenant"));
+        Mockito.verify(listener, Mockito.times(1)).onGranted(Mockito.argThat(c -> c.size() == 10));
+    }
+
+    @Test
+    public void pauseAndResume() {
+        // Never drain on demand so that the queue grows
+        ReflectionTestUtils.setField(handler, "drainExecutor", (Executor) r -> {
+        });
+        for (int i = 0; i < 100; i++) {
+            handler.handle(wrap("tenant"));
+        }
+        handler.handleQueue();
+        Mockito.verify(subscriber, Mockito.times(1)).unsubscribeFrom(IngestRequestEvent.class);
+        Mockito.verify(subscriber, Mockito.times(1)).subscribeTo(IngestRequestEvent.class, handler);
+
+        // No more pause under high watermark
+        handler.handleQueue();
+        Mockito.verify(subscriber, Mockito.times(1)).unsubscribeFrom(IngestRequestEvent.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private TenantWrapper<IngestRequestEvent> wrap(String tenant) {
+        TenantWrapper<IngestRequestEvent> wrapper = Mockito.mock(TenantWrapper.class);
+        Mockito.when(wrapper.getTenant()).thenReturn(tenant);
+        Mockito.when(wrapper.getContent()).thenReturn(IngestRequestEvent
+                .build(UUID.randomUUID().toString(), "providerId", null, RequestState.GRANTED));
+        return wrapper;
+    }
+}
@@ -19,15 +19,18 @@
 package fr.cnes.regards.modules.ingest.dao;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
 import javax.persistence.criteria.CriteriaBuilder;
-import javax.persistence.criteria.Path;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -54,24 +57,37 @@ public final class AbstractRequestSpecifications {
 
     public static final String STATE_ATTRIBUTE = "state";
 
+    public static final String REMOTE_STEP_GROUP_IDS_ATTRIBUTE = "remoteStepGroupIds";
+
     private AbstractRequestSpecifications() {
         throw new IllegalStateException("Utility class");
     }
 
-    public static Specification<AbstractRequest> searchAllByRemoteStepGroupId(List<String> groupIds) {
+    public static Specification<AbstractRequest> searchAllByRemoteStepGroupId(Collection<String> groupIds) {
         return (root, query, cb) -> {
             Set<Predicate> predicates = Sets.newHashSet();
 
             if ((groupIds != null) && !groupIds.isEmpty()) {
-                Path<Object> attributeRequested = root.get("remoteStepGroupIds");
-                predicates.add(SpecificationUtils.buildPredicateIsJsonbArrayContainingOneOfElement(attributeRequested,
-                                                                                                   groupIds, cb));
+                predicates.add(buildPredicateIsWaitingForOneOf(root, query, groupIds));
             }
 
             return cb.and(predicates.toArray(new Predicate[predicates.size()]));
         };
     }
 
+    /**
+     * Build a predicate matching requests waiting for at least one of the given remote step group ids.<br/>
+     * The predicate is a sub-query on the indexed remote step group association table.
+     */
+    public static Predicate buildPredicateIsWaitingForOneOf(Root<? extends AbstractRequest> root,
+            CriteriaQuery<?> query, Collection<String> groupIds) {
+        Subquery<Long> subquery = query.subquery(Long.class);
+        Root<AbstractRequest> request = subquery.from(AbstractRequest.class);
+        Join<AbstractRequest, String> groupId = request.join(REMOTE_STEP_GROUP_IDS_ATTRIBUTE);
+        subquery.select(request.get(KeysetRepository.ID_ATTRIBUTE)).where(groupId.in(groupIds));
+        return root.get(KeysetRepository.ID_ATTRIBUTE).in(subquery);
+    }
+
     public static Specification<AbstractRequest> searchAllByFilters(SearchRequestsParameters filters, Pageable page) {
         return (root, query, cb) -> {
             Set<Predicate> predicates = Sets.newHashSet();
@@ -141,87 +157,25 @@ public final class AbstractRequestSpecifications {
         };
     }
 
-    public static Specification<AbstractRequest> searchRequestBlockingAipUpdatesCreator(Optional<String> sessionOwner,
-            Optional<String> session) {
-        return (root, query, cb) -> {
-            Set<Predicate> predicates = Sets.newHashSet();
-
-            predicates.add(AbstractRequestSpecifications
-                           .aggregateRequest(cb,
-                                             AbstractRequestSpecifications.searchOAISDeletionCreator(root, cb)));
-
-            predicates.add(AbstractRequestSpecifications.getRunningRequestFilter(root, cb));
-
-            return cb.and(predicates.toArray(new Predicate[predicates.size()]));
-        };
-    }
-
-    public static Specification<AbstractRequest> searchRequestBlockingUpdate(Optional<String> sessionOwner,
-            Optional<String> session) {
+    /**
+     * Search running requests blocking a request of the given session.
+     * @param sessionOwner session owner of the request to check, if any
+     * @param session session of the request to check, if any
+     * @param sessionBlockingTypes types of the requests blocking the request to check when they belong to its session
+     * @param globalBlockingTypes types of the requests blocking the request to check whatever their session
+     */
+    public static Specification<AbstractRequest> searchRequestBlocking(Optional<String> sessionOwner,
+            Optional<String> session, Collection<String> sessionBlockingTypes, Collection<String> globalBlockingTypes) {
         return (root, query, cb) -> {
-            Set<Predicate> predicates = Sets.newHashSet();
-
-            predicates.add(AbstractRequestSpecifications
-                           .aggregateRequest(cb,
-                                             AbstractRequestSpecifications.searchOAISDeletion(root, cb, sessionOwner, session),
-                                             AbstractRequestSpecifications.searchOAISDeletionCreator(root, cb),
-                                             AbstractRequestSpecifications.searchPostProcess(root, cb,sessionOwner, session)));
-
-            predicates.add(AbstractRequestSpecifications.getRunningRequestFilter(root, cb));
-
-            return cb.and(predicates.toArray(new Predicate[predicates.size()]));
-        };
-    }
-
-    public static Specification<AbstractRequest> searchRequestBlockingOAISDeletion(Optional<String> sessionOwner,
-            Optional<String> session, Long aipId) {
-        return (root, query, cb) -> {
-            Set<Predicate> predicates = Sets.newHashSet();
-
-            predicates.add(AbstractRequestSpecifications
-                           .aggregateRequest(cb,
-                                             AbstractRequestSpecifications.searchUpdate(root, cb, sessionOwner, session),
-                                             AbstractRequestSpecifications.searchPostProcess(root, cb, sessionOwner, session),
-                                             AbstractRequestSpecifications.searchAipUpdatesCreator(root, cb),
-                                             AbstractRequestSpecifications.searchPostProcess(root, cb,sessionOwner, session)));
-
-
-            predicates.add(AbstractRequestSpecifications.getRunningRequestFilter(root, cb));
-
-            return cb.and(predicates.toArray(new Predicate[predicates.size()]));
-        };
-    }
-
-    public static Specification<AbstractRequest> searchRequestBlockingOAISDeletionCreator(Optional<String> sessionOwner,
-            Optional<String> session) {
-        return (root, query, cb) -> {
-            Set<Predicate> predicates = Sets.newHashSet();
-
-            predicates.add(AbstractRequestSpecifications
-                           .aggregateRequest(cb,
-                                             AbstractRequestSpecifications.searchUpdate(root, cb, sessionOwner, session),
-                                             AbstractRequestSpecifications.searchOAISDeletionCreator(root, cb)));
-
-
-            predicates.add(AbstractRequestSpecifications.getRunningRequestFilter(root, cb));
-
-            return cb.and(predicates.toArray(new Predicate[predicates.size()]));
-        };
-    }
-
-    public static Specification<AbstractRequest> searchRequestBlockingAIPPostProcess(Optional<String> sessionOwner,
-            Optional<String> session) {
-        return (root, query, cb) -> {
-            Set<Predicate> predicates = Sets.newHashSet();
-
-            predicates.add(AbstractRequestSpecifications
-                                   .aggregateRequest(cb,AbstractRequestSpecifications.searchUpdate(root, cb, sessionOwner, session),
-                                                     AbstractRequestSpecifications.searchOAISDeletion(root, cb, sessionOwner, session),
-                                                     AbstractRequestSpecifications.searchAipUpdatesCreator(root, cb),
-                                                     AbstractRequestSpecifications.searchOAISDeletionCreator(root, cb)));
-            predicates.add(AbstractRequestSpecifications.getRunningRequestFilter(root, cb));
-
-            return cb.and(predicates.toArray(new Predicate[predicates.size()]));
+            List<Predicate> blockingPredicates = new ArrayList<>();
+            for (String requestType : sessionBlockingTypes) {
+                blockingPredicates.add(searchMicroRequest(root, cb, sessionOwner, session, requestType));
+            }
+            for (String requestType : globalBlockingTypes) {
+                blockingPredicates.add(searchMacroRequest(root, cb, requestType));
+            }
+            return cb.and(aggregateRequest(cb, blockingPredicates.toArray(new Predicate[0])),
+                          getRunningRequestFilter(root, cb));
         };
     }
 
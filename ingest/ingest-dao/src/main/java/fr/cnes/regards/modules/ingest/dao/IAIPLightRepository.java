@@ -18,13 +18,17 @@
  */
 package fr.cnes.regards.modules.ingest.dao;
 
-import java.util.Set;
+import java.util.Collection;
+import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import fr.cnes.regards.modules.ingest.domain.IProviderIdAndVersion;
 import fr.cnes.regards.modules.ingest.domain.aip.AIPEntity;
 import fr.cnes.regards.modules.ingest.domain.aip.AIPEntityLight;
 
@@ -43,5 +47,12 @@ public interface IAIPLightRepository extends JpaRepository<AIPEntityLight, Long>
      */
     Page<AIPEntityLight> findAll(Specification<AIPEntityLight> aipEntitySpecification, Pageable pageable);
 
-    Set<AIPEntityLight> findAllByProviderId(String providerId);
+    /**
+     * Get all versions of the AIPs of each given provider id without loading the AIPs themselves
+     * @param providerIds provider ids
+     * @return one (provider id, version) couple per existing AIP
+     */
+    @Query(value = "SELECT a.providerId AS providerId, a.version AS version FROM AIPEntityLight a "
+            + "WHERE a.providerId IN :providerIds")
+    List<IProviderIdAndVersion> findVersionsByProviderIdIn(@Param("providerIds") Collection<String> providerIds);
 }
@@ -38,7 +38,13 @@ public interface IAIPPostProcessRequestRepository extends JpaRepository<AIPPostP
         return findAllByState(InternalRequestState.CREATED, pageRequest);
     }
 
+    default long countWaitingRequests() {
+        return countByState(InternalRequestState.CREATED);
+    }
+
     // find requests by state
     Page<AIPPostProcessRequest> findAllByState(InternalRequestState step, Pageable page);
 
+    long countByState(InternalRequestState state);
+
 }
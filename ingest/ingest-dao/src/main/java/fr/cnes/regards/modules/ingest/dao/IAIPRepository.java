@@ -64,6 +64,13 @@ public interface IAIPRepository extends JpaRepository<AIPEntity, Long> {
      */
     Page<AIPEntity> findAll(Specification<AIPEntity> aipEntitySpecification, Pageable pageable);
 
+    /**
+     * Count {@link AIPEntity}s matching the provided specification
+     * @param aipEntitySpecification criteria spec
+     * @return number of matching {@link AIPEntity}s
+     */
+    long count(Specification<AIPEntity> aipEntitySpecification);
+
     Set<AIPEntity> findByProviderIdInAndLast(Collection<String> providerIds, boolean last);
 
     Collection<AIPEntity> findAllByProviderIdOrderByVersionAsc(String providerId);
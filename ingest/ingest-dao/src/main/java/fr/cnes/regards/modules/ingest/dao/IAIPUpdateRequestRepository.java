@@ -40,6 +40,10 @@ public interface IAIPUpdateRequestRepository extends JpaRepository<AIPUpdateRequ
         return findAllByState(InternalRequestState.CREATED, pageRequest);
     }
 
+    default long countWaitingRequests() {
+        return countByState(InternalRequestState.CREATED);
+    }
+
     default List<AIPUpdateRequest> findRunningRequestAndAipIdIn(List<Long> aipIds) {
         return findAllAipDistinctByAipIdInAndState(aipIds, InternalRequestState.RUNNING.name());
     }
@@ -59,4 +63,7 @@ public interface IAIPUpdateRequestRepository extends JpaRepository<AIPUpdateRequ
             + RequestTypeConstant.UPDATE_VALUE + "'", nativeQuery = true)
     List<AIPUpdateRequest> findAllAipDistinctByAipIdInAndState(@Param("ids") List<Long> aipIds,
             @Param("state") String state);
-}
\ No newline at end of file
+
+    long countByState(InternalRequestState state);
+
+}
@@ -23,7 +23,6 @@ import java.util.List;
 import java.util.Set;
 
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -33,6 +32,8 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import fr.cnes.regards.modules.ingest.domain.request.AbstractRequest;
+import fr.cnes.regards.modules.ingest.domain.request.IRequestStateCount;
+import fr.cnes.regards.modules.ingest.domain.request.IRequestTypeAndSession;
 import fr.cnes.regards.modules.ingest.domain.request.InternalRequestState;
 
 /**
@@ -57,15 +58,46 @@ public interface IAbstractRequestRepository extends JpaRepository<AbstractReques
 
     /**
      * @param specification criteria spec
-     * @return true when there is at least one request matching the provided spec
+     * @return number of {@link AbstractRequest}s matching the provided spec
      */
-    default boolean exists(Specification<AbstractRequest> specification) {
-        Page<AbstractRequest> results = findAll(specification, PageRequest.of(0, 1));
-        return results.getTotalElements() > 0;
-    }
+    long count(Specification<AbstractRequest> specification);
 
     long countByStateIn(Collection<InternalRequestState> states);
 
+    /**
+     * Count requests grouped by state and type
+     * @return number of requests for each existing couple of state and type
+     */
+    @Query(value = "SELECT r.state AS state, r.dtype AS dtype, COUNT(r) AS nbRequests FROM AbstractRequest r"
+            + " GROUP BY r.state, r.dtype")
+    List<IRequestStateCount> countByStateAndDtype();
+
+    /**
+     * Retrieve, among the given request types, those having at least one request in one of the given states
+     * @param dtypes request types
+     * @param states request states
+     * @return request types with such requests
+     */
+    @Query(value = "SELECT DISTINCT r.dtype FROM AbstractRequest r WHERE r.dtype IN :dtypes AND r.state IN :states")
+    Set<String> findDtypesByDtypeInAndStateIn(@Param("dtypes") Collection<String> dtypes,
+            @Param("states") Collection<InternalRequestState> states);
+
+    /**
+     * Retrieve the distinct types and sessions of the requests matching the given types, states, session owners and
+     * sessions
+     * @param dtypes request types
+     * @param states request states
+     * @param sessionOwners session owners
+     * @param sessions session names
+     * @return types and sessions of the matching requests
+     */
+    @Query(value = "SELECT DISTINCT r.dtype AS dtype, r.sessionOwner AS sessionOwner, r.session AS session"
+            + " FROM AbstractRequest r WHERE r.dtype IN :dtypes AND r.state IN :states"
+            + " AND r.sessionOwner IN :sessionOwners AND r.session IN :sessions")
+    List<IRequestTypeAndSession> findTypesAndSessions(@Param("dtypes") Collection<String> dtypes,
+            @Param("states") Collection<InternalRequestState> states,
+            @Param("sessionOwners") Collection<String> sessionOwners, @Param("sessions") Collection<String> sessions);
+
     /**
      * Update the state of list of entities using their ids
      * @param ids request ids
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2017-2020 CNES - CENTRE NATIONAL d'ETUDES SPATIALES
+ *
+ * This file is part of REGARDS.
+ *
+ * REGARDS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * REGARDS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with REGARDS. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.cnes.regards.modules.ingest.dao;
+
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Existence check of entities matching a specification.<br/>
+ * Unlike a page request, no count of the matching entities is run : the database stops at the first matching row.
+ * @author Sébastien Binda
+ */
+public interface IExistsRepository {
+
+    /**
+     * @param entityClass class of the entities, with a numeric id attribute named id
+     * @param specification criteria spec. Ordering of the specification, if any, is ignored.
+     * @return true when at least one entity matches the given specification
+     */
+    <T> boolean exists(Class<T> entityClass, Specification<T> specification);
+}
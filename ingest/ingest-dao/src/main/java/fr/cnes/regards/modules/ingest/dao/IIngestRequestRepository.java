@@ -100,5 +100,10 @@ public interface IIngestRequestRepository extends JpaRepository<IngestRequest, L
      */
     long countByState(InternalRequestState state);
 
+    /**
+     * Find requests in the given state that are not handled by any job
+     */
+    List<IngestRequest> findByStateAndJobInfoIsNull(InternalRequestState state, Pageable pageable);
+
     Page<IngestRequest> findAll(Specification<IngestRequest> searchAllByFilters, Pageable pageable);
 }
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2017-2020 CNES - CENTRE NATIONAL d'ETUDES SPATIALES
+ *
+ * This file is part of REGARDS.
+ *
+ * REGARDS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * REGARDS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with REGARDS. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.cnes.regards.modules.ingest.dao;
+
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Keyset pagination (seek by id) of entities matching a specification.<br/>
+ * Unlike offset pagination, each page costs the same whatever its position and no count is run.
+ * @author Sébastien Binda
+ */
+public interface IKeysetRepository {
+
+    /**
+     * Retrieve entities matching the given specification with an id strictly greater than the given one, ordered by
+     * id. Ordering of the specification, if any, is overridden.
+     * @param entityClass class of the entities, with a numeric id attribute named id
+     * @param specification criteria spec
+     * @param lastId id of the last entity of the previous page, null for the first page
+     * @param limit maximum number of entities to retrieve
+     * @return at most limit entities
+     */
+    <T> List<T> findAllAfterId(Class<T> entityClass, Specification<T> specification, Long lastId, int limit);
+}
@@ -18,7 +18,12 @@
  */
 package fr.cnes.regards.modules.ingest.dao;
 
+import java.util.Collection;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import fr.cnes.regards.modules.ingest.domain.aip.LastAIPEntity;
@@ -27,4 +32,11 @@ import fr.cnes.regards.modules.ingest.domain.aip.LastAIPEntity;
 public interface ILastAIPRepository extends JpaRepository<LastAIPEntity, Long> {
 
     void deleteByAipId(Long aipId);
+
+    /**
+     * Remove last flag entries of the given AIPs in a single statement
+     */
+    @Modifying
+    @Query(value = "DELETE FROM LastAIPEntity l WHERE l.aipId IN :aipIds")
+    int deleteByAipIdIn(@Param("aipIds") Collection<Long> aipIds);
 }
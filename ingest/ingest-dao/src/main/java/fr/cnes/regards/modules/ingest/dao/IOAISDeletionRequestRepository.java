@@ -19,10 +19,13 @@
 package fr.cnes.regards.modules.ingest.dao;
 
 import java.util.Collection;
+import java.util.Set;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import fr.cnes.regards.modules.ingest.domain.request.InternalRequestState;
 import fr.cnes.regards.modules.ingest.domain.request.deletion.OAISDeletionRequest;
@@ -39,10 +42,25 @@ public interface IOAISDeletionRequestRepository extends JpaRepository<OAISDeleti
         return findAllByState(InternalRequestState.CREATED, pageRequest);
     }
 
+    default long countWaitingRequests() {
+        return countByState(InternalRequestState.CREATED);
+    }
+
     Page<OAISDeletionRequest> findAllByState(InternalRequestState step, Pageable page);
 
     boolean existsByAipIdAndStateIn(Long id, Collection<InternalRequestState> states);
 
+    /**
+     * Retrieve, among the given AIP ids, those having a deletion request in one of the given states
+     * @param aipIds AIP ids to check
+     * @param states request states
+     * @return AIP ids with such a deletion request
+     */
+    @Query(value = "SELECT DISTINCT r.aip.id FROM OAISDeletionRequest r "
+            + "WHERE r.aip.id IN :aipIds AND r.state IN :states")
+    Set<Long> findAipIdsByAipIdInAndStateIn(@Param("aipIds") Collection<Long> aipIds,
+            @Param("states") Collection<InternalRequestState> states);
+
     long countByState(InternalRequestState state);
 
 }
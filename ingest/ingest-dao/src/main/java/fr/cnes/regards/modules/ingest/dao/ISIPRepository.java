@@ -22,6 +22,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.data.domain.Page;
@@ -36,6 +37,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import fr.cnes.regards.modules.ingest.domain.IProviderIdAndVersion;
 import fr.cnes.regards.modules.ingest.domain.sip.ISipIdAndVersion;
 import fr.cnes.regards.modules.ingest.domain.sip.SIPEntity;
 import fr.cnes.regards.modules.ingest.domain.sip.SIPState;
@@ -90,6 +92,23 @@ public interface ISIPRepository extends JpaRepository<SIPEntity, Long>, JpaSpeci
 
     long countByState(SIPState sipState);
 
+    /**
+     * Retrieve among given checksums the ones of already ingested SIPs
+     * @param checksums checksums to check
+     * @return existing checksums
+     */
+    @Query(value = "SELECT s.checksum FROM SIPEntity s WHERE s.checksum IN :checksums")
+    Set<String> findChecksumsIn(@Param("checksums") Collection<String> checksums);
+
+    /**
+     * Get current max version of the SIPs of each given provider id
+     * @param providerIds provider ids
+     * @return one max version per existing provider id
+     */
+    @Query(value = "SELECT s.providerId AS providerId, MAX(s.version) AS version FROM SIPEntity s "
+            + "WHERE s.providerId IN :providerIds GROUP BY s.providerId")
+    List<IProviderIdAndVersion> findMaxVersionByProviderIdIn(@Param("providerIds") Collection<String> providerIds);
+
     /**
      * Get next version of the SIP identified by provider id
      * @param providerId provider id
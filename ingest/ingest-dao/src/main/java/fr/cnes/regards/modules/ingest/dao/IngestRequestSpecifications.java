@@ -25,7 +25,6 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
-import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Predicate;
 
 import org.springframework.data.domain.Pageable;
@@ -52,22 +51,20 @@ public final class IngestRequestSpecifications {
     }
 
     public static Specification<IngestRequest> searchByRemoteStepId(String remoteStepGroupId) {
-        return (root, query, cb) -> {
-            Set<Predicate> predicates = Sets.newHashSet();
-            Path<Object> attributeRequeted = root.get("remoteStepGroupIds");
-            predicates.add(SpecificationUtils
-                    .buildPredicateIsJsonbArrayContainingElements(attributeRequeted,
-                                                                  Lists.newArrayList(remoteStepGroupId), cb));
-            return cb.and(predicates.toArray(new Predicate[predicates.size()]));
-        };
+        return (root, query, cb) -> AbstractRequestSpecifications
+                .buildPredicateIsWaitingForOneOf(root, query, Lists.newArrayList(remoteStepGroupId));
     }
 
+    /**
+     * Search for requests waiting for all the given remote step group ids
+     */
     public static Specification<IngestRequest> searchByRemoteStepIds(List<String> remoteStepGroupIds) {
         return (root, query, cb) -> {
             Set<Predicate> predicates = Sets.newHashSet();
-            Path<Object> attributeRequeted = root.get("remoteStepGroupIds");
-            predicates.add(SpecificationUtils.buildPredicateIsJsonbArrayContainingElements(attributeRequeted,
-                                                                                           remoteStepGroupIds, cb));
+            for (String remoteStepGroupId : remoteStepGroupIds) {
+                predicates.add(AbstractRequestSpecifications
+                        .buildPredicateIsWaitingForOneOf(root, query, Lists.newArrayList(remoteStepGroupId)));
+            }
             return cb.and(predicates.toArray(new Predicate[predicates.size()]));
         };
     }
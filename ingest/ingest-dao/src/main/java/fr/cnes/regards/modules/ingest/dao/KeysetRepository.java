@@ -0,0 +1,64 @@
+/*
+ * Copyright 2017-2020 CNES - CENTRE NATIONAL d'ETUDES SPATIALES
+ *
+ * This file is part of REGARDS.
+ *
+ * REGARDS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * REGARDS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with REGARDS. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.cnes.regards.modules.ingest.dao;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Keyset pagination with criteria queries
+ * @author Sébastien Binda
+ */
+@Repository
+public class KeysetRepository implements IKeysetRepository {
+
+    public static final String ID_ATTRIBUTE = "id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public <T> List<T> findAllAfterId(Class<T> entityClass, Specification<T> specification, Long lastId,
+            int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(entityClass);
+        Root<T> root = query.from(entityClass);
+        List<Predicate> predicates = new ArrayList<>();
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            predicates.add(predicate);
+        }
+        if (lastId != null) {
+            predicates.add(cb.greaterThan(root.get(ID_ATTRIBUTE), lastId));
+        }
+        query.select(root).where(predicates.toArray(new Predicate[predicates.size()]))
+                .orderBy(cb.asc(root.get(ID_ATTRIBUTE)));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+}
@@ -0,0 +1,2 @@
+-- Number of SIPs processed concurrently by an ingest processing chain (1 means sequential)
+alter table t_ingest_processing_chain add column parallelism int4 default 1;
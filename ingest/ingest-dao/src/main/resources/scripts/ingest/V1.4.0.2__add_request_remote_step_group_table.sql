@@ -0,0 +1,13 @@
+-- Remote step group ids are moved from a JSONB column to an association table indexed by group id
+create table ta_request_remote_step_group (request_id int8 not null, group_id varchar(128) not null);
+
+insert into ta_request_remote_step_group (request_id, group_id)
+select r.id, g.group_id from t_request r, jsonb_array_elements_text(r.remote_step_group_ids) as g(group_id)
+where jsonb_typeof(r.remote_step_group_ids) = 'array';
+
+create index idx_request_remote_step_group_id on ta_request_remote_step_group (group_id);
+create index idx_request_remote_step_group_request_id on ta_request_remote_step_group (request_id);
+alter table ta_request_remote_step_group add constraint fk_request_remote_step_group_request_id foreign key (request_id) references t_request on delete cascade;
+
+drop index if exists idx_request_remote_step_group_ids;
+alter table t_request drop column remote_step_group_ids;
@@ -35,6 +35,7 @@ import javax.persistence.NamedEntityGraph;
 import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 import javax.persistence.UniqueConstraint;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Pattern;
@@ -103,6 +104,14 @@ public class IngestProcessingChain {
     @JoinColumn(name = "postprocessing_conf_id", foreignKey = @ForeignKey(name = "fk_postprocessing_conf_id"))
     private PluginConfiguration postProcessingPlugin;
 
+    /**
+     * Number of SIPs of a same job processed concurrently by the chain plugins.<br/>
+     * Default to 1 (sequential processing). Chain plugins must be thread safe to enable parallel processing.
+     */
+    @Min(value = 1, message = "Processing chain parallelism must be at least 1")
+    @Column(name = "parallelism")
+    private Integer parallelism;
+
     public IngestProcessingChain(String name, String description, PluginConfiguration validationPlugin,
             PluginConfiguration generationPlugin) {
         super();
@@ -180,6 +189,17 @@ public class IngestProcessingChain {
         this.postProcessingPlugin = postProcessingPlugin;
     }
 
+    /**
+     * @return number of SIPs processed concurrently, 1 if not set
+     */
+    public int getParallelism() {
+        return parallelism == null ? 1 : parallelism;
+    }
+
+    public void setParallelism(Integer parallelism) {
+        this.parallelism = parallelism;
+    }
+
     /**
      * @return list of the really configured plugins for the current chain
      */
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2017-2020 CNES - CENTRE NATIONAL d'ETUDES SPATIALES
+ *
+ * This file is part of REGARDS.
+ *
+ * REGARDS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * REGARDS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with REGARDS. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.cnes.regards.modules.ingest.domain.chain;
+
+import fr.cnes.regards.framework.amqp.event.Event;
+import fr.cnes.regards.framework.amqp.event.ISubscribable;
+import fr.cnes.regards.framework.amqp.event.Target;
+
+/**
+ * Event sent to every ingest instance when an {@link IngestProcessingChain} is updated or deleted, so that cached
+ * chain definitions are reloaded
+ * @author Sébastien Binda
+ */
+@Event(target = Target.MICROSERVICE)
+public class IngestProcessingChainEvent implements ISubscribable {
+
+    /**
+     * Name of the updated or deleted chain
+     */
+    private String name;
+
+    public IngestProcessingChainEvent() {
+        super();
+    }
+
+    public IngestProcessingChainEvent(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
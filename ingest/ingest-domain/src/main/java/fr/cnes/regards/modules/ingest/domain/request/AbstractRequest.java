@@ -24,14 +24,18 @@ import fr.cnes.regards.framework.modules.jobs.domain.JobInfo;
 import fr.cnes.regards.modules.ingest.dto.request.RequestTypeConstant;
 
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import javax.persistence.CollectionTable;
 import javax.persistence.Column;
 import javax.persistence.DiscriminatorColumn;
+import javax.persistence.ElementCollection;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
 import javax.persistence.ForeignKey;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
@@ -44,6 +48,9 @@ import javax.persistence.ManyToOne;
 import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 import javax.validation.constraints.NotNull;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 import org.hibernate.annotations.Parameter;
 import org.hibernate.annotations.Type;
 import org.hibernate.annotations.TypeDef;
@@ -59,8 +66,7 @@ import org.hibernate.annotations.TypeDefs;
 @Table(name = "t_request",
     indexes = {
             @Index(name = "idx_request_search", columnList = "session_owner,session_name,provider_id"),
-            @Index(name = "idx_request_aip_id", columnList = "aip_id"),
-            @Index(name = "idx_request_remote_step_group_ids", columnList = "remote_step_group_ids")
+            @Index(name = "idx_request_aip_id", columnList = "aip_id")
 })
 @DiscriminatorColumn(name = "dtype", length = AbstractRequest.MAX_TYPE_LENGTH)
 @Inheritance(strategy = InheritanceType.SINGLE_TABLE)
@@ -69,6 +75,8 @@ public abstract class AbstractRequest {
 
     public static final int MAX_TYPE_LENGTH = 32;
 
+    public static final int REMOTE_STEP_GROUP_ID_MAX_LENGTH = 128;
+
     @Id
     @SequenceGenerator(name = "requestSequence", initialValue = 1, sequenceName = "seq_request")
     @GeneratedValue(generator = "requestSequence", strategy = GenerationType.SEQUENCE)
@@ -87,11 +95,19 @@ public abstract class AbstractRequest {
     private OffsetDateTime creationDate;
 
     /**
-     * Remote request group id
+     * Remote request group id<br/>
+     * Stored in an association table indexed by group id so that storage responses are matched by exact lookup.
      */
-    @Column(columnDefinition = "jsonb", name = "remote_step_group_ids")
-    @Type(type = "jsonb", parameters = { @Parameter(name = JsonTypeDescriptor.ARG_TYPE, value = "java.lang.String") })
-    private List<String> remoteStepGroupIds;
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "ta_request_remote_step_group",
+            joinColumns = @JoinColumn(name = "request_id",
+                    foreignKey = @ForeignKey(name = "fk_request_remote_step_group_request_id")),
+            indexes = { @Index(name = "idx_request_remote_step_group_id", columnList = "group_id"),
+                    @Index(name = "idx_request_remote_step_group_request_id", columnList = "request_id") })
+    @Column(name = "group_id", length = REMOTE_STEP_GROUP_ID_MAX_LENGTH, nullable = false)
+    @Fetch(FetchMode.SELECT)
+    @BatchSize(size = 100)
+    private List<String> remoteStepGroupIds = new ArrayList<>();
 
     /**
      * Remote step dead line <br/>
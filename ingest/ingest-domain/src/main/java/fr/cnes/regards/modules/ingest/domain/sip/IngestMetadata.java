@@ -81,6 +81,13 @@ public class IngestMetadata {
     @Enumerated(EnumType.STRING)
     private VersioningMode versioningMode = VersioningMode.INC_VERSION;
 
+    /**
+     * Priority of ingest processing jobs, {@link IngestRequestPriority#NORMAL} if not set
+     */
+    @Column(name = "priority")
+    @Enumerated(EnumType.STRING)
+    private IngestRequestPriority priority = IngestRequestPriority.NORMAL;
+
     @Column(columnDefinition = "jsonb", nullable = false)
     @Type(type = "jsonb", parameters = { @Parameter(name = JsonTypeDescriptor.ARG_TYPE, value = "java.lang.String") })
     private Set<String> categories;
@@ -93,6 +100,14 @@ public class IngestMetadata {
         this.versioningMode = versioningMode;
     }
 
+    public IngestRequestPriority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(IngestRequestPriority priority) {
+        this.priority = priority;
+    }
+
     public String getIngestChain() {
         return ingestChain;
     }
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2017-2020 CNES - CENTRE NATIONAL d'ETUDES SPATIALES
+ *
+ * This file is part of REGARDS.
+ *
+ * REGARDS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * REGARDS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with REGARDS. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.cnes.regards.modules.ingest.domain.sip;
+
+/**
+ * Priority of ingest requests. Ingest processing jobs are created with a job priority matching the priority of their
+ * requests so that urgent requests are not delayed by large ingestions.<br/>
+ * Priorities are declared from the most to the least urgent one.
+ *
+ * @author Sébastien Binda
+ */
+public enum IngestRequestPriority {
+
+    /**
+     * Interactive ingestion of a few products
+     */
+    HIGH,
+
+    NORMAL,
+
+    /**
+     * Bulk ingestion or reprocessing that may wait for other requests
+     */
+    LOW;
+}
@@ -30,6 +30,7 @@ import javax.validation.constraints.Size;
 import org.springframework.util.Assert;
 
 import fr.cnes.regards.modules.ingest.domain.IngestValidationMessages;
+import fr.cnes.regards.modules.ingest.domain.sip.IngestRequestPriority;
 import fr.cnes.regards.modules.ingest.domain.sip.VersioningMode;
 import fr.cnes.regards.modules.ingest.dto.aip.StorageMetadata;
 
@@ -70,6 +71,11 @@ public class IngestMetadataDto {
     @NotNull(message = IngestValidationMessages.MISSING_VERSIONING_MODE)
     private VersioningMode versioningMode = VersioningMode.INC_VERSION;
 
+    /**
+     * Priority of the ingest requests, {@link IngestRequestPriority#NORMAL} if not set
+     */
+    private IngestRequestPriority priority = IngestRequestPriority.NORMAL;
+
     /**
      * Build ingest metadata
      * @param sessionOwner Owner of the session
@@ -114,6 +120,22 @@ public class IngestMetadataDto {
         this.versioningMode = versioningMode;
     }
 
+    public IngestRequestPriority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(IngestRequestPriority priority) {
+        this.priority = priority;
+    }
+
+    /**
+     * Set the priority of the ingest requests
+     */
+    public IngestMetadataDto withPriority(IngestRequestPriority priority) {
+        this.priority = priority;
+        return this;
+    }
+
     public String getSessionOwner() {
         return sessionOwner;
     }
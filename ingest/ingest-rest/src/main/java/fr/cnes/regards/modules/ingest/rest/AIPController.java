@@ -50,7 +50,7 @@ import fr.cnes.regards.framework.module.rest.exception.ModuleException;
 import fr.cnes.regards.framework.oais.urn.OaisUniformResourceName;
 import fr.cnes.regards.framework.security.annotation.ResourceAccess;
 import fr.cnes.regards.framework.security.role.DefaultRole;
-import fr.cnes.regards.modules.ingest.domain.aip.AIPEntityLight;
+import fr.cnes.regards.modules.ingest.domain.aip.AbstractAIPSummary;
 import fr.cnes.regards.modules.ingest.dto.aip.SearchAIPsParameters;
 import fr.cnes.regards.modules.ingest.dto.aip.SearchFacetsAIPsParameters;
 import fr.cnes.regards.modules.ingest.dto.request.OAISDeletionPayloadDto;
@@ -68,7 +68,7 @@ import fr.cnes.regards.modules.ingest.service.request.OAISDeletionService;
  */
 @RestController
 @RequestMapping(AIPStorageService.AIPS_CONTROLLER_ROOT_PATH)
-public class AIPController implements IResourceController<AIPEntityLight> {
+public class AIPController implements IResourceController<AbstractAIPSummary> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AIPController.class);
 
@@ -92,6 +92,8 @@ public class AIPController implements IResourceController<AIPEntityLight> {
 
     public static final String REQUEST_PARAM_AIP_IDS = "aipIds";
 
+    public static final String REQUEST_PARAM_WITH_MANIFEST = "withManifest";
+
     /**
      * Controller path to manage tags of multiple AIPs
      */
@@ -149,16 +151,24 @@ public class AIPController implements IResourceController<AIPEntityLight> {
     /**
      * Retrieve a page of aip metadata according to the given filters
      * @param filters
+     * @param withManifest if true, the raw AIP of each result is returned too
      * @param pageable
      * @param assembler
      * @return page of aip metadata respecting the constraints
      */
     @RequestMapping(method = RequestMethod.POST)
     @ResourceAccess(description = "Return a page of AIPs", role = DefaultRole.EXPLOIT)
-    public ResponseEntity<PagedModel<EntityModel<AIPEntityLight>>> searchAIPs(@RequestBody SearchAIPsParameters filters,
+    public ResponseEntity<PagedModel<EntityModel<AbstractAIPSummary>>> searchAIPs(
+            @RequestBody SearchAIPsParameters filters,
+            @RequestParam(name = REQUEST_PARAM_WITH_MANIFEST, defaultValue = "false") boolean withManifest,
             @PageableDefault(sort = "id", direction = Sort.Direction.ASC) Pageable pageable,
-            PagedResourcesAssembler<AIPEntityLight> assembler) {
-        Page<AIPEntityLight> aips = aipService.findLightByFilters(filters, pageable);
+            PagedResourcesAssembler<AbstractAIPSummary> assembler) {
+        Page<AbstractAIPSummary> aips;
+        if (withManifest) {
+            aips = aipService.findLightByFilters(filters, pageable).map(AbstractAIPSummary.class::cast);
+        } else {
+            aips = aipService.findSummariesByFilters(filters, pageable).map(AbstractAIPSummary.class::cast);
+        }
         return new ResponseEntity<>(toPagedResources(aips, assembler), HttpStatus.OK);
     }
 
@@ -235,8 +245,8 @@ public class AIPController implements IResourceController<AIPEntityLight> {
     }
 
     @Override
-    public EntityModel<AIPEntityLight> toResource(AIPEntityLight element, Object... extras) {
-        EntityModel<AIPEntityLight> resource = resourceService.toResource(element);
+    public EntityModel<AbstractAIPSummary> toResource(AbstractAIPSummary element, Object... extras) {
+        EntityModel<AbstractAIPSummary> resource = resourceService.toResource(element);
         return resource;
     }
 
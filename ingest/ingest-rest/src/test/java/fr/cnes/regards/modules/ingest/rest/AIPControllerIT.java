@@ -47,6 +47,7 @@ import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
@@ -170,13 +171,15 @@ public class AIPControllerIT extends AbstractRegardsTransactionalIT {
         ingestServiceTest.waitAllRequestsFinished(10000);
 
         RequestBuilderCustomizer requestBuilderCustomizer = customizer().expectStatusOk();
+        // Raw AIP is only returned on demand
+        requestBuilderCustomizer.expect(MockMvcResultMatchers.jsonPath("$.content[0].content.aip").doesNotExist());
 
         SearchAIPsParameters body = SearchAIPsParameters.build().withCategory("CAT 1");
 
         // Add request parameters documentation
         requestBuilderCustomizer.documentRequestBody(getSearchBodyDescriptors(""));
         // Add response body documentation
-        requestBuilderCustomizer.documentResponseBody(documentResultingAIPEntity());
+        requestBuilderCustomizer.documentResponseBody(documentResultingAIPEntity(false));
 
         performDefaultPost(AIPStorageService.AIPS_CONTROLLER_ROOT_PATH, body, requestBuilderCustomizer,
                            "Should retrieve AIPEntities");
@@ -210,10 +213,10 @@ public class AIPControllerIT extends AbstractRegardsTransactionalIT {
         // Add request parameters documentation
         requestBuilderCustomizer.documentRequestBody(getSearchBodyDescriptors(""));
         // Add response body documentation
-        requestBuilderCustomizer.documentResponseBody(documentResultingAIPEntity());
+        requestBuilderCustomizer.documentResponseBody(documentResultingAIPEntity(true));
 
-        performDefaultPost(AIPStorageService.AIPS_CONTROLLER_ROOT_PATH, body, requestBuilderCustomizer,
-                           "Should retrieve AIPEntities");
+        performDefaultPost(AIPStorageService.AIPS_CONTROLLER_ROOT_PATH + "?" + AIPController.REQUEST_PARAM_WITH_MANIFEST
+                + "=true", body, requestBuilderCustomizer, "Should retrieve AIPEntities");
     }
 
     @Test
@@ -517,7 +520,7 @@ public class AIPControllerIT extends AbstractRegardsTransactionalIT {
         return params;
     }
 
-    private List<FieldDescriptor> documentResultingAIPEntity() {
+    private List<FieldDescriptor> documentResultingAIPEntity(boolean withManifest) {
 
         ConstrainedFields constrainedFields = new ConstrainedFields(AIPEntity.class);
         List<FieldDescriptor> fields = new ArrayList<>();
@@ -543,7 +546,9 @@ public class AIPControllerIT extends AbstractRegardsTransactionalIT {
 
         fields.add(constrainedFields.withPath(prefix + "tags", "tags", "List of tags").type(JSON_ARRAY_TYPE));
 
-        fields.add(constrainedFields.withPath(prefix + "aip", "aip", "Generated AIP").type(JSON_OBJECT_TYPE));
+        if (withManifest) {
+            fields.add(constrainedFields.withPath(prefix + "aip", "aip", "Generated AIP").type(JSON_OBJECT_TYPE));
+        }
 
         fields.add(constrainedFields.withPath(prefix + "sessionOwner", "sessionOwner", "Session owner")
                 .type(JSON_STRING_TYPE));
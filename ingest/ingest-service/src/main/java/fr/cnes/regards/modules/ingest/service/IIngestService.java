@@ -18,13 +18,18 @@
  */
 package fr.cnes.regards.modules.ingest.service;
 
+import fr.cnes.regards.framework.jpa.multitenant.transactional.MultitenantTransactional;
 import fr.cnes.regards.framework.module.rest.exception.EntityInvalidException;
 import fr.cnes.regards.framework.module.rest.exception.ModuleException;
 import fr.cnes.regards.modules.ingest.domain.dto.RequestInfoDto;
+import fr.cnes.regards.modules.ingest.domain.sip.IngestMetadata;
+import fr.cnes.regards.modules.ingest.dto.sip.SIP;
 import fr.cnes.regards.modules.ingest.dto.sip.SIPCollection;
 import fr.cnes.regards.modules.ingest.dto.sip.flow.IngestRequestFlowItem;
 import java.io.InputStream;
 import java.util.Collection;
+import java.util.Map;
+import org.springframework.transaction.annotation.Propagation;
 
 /**
  * Ingest service interface
@@ -48,9 +53,20 @@ public interface IIngestService {
     RequestInfoDto handleSIPCollection(SIPCollection sips) throws EntityInvalidException;
 
     /**
-     * Handle SIP collection directly scheduling a generation job
+     * Handle SIP collection directly scheduling generation jobs. The collection is read and registered by chunks
+     * so its size is not limited.
      * @param input JSON file containing a SIP collection
+     * @return feedback for each SIP of the collection
      */
     RequestInfoDto handleSIPCollection(InputStream input) throws ModuleException;
 
+    /**
+     * Register and schedule a chunk of SIPs of a collection in a dedicated transaction
+     * @param ingestMetadata validated ingest metadata of the collection
+     * @param sips SIPs by position in the collection, starting at 1
+     * @param info feedback to populate for each SIP
+     */
+    @MultitenantTransactional(propagation = Propagation.REQUIRES_NEW)
+    void handleSIPCollectionChunk(IngestMetadata ingestMetadata, Map<Integer, SIP> sips, RequestInfoDto info);
+
 }
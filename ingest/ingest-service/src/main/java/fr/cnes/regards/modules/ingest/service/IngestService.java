@@ -26,7 +26,8 @@ import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.StringJoiner;
 
@@ -34,6 +35,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.validation.Errors;
 import org.springframework.validation.MapBindingResult;
 import org.springframework.validation.Validator;
@@ -41,7 +43,8 @@ import org.springframework.validation.Validator;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ListMultimap;
 import com.google.gson.Gson;
-import com.google.gson.JsonIOException;
+import com.google.gson.JsonParseException;
+
 import fr.cnes.regards.framework.jpa.multitenant.transactional.MultitenantTransactional;
 import fr.cnes.regards.framework.module.rest.exception.EntityInvalidException;
 import fr.cnes.regards.framework.module.rest.exception.ModuleException;
@@ -90,6 +93,9 @@ public class IngestService implements IIngestService {
     @Autowired
     private IIngestRequestService ingestRequestService;
 
+    @Autowired
+    private IIngestService self;
+
     /**
      * Middleware method extracted for test simulation and also used by operational code.
      * Transform a SIP collection to a SIP flow item collection
@@ -106,42 +112,49 @@ public class IngestService implements IIngestService {
     }
 
     /**
-     * Validate, save and publish a new request
+     * Validate a new request and dispatch it in granted or denied requests
      * @param item request to manage
+     * @param grantedRequests collection of granted requests to populate
+     * @param deniedRequests collection of denied requests to populate
      */
-    private IngestRequest registerIngestRequest(IngestRequestFlowItem item) {
+    private IngestRequest registerIngestRequest(IngestRequestFlowItem item, Collection<IngestRequest> grantedRequests,
+            Collection<IngestRequest> deniedRequests) {
         return registerIngestRequest(item.getRequestId(),
                                      item.getSip(),
                                      metadataMapper.dtoToMetadata(item.getMetadata()),
                                      RequestInfoDto.build(item.getMetadata().getSessionOwner(),
                                                           item.getMetadata().getSession()),
-                                     new HashSet<>(),
+                                     grantedRequests,
+                                     deniedRequests,
                                      item.getSip().getId());
     }
 
     /**
-     * Validate, save and publish a new request
+     * Validate a new request and dispatch it in granted or denied requests.<br/>
+     * Requests are neither saved nor published here, see {@link #flushRegisteredRequests(Collection, Collection)}.
      * @param requestId
      * @param sip sip to manage
      * @param ingestMetadata related ingest metadata
      * @param info synchronous feedback
      * @param grantedRequests collection of granted requests to populate
-     * @return
+     * @param deniedRequests collection of denied requests to populate
+     * @return granted request or null if request is denied
      */
     private IngestRequest registerIngestRequest(String requestId, SIP sip, IngestMetadata ingestMetadata,
-            RequestInfoDto info, Collection<IngestRequest> grantedRequests, String sipId) {
+            RequestInfoDto info, Collection<IngestRequest> grantedRequests, Collection<IngestRequest> deniedRequests,
+            String sipId) {
         // Validate SIP
         Errors errors = new MapBindingResult(new HashMap<>(), SIP.class.getName());
         validator.validate(sip, errors);
         if (errors.hasErrors()) {
             Set<String> errs = ErrorTranslator.getErrors(errors);
-            // Publish DENIED request (do not persist it in DB) / Warning : request id cannot be known
-            ingestRequestService.handleRequestDenied(IngestRequest.build(requestId,
-                                                                         ingestMetadata,
-                                                                         InternalRequestState.ERROR,
-                                                                         IngestRequestStep.LOCAL_DENIED,
-                                                                         sip,
-                                                                         errs));
+            // DENIED request will be published but not persisted in DB / Warning : request id cannot be known
+            deniedRequests.add(IngestRequest.build(requestId,
+                                                   ingestMetadata,
+                                                   InternalRequestState.ERROR,
+                                                   IngestRequestStep.LOCAL_DENIED,
+                                                   sip,
+                                                   errs));
             StringJoiner joiner = new StringJoiner(", ");
             errs.forEach(joiner::add);
             LOGGER.debug("Ingest request ({}) rejected for following reason(s) : {}",
@@ -153,10 +166,9 @@ public class IngestService implements IIngestService {
             return null;
         }
 
-        // Save granted ingest request, versioning mode is being handled later
+        // Granted ingest request, versioning mode is being handled later
         IngestRequest request = IngestRequest
                 .build(requestId, ingestMetadata, InternalRequestState.CREATED, IngestRequestStep.LOCAL_SCHEDULED, sip);
-        ingestRequestService.handleRequestGranted(request);
         // Trace granted request
         info.addGrantedRequest(sip.getId(), request.getRequestId());
         // Add to granted request collection
@@ -164,17 +176,30 @@ public class IngestService implements IIngestService {
         return request;
     }
 
+    /**
+     * Save all granted requests in one batch and publish granted and denied request events at once
+     */
+    private void flushRegisteredRequests(Collection<IngestRequest> grantedRequests,
+            Collection<IngestRequest> deniedRequests) {
+        ingestRequestService.handleRequestsDenied(deniedRequests);
+        ingestRequestService.handleRequestsGranted(grantedRequests);
+    }
+
     @Override
     public void handleIngestRequests(Collection<IngestRequestFlowItem> items) {
+        Collection<IngestRequest> grantedRequests = new ArrayList<>(items.size());
+        Collection<IngestRequest> deniedRequests = new ArrayList<>();
         // Store requests per chain
         ListMultimap<String, IngestRequest> requestPerChain = ArrayListMultimap.create();
         for (IngestRequestFlowItem item : items) {
             // Validate and transform to request
-            IngestRequest ingestRequest = registerIngestRequest(item);
+            IngestRequest ingestRequest = registerIngestRequest(item, grantedRequests, deniedRequests);
             if (ingestRequest != null) {
                 requestPerChain.put(ingestRequest.getMetadata().getIngestChain(), ingestRequest);
             }
         }
+        // Save and publish the whole batch
+        flushRegisteredRequests(grantedRequests, deniedRequests);
         // Schedule job per chain
         for (String chainName : requestPerChain.keySet()) {
             ingestRequestService.scheduleIngestProcessingJobByChain(chainName, requestPerChain.get(chainName));
@@ -193,24 +218,43 @@ public class IngestService implements IIngestService {
 
         // Validate and transform ingest metadata
         IngestMetadata ingestMetadata = getIngestMetadata(sips.getMetadata());
+        RequestInfoDto info = buildCollectionInfo(ingestMetadata);
 
-        // Register requests
-        Collection<IngestRequest> grantedRequests = new ArrayList<>();
-        RequestInfoDto info = RequestInfoDto.build(ingestMetadata.getSessionOwner(),
-                                                   ingestMetadata.getSession(),
-                                                   "SIP Collection ingestion scheduled");
-
+        Map<Integer, SIP> sipsByIndex = new LinkedHashMap<>();
         int count = 1;
         for (SIP sip : sips.getFeatures()) {
-            String sipId = sip.getId() != null ? sip.getId() : "SIP n°" + count;
-            // Validate and transform to request
-            registerIngestRequest(null, sip, ingestMetadata, info, grantedRequests, sipId);
+            sipsByIndex.put(count, sip);
             count++;
         }
+        // Register the whole collection in the current transaction
+        handleSIPCollectionChunk(ingestMetadata, sipsByIndex, info);
+
+        return info;
+    }
+
+    @Override
+    @MultitenantTransactional(propagation = Propagation.REQUIRES_NEW)
+    public void handleSIPCollectionChunk(IngestMetadata ingestMetadata, Map<Integer, SIP> sips,
+            RequestInfoDto info) {
+        // Register requests
+        Collection<IngestRequest> grantedRequests = new ArrayList<>();
+        Collection<IngestRequest> deniedRequests = new ArrayList<>();
+        for (Map.Entry<Integer, SIP> entry : sips.entrySet()) {
+            SIP sip = entry.getValue();
+            String sipId = sip.getId() != null ? sip.getId() : "SIP n°" + entry.getKey();
+            // Validate and transform to request
+            registerIngestRequest(null, sip, ingestMetadata, info, grantedRequests, deniedRequests, sipId);
+        }
+        // Save and publish the whole chunk
+        flushRegisteredRequests(grantedRequests, deniedRequests);
 
         ingestRequestService.scheduleIngestProcessingJobByChain(ingestMetadata.getIngestChain(), grantedRequests);
+    }
 
-        return info;
+    private static RequestInfoDto buildCollectionInfo(IngestMetadata ingestMetadata) {
+        return RequestInfoDto.build(ingestMetadata.getSessionOwner(),
+                                    ingestMetadata.getSession(),
+                                    "SIP Collection ingestion scheduled");
     }
 
     /**
@@ -235,14 +279,90 @@ public class IngestService implements IIngestService {
         return metadataMapper.dtoToMetadata(dto);
     }
 
+    /**
+     * The collection is streamed : SIPs are read one at a time and registered by chunks of
+     * regards.ingest.max.bulk.size SIPs, each chunk in its own transaction. So the collection size is not limited.
+     */
     @Override
+    @MultitenantTransactional(propagation = Propagation.NOT_SUPPORTED)
     public RequestInfoDto handleSIPCollection(InputStream input) throws ModuleException {
+        SIPCollectionImport collectionImport = new SIPCollectionImport(confProperties.getMaxBulkSize());
         try (Reader json = new InputStreamReader(input, DEFAULT_CHARSET)) {
-            SIPCollection sips = gson.fromJson(json, SIPCollection.class);
-            return handleSIPCollection(sips);
-        } catch (JsonIOException | IOException e) {
+            new SIPCollectionReader(gson).read(json, collectionImport);
+            return collectionImport.complete();
+        } catch (JsonParseException | IOException e) {
             LOGGER.error("Cannot read JSON file containing SIP collection", e);
-            throw new EntityInvalidException(e.getMessage(), e);
+            String message = e.getMessage();
+            if (collectionImport.getNbRegistered() > 0) {
+                message = String.format("%s. The %s SIP(s) read before this error have been registered.",
+                                        message,
+                                        collectionImport.getNbRegistered());
+            }
+            throw new EntityInvalidException(message, e);
+        }
+    }
+
+    /**
+     * Registers the SIPs of a streamed collection by chunks
+     */
+    private class SIPCollectionImport implements SIPCollectionReader.Handler {
+
+        private final int chunkSize;
+
+        private IngestMetadata ingestMetadata;
+
+        private RequestInfoDto info;
+
+        /**
+         * SIPs read and not registered yet by position in the collection
+         */
+        private Map<Integer, SIP> chunk = new LinkedHashMap<>();
+
+        private int nbRegistered = 0;
+
+        public SIPCollectionImport(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public void onMetadata(IngestMetadataDto metadata) throws ModuleException {
+            ingestMetadata = getIngestMetadata(metadata);
+            info = buildCollectionInfo(ingestMetadata);
+        }
+
+        @Override
+        public void onSIP(int index, SIP sip) {
+            chunk.put(index, sip);
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        @Override
+        public void onInvalidSIP(int index, String reason) {
+            LOGGER.debug("SIP n°{} of the collection rejected : {}", index, reason);
+            info.addDeniedRequest("SIP n°" + index, reason);
+        }
+
+        /**
+         * Register the remaining SIPs
+         * @return feedback for each SIP of the collection
+         */
+        public RequestInfoDto complete() {
+            flush();
+            return info;
+        }
+
+        public int getNbRegistered() {
+            return nbRegistered;
+        }
+
+        private void flush() {
+            if (!chunk.isEmpty()) {
+                self.handleSIPCollectionChunk(ingestMetadata, chunk, info);
+                nbRegistered += chunk.size();
+                chunk = new LinkedHashMap<>();
+            }
         }
     }
 }
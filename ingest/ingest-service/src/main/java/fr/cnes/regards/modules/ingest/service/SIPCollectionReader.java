@@ -0,0 +1,142 @@
+/*
+ * Copyright 2017-2020 CNES - CENTRE NATIONAL d'ETUDES SPATIALES
+ *
+ * This file is part of REGARDS.
+ *
+ * REGARDS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * REGARDS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with REGARDS. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.cnes.regards.modules.ingest.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+
+import fr.cnes.regards.framework.module.rest.exception.EntityInvalidException;
+import fr.cnes.regards.framework.module.rest.exception.ModuleException;
+import fr.cnes.regards.modules.ingest.dto.sip.IngestMetadataDto;
+import fr.cnes.regards.modules.ingest.dto.sip.SIP;
+import fr.cnes.regards.modules.ingest.dto.sip.SIPCollection;
+
+/**
+ * Streaming reader of a JSON {@link SIPCollection}. SIPs are read and handed over one at a time so that the whole
+ * collection never lies in memory.<br/>
+ * Ingest metadata is handed over before the first SIP. If the collection declares its features before its metadata,
+ * features have to be kept in memory until the metadata is read.
+ *
+ * @author Sébastien Binda
+ */
+public class SIPCollectionReader {
+
+    private static final String METADATA = "metadata";
+
+    private static final String FEATURES = "features";
+
+    private final Gson gson;
+
+    /**
+     * Handler of the content of a SIP collection, called in document order
+     */
+    public interface Handler {
+
+        /**
+         * Handle the ingest metadata of the collection, always called once before any SIP
+         */
+        void onMetadata(IngestMetadataDto metadata) throws ModuleException;
+
+        /**
+         * Handle a SIP
+         * @param index position of the SIP in the collection, starting at 1
+         */
+        void onSIP(int index, SIP sip) throws ModuleException;
+
+        /**
+         * Handle a feature that is not a valid SIP
+         * @param index position of the feature in the collection, starting at 1
+         * @param reason why the feature cannot be read
+         */
+        void onInvalidSIP(int index, String reason) throws ModuleException;
+    }
+
+    public SIPCollectionReader(Gson gson) {
+        this.gson = gson;
+    }
+
+    /**
+     * Read the whole collection
+     * @throws EntityInvalidException if the collection has no ingest metadata
+     * @throws IOException if the document cannot be read or is not a JSON object
+     * @throws JsonParseException if the document is not valid JSON
+     */
+    public void read(Reader json, Handler handler) throws ModuleException, IOException {
+        JsonReader reader = new JsonReader(json);
+        boolean metadataRead = false;
+        // Features read before the metadata
+        List<JsonElement> pending = new ArrayList<>();
+        int index = 0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (METADATA.equals(name)) {
+                IngestMetadataDto metadata = gson.fromJson(reader, IngestMetadataDto.class);
+                if (metadata == null) {
+                    throw new EntityInvalidException("Ingest metadata is required");
+                }
+                handler.onMetadata(metadata);
+                metadataRead = true;
+                for (JsonElement feature : pending) {
+                    handleFeature(feature, ++index, handler);
+                }
+                pending.clear();
+            } else if (FEATURES.equals(name)) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    JsonElement feature = gson.fromJson(reader, JsonElement.class);
+                    if (metadataRead) {
+                        handleFeature(feature, ++index, handler);
+                    } else {
+                        pending.add(feature);
+                    }
+                }
+                reader.endArray();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (!metadataRead) {
+            throw new EntityInvalidException("Ingest metadata is required");
+        }
+    }
+
+    private void handleFeature(JsonElement feature, int index, Handler handler) throws ModuleException {
+        SIP sip;
+        try {
+            sip = gson.fromJson(feature, SIP.class);
+        } catch (JsonParseException e) {
+            handler.onInvalidSIP(index, String.format("Invalid SIP : %s", e.getMessage()));
+            return;
+        }
+        if (sip == null) {
+            handler.onInvalidSIP(index, "Invalid SIP : null feature");
+        } else {
+            handler.onSIP(index, sip);
+        }
+    }
+}
@@ -18,6 +18,7 @@
  */
 package fr.cnes.regards.modules.ingest.service.aip;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -45,6 +46,7 @@ import fr.cnes.regards.modules.ingest.domain.request.InternalRequestState;
 import fr.cnes.regards.modules.ingest.domain.request.deletion.OAISDeletionRequest;
 import fr.cnes.regards.modules.ingest.service.job.IngestJobPriority;
 import fr.cnes.regards.modules.ingest.service.job.OAISDeletionJob;
+import fr.cnes.regards.modules.ingest.service.job.RequestJobPlanner;
 
 /**
  * Service to handle {@link OAISDeletionJob}s
@@ -62,6 +64,9 @@ public class AIPDeletionService {
     @Autowired
     private JobInfoService jobInfoService;
 
+    @Autowired
+    private RequestJobPlanner jobPlanner;
+
     @Autowired
     private IOAISDeletionRequestRepository oaisDeletionRequestRepository;
 
@@ -74,24 +79,58 @@ public class AIPDeletionService {
     @Value("${regards.ingest.aips.scan.iteration-limit:100}")
     private Integer deletionRequestIterationLimit;
 
+    /**
+     * Deletion request states meaning a deletion is running or pending
+     */
+    private static final Set<InternalRequestState> PENDING_DELETION_STATES = Sets
+            .immutableEnumSet(InternalRequestState.CREATED, InternalRequestState.BLOCKED, InternalRequestState.RUNNING,
+                              InternalRequestState.TO_SCHEDULE);
+
     /**
      * Check if a deletion request is running or pending  for the given aip
      * @param aip
      * @return [TRUE|FALSE]
      */
     public boolean deletionAlreadyPending(AIPEntity aip) {
-        return oaisDeletionRequestRepository
-                .existsByAipIdAndStateIn(aip.getId(),
-                                         Sets.newHashSet(InternalRequestState.CREATED, InternalRequestState.BLOCKED,
-                                                         InternalRequestState.RUNNING,
-                                                         InternalRequestState.TO_SCHEDULE));
+        return oaisDeletionRequestRepository.existsByAipIdAndStateIn(aip.getId(), PENDING_DELETION_STATES);
+    }
+
+    /**
+     * Retrieve, in a single query, the AIPs among the given ones for which a deletion request is running or pending
+     * @param aips AIPs to check
+     * @return ids of the AIPs with a running or pending deletion request
+     */
+    public Set<Long> findAipIdsWithPendingDeletion(Collection<AIPEntity> aips) {
+        if (aips.isEmpty()) {
+            return Sets.newHashSet();
+        }
+        Set<Long> aipIds = aips.stream().map(AIPEntity::getId).collect(Collectors.toSet());
+        return oaisDeletionRequestRepository.findAipIdsByAipIdInAndStateIn(aipIds, PENDING_DELETION_STATES);
+    }
+
+    /**
+     * Schedule as many {@link OAISDeletionJob}s as allowed by the backlog and the free job slots
+     * @return scheduled jobs
+     */
+    public List<JobInfo> scheduleJobs() {
+        return jobPlanner.scheduleJobs(OAISDeletionJob.class.getName(),
+                                       oaisDeletionRequestRepository.countWaitingRequests(),
+                                       deletionRequestIterationLimit, this::scheduleJob);
     }
 
+    /**
+     * Schedule one {@link OAISDeletionJob} for the first waiting requests
+     * @return scheduled job or null if there is no waiting request
+     */
     public JobInfo scheduleJob() {
+        return scheduleJob(deletionRequestIterationLimit);
+    }
+
+    private JobInfo scheduleJob(int batchSize) {
         JobInfo jobInfo = null;
         LOGGER.trace("[OAIS DELETION SCHEDULER] Scheduling job ...");
         long start = System.currentTimeMillis();
-        Pageable pageRequest = PageRequest.of(0, deletionRequestIterationLimit, Sort.Direction.ASC, "id");
+        Pageable pageRequest = PageRequest.of(0, batchSize, Sort.Direction.ASC, "id");
         // Fetch the first list of update request to handle
         Page<OAISDeletionRequest> waitingRequest = oaisDeletionRequestRepository.findWaitingRequest(pageRequest);
         if (!waitingRequest.isEmpty()) {
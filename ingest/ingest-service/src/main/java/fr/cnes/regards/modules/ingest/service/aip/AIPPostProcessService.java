@@ -42,12 +42,11 @@ import fr.cnes.regards.framework.modules.jobs.domain.JobParameter;
 import fr.cnes.regards.framework.modules.jobs.service.JobInfoService;
 import fr.cnes.regards.modules.ingest.dao.IAIPPostProcessRequestRepository;
 import fr.cnes.regards.modules.ingest.dao.IAbstractRequestRepository;
-import fr.cnes.regards.modules.ingest.domain.aip.AIPEntity;
-import fr.cnes.regards.modules.ingest.domain.chain.IngestProcessingChain;
 import fr.cnes.regards.modules.ingest.domain.request.InternalRequestState;
 import fr.cnes.regards.modules.ingest.domain.request.postprocessing.AIPPostProcessRequest;
 import fr.cnes.regards.modules.ingest.service.job.IngestJobPriority;
 import fr.cnes.regards.modules.ingest.service.job.IngestPostProcessingJob;
+import fr.cnes.regards.modules.ingest.service.job.RequestJobPlanner;
 
 /**
  * Service to handle {@link IngestPostProcessingJob}. Create {@link AIPPostProcessRequest} to post-process aips.
@@ -71,6 +70,9 @@ public class AIPPostProcessService {
     @Autowired
     private JobInfoService jobInfoService;
 
+    @Autowired
+    private RequestJobPlanner jobPlanner;
+
     /**
      * Limit number of AIPs to retrieve in one page.
      */
@@ -78,14 +80,29 @@ public class AIPPostProcessService {
     private Integer aipRequestIterationLimit;
 
     /**
-     * Schedule a {@link IngestPostProcessingJob} for the given {@link IngestProcessingChain} to post process given {@link AIPEntity}s
+     * Schedule as many {@link IngestPostProcessingJob}s as allowed by the backlog and the free job slots
+     * @return scheduled jobs
+     */
+    public List<JobInfo> scheduleJobs() {
+        return jobPlanner.scheduleJobs(IngestPostProcessingJob.class.getName(),
+                                       aipPostProcessRequestRepository.countWaitingRequests(),
+                                       aipRequestIterationLimit, this::scheduleJob);
+    }
+
+    /**
+     * Schedule one {@link IngestPostProcessingJob} for the first waiting requests
+     * @return scheduled job or null if there is no waiting request
      */
     public JobInfo scheduleJob() {
+        return scheduleJob(aipRequestIterationLimit);
+    }
+
+    private JobInfo scheduleJob(int batchSize) {
         JobInfo jobInfo = null;
         LOGGER.trace("[AIP POSTPROCESS SCHEDULER] Scheduling job ...");
         long start = System.currentTimeMillis();
         // Limit the number of request
-        Pageable pageRequest = PageRequest.of(0, aipRequestIterationLimit, Sort.Direction.ASC, "id");
+        Pageable pageRequest = PageRequest.of(0, batchSize, Sort.Direction.ASC, "id");
         // Fetch the first list of AIPPostProcessRequest to handle
         Page<AIPPostProcessRequest> waitingRequest = aipPostProcessRequestRepository.findWaitingRequest(pageRequest);
 
@@ -18,21 +18,22 @@
  */
 package fr.cnes.regards.modules.ingest.service.aip;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 
 import javax.servlet.http.HttpServletResponse;
@@ -41,11 +42,17 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Sets;
 import com.google.gson.Gson;
 import com.google.gson.stream.JsonWriter;
 
@@ -59,16 +66,18 @@ import fr.cnes.regards.framework.oais.ContentInformation;
 import fr.cnes.regards.framework.oais.OAISDataObject;
 import fr.cnes.regards.framework.oais.OAISDataObjectLocation;
 import fr.cnes.regards.framework.oais.urn.OaisUniformResourceName;
-import fr.cnes.regards.framework.utils.file.ChecksumUtils;
 import fr.cnes.regards.modules.dam.dto.FeatureEvent;
 import fr.cnes.regards.modules.ingest.dao.AIPEntitySpecification;
 import fr.cnes.regards.modules.ingest.dao.AIPQueryGenerator;
 import fr.cnes.regards.modules.ingest.dao.IAIPLightRepository;
 import fr.cnes.regards.modules.ingest.dao.IAIPRepository;
+import fr.cnes.regards.modules.ingest.dao.IAIPSummaryRepository;
 import fr.cnes.regards.modules.ingest.dao.ICustomAIPRepository;
+import fr.cnes.regards.modules.ingest.dao.IKeysetRepository;
 import fr.cnes.regards.modules.ingest.dao.ILastAIPRepository;
 import fr.cnes.regards.modules.ingest.domain.aip.AIPEntity;
 import fr.cnes.regards.modules.ingest.domain.aip.AIPEntityLight;
+import fr.cnes.regards.modules.ingest.domain.aip.AIPEntitySummary;
 import fr.cnes.regards.modules.ingest.domain.aip.AIPState;
 import fr.cnes.regards.modules.ingest.domain.aip.LastAIPEntity;
 import fr.cnes.regards.modules.ingest.domain.request.InternalRequestState;
@@ -86,6 +95,7 @@ import fr.cnes.regards.modules.ingest.dto.request.update.AIPUpdateParametersDto;
 import fr.cnes.regards.modules.ingest.service.request.IOAISDeletionService;
 import fr.cnes.regards.modules.ingest.service.request.IRequestService;
 import fr.cnes.regards.modules.ingest.service.session.SessionNotifier;
+import fr.cnes.regards.modules.ingest.service.sip.JsonChecksumUtils;
 import fr.cnes.regards.modules.storage.client.IStorageClient;
 import fr.cnes.regards.modules.storage.client.RequestInfo;
 import fr.cnes.regards.modules.storage.domain.dto.request.FileDeletionRequestDTO;
@@ -108,6 +118,11 @@ public class AIPService implements IAIPService {
 
     private static final String JSON_INDENT = "  ";
 
+    /**
+     * Maximum number of values bound in a single IN clause
+     */
+    private static final int IN_CLAUSE_MAX_SIZE = 1000;
+
     @Autowired
     private IOAISDeletionService oaisDeletionRequestService;
 
@@ -120,9 +135,15 @@ public class AIPService implements IAIPService {
     @Autowired
     private IAIPLightRepository aipLigthRepository;
 
+    @Autowired
+    private IAIPSummaryRepository aipSummaryRepository;
+
     @Autowired
     private ICustomAIPRepository customAIPRepository;
 
+    @Autowired
+    private IKeysetRepository keysetRepository;
+
     @Autowired
     private IStorageClient storageClient;
 
@@ -171,10 +192,10 @@ public class AIPService implements IAIPService {
 
     @Override
     public String calculateChecksum(AIP aip) throws NoSuchAlgorithmException, IOException {
-        ByteArrayOutputStream os = new ByteArrayOutputStream();
-        writeAip(aip, os);
-        ByteArrayInputStream inputStream = new ByteArrayInputStream(os.toByteArray());
-        return ChecksumUtils.computeHexChecksum(inputStream, MD5_ALGORITHM);
+        // Stream the AIP straight into the digest
+        MessageDigest digest = MessageDigest.getInstance(MD5_ALGORITHM);
+        writeAip(aip, JsonChecksumUtils.newDigestOutputStream(digest));
+        return JsonChecksumUtils.toHex(digest.digest());
     }
 
     @Override
@@ -182,6 +203,32 @@ public class AIPService implements IAIPService {
         return aipRepository.findAll(AIPEntitySpecification.searchAll(filters, pageable), pageable);
     }
 
+    @Override
+    public List<AIPEntity> findByFiltersAfterId(AbstractSearchAIPsParameters<?> filters, Long lastId, int limit) {
+        return keysetRepository.findAllAfterId(AIPEntity.class,
+                                               AIPEntitySpecification.searchAll(filters, sortById(limit)), lastId,
+                                               limit);
+    }
+
+    @Override
+    public long countByFilters(AbstractSearchAIPsParameters<?> filters) {
+        return aipRepository.count(AIPEntitySpecification.searchAll(filters, sortById(1)));
+    }
+
+    @Override
+    public Multimap<String, Integer> getVersions(Collection<String> providerIds) {
+        Multimap<String, Integer> versions = HashMultimap.create();
+        for (List<String> chunk : Iterables.partition(providerIds, IN_CLAUSE_MAX_SIZE)) {
+            aipLigthRepository.findVersionsByProviderIdIn(chunk)
+                    .forEach(v -> versions.put(v.getProviderId(), v.getVersion()));
+        }
+        return versions;
+    }
+
+    private static Pageable sortById(int size) {
+        return PageRequest.of(0, size, Sort.Direction.ASC, "id");
+    }
+
     @Override
     public Collection<AIPEntity> findByAipIds(Collection<String> aipIds) {
         return aipRepository.findByAipIdIn(aipIds);
@@ -195,22 +242,60 @@ public class AIPService implements IAIPService {
     @Override
     public void handleVersioning(AIPEntity aipEntity, VersioningMode versioningMode,
             Map<String, AIPEntity> lastVersions) {
+        handleVersioning(aipEntity, versioningMode, lastVersions, this::updateLastFlag);
+    }
+
+    @Override
+    public void handleVersioning(Map<AIPEntity, VersioningMode> aips, Map<String, AIPEntity> lastVersions) {
+        // Final last flag of each AIP whose flag has been updated
+        Map<AIPEntity, Boolean> lastFlags = new LinkedHashMap<>();
+        for (Map.Entry<AIPEntity, VersioningMode> entry : aips.entrySet()) {
+            handleVersioning(entry.getKey(), entry.getValue(), lastVersions, (aip, last) -> {
+                aip.setLast(last);
+                lastFlags.put(aip, last);
+            });
+        }
+
+        // Apply changes with bulk statements
+        Set<AIPEntity> toSave = Sets.newLinkedHashSet(aips.keySet());
+        toSave.addAll(lastFlags.keySet());
+        saveAll(toSave);
+        List<Long> notLastAnymore = new ArrayList<>();
+        List<LastAIPEntity> newLasts = new ArrayList<>();
+        lastFlags.forEach((aip, last) -> {
+            if (last) {
+                newLasts.add(new LastAIPEntity(aip.getId(), aip.getProviderId()));
+            } else {
+                notLastAnymore.add(aip.getId());
+            }
+        });
+        if (!notLastAnymore.isEmpty()) {
+            lastAipRepository.deleteByAipIdIn(notLastAnymore);
+        }
+        lastAipRepository.saveAll(newLasts);
+    }
+
+    /**
+     * Find if the given AIP is the last version of its provider id and update last flags through the given updater
+     */
+    private void handleVersioning(AIPEntity aipEntity, VersioningMode versioningMode,
+            Map<String, AIPEntity> lastVersions, BiConsumer<AIPEntity, Boolean> lastFlagUpdater) {
 
         // lets get the old last version
         AIPEntity dbLatest = lastVersions.get(aipEntity.getProviderId());
 
         if (dbLatest == null) {
             //then this is the first version (according to our code, not necessarily V1) ingested
-            updateLastFlag(aipEntity, true);
+            lastFlagUpdater.accept(aipEntity, true);
             lastVersions.put(aipEntity.getProviderId(), aipEntity);
         } else {
             if (dbLatest.getVersion() < aipEntity.getVersion()) {
                 // Switch last entity
-                updateLastFlag(dbLatest, false);
-                updateLastFlag(aipEntity, true);
+                lastFlagUpdater.accept(dbLatest, false);
+                lastFlagUpdater.accept(aipEntity, true);
                 lastVersions.put(aipEntity.getProviderId(), aipEntity);
             } else {
-                updateLastFlag(aipEntity, false);
+                lastFlagUpdater.accept(aipEntity, false);
             }
 
             sessionNotifier.incrementNewProductVersion(aipEntity);
@@ -244,6 +329,16 @@ public class AIPService implements IAIPService {
         return response;
     }
 
+    @Override
+    public Page<AIPEntitySummary> findSummariesByFilters(AbstractSearchAIPsParameters<?> filters, Pageable pageable) {
+        long start = System.currentTimeMillis();
+        Page<AIPEntitySummary> response = aipSummaryRepository
+                .findAll(AIPEntitySpecification.searchAll(filters, pageable), pageable);
+        LOGGER.debug("{} AIP summaries found in {}ms", response.getNumberOfElements(),
+                     System.currentTimeMillis() - start);
+        return response;
+    }
+
     @Override
     public List<String> findTags(SearchFacetsAIPsParameters filters) {
         return customAIPRepository.getDistinct(AIPQueryGenerator.searchAipTagsUsingSQL(filters));
@@ -45,6 +45,7 @@ import fr.cnes.regards.modules.ingest.domain.request.InternalRequestState;
 import fr.cnes.regards.modules.ingest.domain.request.update.AIPUpdateRequest;
 import fr.cnes.regards.modules.ingest.service.job.AIPUpdateRunnerJob;
 import fr.cnes.regards.modules.ingest.service.job.IngestJobPriority;
+import fr.cnes.regards.modules.ingest.service.job.RequestJobPlanner;
 import fr.cnes.regards.modules.ingest.service.request.AIPUpdateRequestService;
 
 /**
@@ -72,17 +73,39 @@ public class AIPUpdateService {
     @Autowired
     private JobInfoService jobInfoService;
 
+    @Autowired
+    private RequestJobPlanner jobPlanner;
+
     /**
      * Limit number of AIPs to retrieve in one page.
      */
     @Value("${regards.ingest.aips.scan.iteration-limit:100}")
     private Integer updateRequestIterationLimit;
 
+    /**
+     * Schedule as many {@link AIPUpdateRunnerJob}s as allowed by the backlog and the free job slots.
+     * Each job handles its own AIPs.
+     * @return scheduled jobs
+     */
+    public List<JobInfo> scheduleJobs() {
+        return jobPlanner.scheduleJobs(AIPUpdateRunnerJob.class.getName(),
+                                       aipUpdateRequestRepository.countWaitingRequests(),
+                                       updateRequestIterationLimit, this::scheduleJob);
+    }
+
+    /**
+     * Schedule one {@link AIPUpdateRunnerJob} for the first waiting requests
+     * @return scheduled job or null if there is no waiting request
+     */
     public JobInfo scheduleJob() {
+        return scheduleJob(updateRequestIterationLimit);
+    }
+
+    private JobInfo scheduleJob(int batchSize) {
         JobInfo jobInfo = null;
         LOGGER.trace("[OAIS UPDATE SCHEDULER] Scheduling job ...");
         long start = System.currentTimeMillis();
-        Pageable pageRequest = PageRequest.of(0, updateRequestIterationLimit, Sort.Direction.ASC, "id");
+        Pageable pageRequest = PageRequest.of(0, batchSize, Sort.Direction.ASC, "id");
         // Fetch the first list of update request to handle
         Page<AIPUpdateRequest> waitingRequests = aipUpdateRequestRepository.findWaitingRequest(pageRequest);
         if (!waitingRequests.isEmpty()) {
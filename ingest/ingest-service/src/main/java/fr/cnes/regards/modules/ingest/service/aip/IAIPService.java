@@ -31,10 +31,14 @@ import javax.servlet.http.HttpServletResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import com.google.common.collect.Multimap;
+
+
 import fr.cnes.regards.framework.module.rest.exception.ModuleException;
 import fr.cnes.regards.framework.oais.urn.OaisUniformResourceName;
 import fr.cnes.regards.modules.ingest.domain.aip.AIPEntity;
 import fr.cnes.regards.modules.ingest.domain.aip.AIPEntityLight;
+import fr.cnes.regards.modules.ingest.domain.aip.AIPEntitySummary;
 import fr.cnes.regards.modules.ingest.domain.request.deletion.OAISDeletionRequest;
 import fr.cnes.regards.modules.ingest.domain.sip.SIPEntity;
 import fr.cnes.regards.modules.ingest.domain.sip.VersioningMode;
@@ -103,8 +107,32 @@ public interface IAIPService {
      */
     Page<AIPEntity> findByFilters(AbstractSearchAIPsParameters<?> filters, Pageable pageable);
 
+    /**
+     * Retrieve {@link AIPEntity}s matching parameters with an id greater than the given one, in id order.<br/>
+     * Allows to scan all matching AIPs page by page without offset nor count, whatever the table size.
+     * @param lastId id of the last AIP of the previous page, null for the first page
+     * @param limit maximum number of AIPs to retrieve
+     */
+    List<AIPEntity> findByFiltersAfterId(AbstractSearchAIPsParameters<?> filters, Long lastId, int limit);
+
+    /**
+     * Count {@link AIPEntity}s matching parameters
+     */
+    long countByFilters(AbstractSearchAIPsParameters<?> filters);
+
+    /**
+     * Get all versions of the {@link AIPEntity}s of each given provider id in a set-based way.<br/>
+     * Provider ids without any AIP are not part of the result.
+     */
+    Multimap<String, Integer> getVersions(Collection<String> providerIds);
+
     Page<AIPEntityLight> findLightByFilters(AbstractSearchAIPsParameters<?> filters, Pageable pageable);
 
+    /**
+     * Retrieve a page of {@link AIPEntitySummary} matching parameters. Raw AIPs are not loaded.
+     */
+    Page<AIPEntitySummary> findSummariesByFilters(AbstractSearchAIPsParameters<?> filters, Pageable pageable);
+
     /**
      * Retrieve all tags used by a set of AIPS matching provided filters
      * @param filters
@@ -149,4 +177,13 @@ public interface IAIPService {
 
     void handleVersioning(AIPEntity aipEntity, VersioningMode versioningMode,
             Map<String, AIPEntity> currentLatestPerProviderId);
+
+    /**
+     * Set-based version of {@link #handleVersioning(AIPEntity, VersioningMode, Map)}.<br/>
+     * Last versions are computed in memory in the iteration order of the given AIPs, then AIPs and last flag entries
+     * are saved with bulk statements.
+     * @param aips AIPs to version with their versioning mode
+     * @param currentLatestPerProviderId current last AIP per provider id, updated with new last versions
+     */
+    void handleVersioning(Map<AIPEntity, VersioningMode> aips, Map<String, AIPEntity> currentLatestPerProviderId);
 }
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2017-2020 CNES - CENTRE NATIONAL d'ETUDES SPATIALES
+ *
+ * This file is part of REGARDS.
+ *
+ * REGARDS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * REGARDS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with REGARDS. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.cnes.regards.modules.ingest.service.chain;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import fr.cnes.regards.framework.multitenant.IRuntimeTenantResolver;
+import fr.cnes.regards.modules.ingest.dao.IIngestProcessingChainRepository;
+import fr.cnes.regards.modules.ingest.domain.chain.IngestProcessingChain;
+import fr.cnes.regards.modules.ingest.service.metrics.IngestMetrics;
+
+/**
+ * Tenant scoped cache of {@link IngestProcessingChain} definitions.<br/>
+ * Chains are read by every ingest job and request batch and almost never change. A chain is evicted by
+ * {@link IngestProcessingChainService} when it is updated or deleted and by {@link IngestProcessingChainEventHandler}
+ * when another instance changed it.<br/>
+ * Step plugin instances are not cached here, the plugin service already caches them and evicts them when a plugin
+ * configuration changes.<br/>
+ * Unknown chains are not cached so a newly created chain is seen at once.
+ *
+ * @author Sébastien Binda
+ */
+@Component
+public class IngestProcessingChainCache {
+
+    public static final String CHAIN_CACHE_NAME = "chain";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IngestProcessingChainCache.class);
+
+    @Autowired
+    private IIngestProcessingChainRepository processingChainRepository;
+
+    @Autowired
+    private IRuntimeTenantResolver runtimeTenantResolver;
+
+    @Autowired
+    private IngestMetrics ingestMetrics;
+
+    /**
+     * Cached chains by chain name, by tenant
+     */
+    private final Map<String, Map<String, IngestProcessingChain>> chainsByTenant = new ConcurrentHashMap<>();
+
+    /**
+     * Retrieve a chain of the current tenant by its name
+     */
+    public Optional<IngestProcessingChain> getChain(String name) {
+        if (name == null) {
+            return Optional.empty();
+        }
+        Map<String, IngestProcessingChain> chains = chainsByTenant
+                .computeIfAbsent(runtimeTenantResolver.getTenant(), tenant -> new ConcurrentHashMap<>());
+        IngestProcessingChain chain = chains.get(name);
+        ingestMetrics.recordCacheAccess(CHAIN_CACHE_NAME, chain != null);
+        if (chain == null) {
+            // Loading under the map lock guarantees an eviction is never overridden by a concurrent load
+            chain = chains.computeIfAbsent(name, n -> processingChainRepository.findOneByName(n).orElse(null));
+        }
+        return Optional.ofNullable(chain);
+    }
+
+    /**
+     * Evict a chain from the cache of the given tenant
+     */
+    public void evict(String tenant, String name) {
+        if (tenant != null) {
+            Map<String, IngestProcessingChain> chains = chainsByTenant.get(tenant);
+            if (chains != null && name != null) {
+                LOGGER.debug("Evicting ingest processing chain {} of tenant {} from cache", name, tenant);
+                chains.remove(name);
+            }
+        }
+    }
+
+    /**
+     * Evict all chains from the cache of the given tenant
+     */
+    public void evictAll(String tenant) {
+        if (tenant != null) {
+            LOGGER.debug("Evicting all ingest processing chains of tenant {} from cache", tenant);
+            chainsByTenant.remove(tenant);
+        }
+    }
+}
@@ -26,19 +26,25 @@ import org.springframework.context.ApplicationListener;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
+import fr.cnes.regards.framework.amqp.ISubscriber;
+import fr.cnes.regards.framework.amqp.domain.IHandler;
+import fr.cnes.regards.framework.amqp.domain.TenantWrapper;
 import fr.cnes.regards.framework.jpa.multitenant.event.spring.TenantConnectionReady;
 import fr.cnes.regards.framework.module.rest.exception.ModuleException;
 import fr.cnes.regards.framework.multitenant.IRuntimeTenantResolver;
 import fr.cnes.regards.framework.multitenant.ITenantResolver;
 import fr.cnes.regards.modules.ingest.domain.chain.IngestProcessingChain;
+import fr.cnes.regards.modules.ingest.domain.chain.IngestProcessingChainEvent;
 
 /**
- * Module-common handler for AMQP events.
+ * Module-common handler for AMQP events.<br/>
+ * Also keeps the {@link IngestProcessingChainCache} up to date with chains updated or deleted by any ingest instance.
  *
  * @author Sébastien Binda
  */
 @Component
-public class IngestProcessingChainEventHandler implements ApplicationListener<ApplicationReadyEvent> {
+public class IngestProcessingChainEventHandler
+        implements ApplicationListener<ApplicationReadyEvent>, IHandler<IngestProcessingChainEvent> {
 
     /**
      * Class logger
@@ -51,6 +57,12 @@ public class IngestProcessingChainEventHandler implements ApplicationListener<Ap
     @Autowired
     private IRuntimeTenantResolver runtimeTenantResolver;
 
+    @Autowired
+    private IngestProcessingChainCache chainCache;
+
+    @Autowired
+    private ISubscriber subscriber;
+
     /**
      * Tenant resolver to access all configured tenant
      */
@@ -60,6 +72,7 @@ public class IngestProcessingChainEventHandler implements ApplicationListener<Ap
     @Override
     public void onApplicationEvent(ApplicationReadyEvent pEvent) {
         LOGGER.info("IngestProcessingChainEventHandler subscribing to new TenantConnectionReady events.");
+        subscriber.subscribeTo(IngestProcessingChainEvent.class, this);
 
         // Multitenant version of the microservice.
         for (final String tenant : tenantResolver.getAllActiveTenants()) {
@@ -83,6 +96,7 @@ public class IngestProcessingChainEventHandler implements ApplicationListener<Ap
             LOGGER.info("New tenant \"{}\" ready, initializing ingest processing configuration.", event.getTenant());
             // Set working tenant
             runtimeTenantResolver.forceTenant(event.getTenant());
+            chainCache.evictAll(event.getTenant());
             ingestProcessingService.initDefaultServiceConfiguration();
             LOGGER.info("New tenant \"{}\" ready, ingest processing configuration initialized successfully",
                         event.getTenant());
@@ -93,4 +107,9 @@ public class IngestProcessingChainEventHandler implements ApplicationListener<Ap
             runtimeTenantResolver.clearTenant();
         }
     }
+
+    @Override
+    public void handle(TenantWrapper<IngestProcessingChainEvent> wrapper) {
+        chainCache.evict(wrapper.getTenant(), wrapper.getContent().getName());
+    }
 }
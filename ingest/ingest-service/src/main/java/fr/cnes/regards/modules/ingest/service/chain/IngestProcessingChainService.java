@@ -38,6 +38,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.validation.Errors;
 import org.springframework.validation.MapBindingResult;
 import org.springframework.validation.Validator;
@@ -59,9 +61,11 @@ import fr.cnes.regards.framework.module.validation.ErrorTranslator;
 import fr.cnes.regards.framework.modules.plugins.annotations.Plugin;
 import fr.cnes.regards.framework.modules.plugins.domain.PluginConfiguration;
 import fr.cnes.regards.framework.modules.plugins.service.IPluginService;
+import fr.cnes.regards.framework.multitenant.IRuntimeTenantResolver;
 import fr.cnes.regards.modules.ingest.dao.IIngestProcessingChainRepository;
 import fr.cnes.regards.modules.ingest.dao.IngestProcessingChainSpecifications;
 import fr.cnes.regards.modules.ingest.domain.chain.IngestProcessingChain;
+import fr.cnes.regards.modules.ingest.domain.chain.IngestProcessingChainEvent;
 import fr.cnes.regards.modules.ingest.service.chain.plugin.DefaultSingleAIPGeneration;
 import fr.cnes.regards.modules.ingest.service.chain.plugin.DefaultSipValidation;
 
@@ -95,10 +99,15 @@ public class IngestProcessingChainService implements IIngestProcessingChainServi
     @Autowired
     private Validator validator;
 
-    @SuppressWarnings("unused")
     @Autowired
     private IPublisher publisher;
 
+    @Autowired
+    private IngestProcessingChainCache chainCache;
+
+    @Autowired
+    private IRuntimeTenantResolver runtimeTenantResolver;
+
     @PostConstruct
     public void initDefaultPluginPackages() {
         // Initialize specific GSON instance
@@ -164,7 +173,9 @@ public class IngestProcessingChainService implements IIngestProcessingChainServi
         }
 
         // Save new chain
-        return ingestChainRepository.save(newChain);
+        IngestProcessingChain chain = ingestChainRepository.save(newChain);
+        notifyChainChange(chain.getName());
+        return chain;
     }
 
     @Override
@@ -250,6 +261,7 @@ public class IngestProcessingChainService implements IIngestProcessingChainServi
             }
         }
 
+        notifyChainChange(chainToUpdate.getName());
         return chainToUpdate;
     }
 
@@ -302,6 +314,28 @@ public class IngestProcessingChainService implements IIngestProcessingChainServi
         for (PluginConfiguration pluginConf : plugins) {
             pluginService.deletePluginConfiguration(pluginConf.getBusinessId());
         }
+        notifyChainChange(name);
+    }
+
+    /**
+     * Evict the given chain of the current tenant from the cache of every ingest instance, once the change is
+     * committed
+     */
+    private void notifyChainChange(String name) {
+        String tenant = runtimeTenantResolver.getTenant();
+        chainCache.evict(tenant, name);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCommit() {
+                    chainCache.evict(tenant, name);
+                    publisher.publish(new IngestProcessingChainEvent(name));
+                }
+            });
+        } else {
+            publisher.publish(new IngestProcessingChainEvent(name));
+        }
     }
 
     @Override
@@ -31,8 +31,11 @@ import fr.cnes.regards.framework.modules.plugins.service.IPluginService;
 import fr.cnes.regards.framework.utils.plugins.exception.NotAvailablePluginConfigurationException;
 import fr.cnes.regards.modules.ingest.domain.chain.IngestProcessingChain;
 import fr.cnes.regards.modules.ingest.domain.request.InternalRequestState;
+import fr.cnes.regards.modules.ingest.service.job.IngestProcessingContext;
 import fr.cnes.regards.modules.ingest.service.job.IngestProcessingJob;
+import fr.cnes.regards.modules.ingest.service.metrics.IngestMetrics;
 import fr.cnes.regards.modules.ingest.service.request.IIngestRequestService;
+import io.micrometer.core.instrument.Timer;
 
 /**
  * Common ingest processing step
@@ -49,12 +52,28 @@ public abstract class AbstractIngestStep<I, O> extends AbstractProcessingStep<I,
     @Autowired
     protected IIngestRequestService ingestRequestService;
 
+    @Autowired
+    private IngestMetrics ingestMetrics;
+
     protected Set<String> errors;
 
+    /**
+     * Context of the SIP currently processed by this step instance
+     */
+    protected IngestProcessingContext context;
+
     @Override
     public O execute(I in) throws ProcessingStepException {
         errors = new HashSet<>();
-        return super.execute(in);
+        Timer.Sample sample = ingestMetrics.start();
+        boolean success = false;
+        try {
+            O out = super.execute(in);
+            success = true;
+            return out;
+        } finally {
+            ingestMetrics.stopStep(sample, ingestChain.getName(), getClass().getSimpleName(), success);
+        }
     }
 
     public AbstractIngestStep(IngestProcessingJob job, IngestProcessingChain ingestChain) {
@@ -62,6 +81,10 @@ public abstract class AbstractIngestStep<I, O> extends AbstractProcessingStep<I,
         this.ingestChain = ingestChain;
     }
 
+    public void setContext(IngestProcessingContext context) {
+        this.context = context;
+    }
+
     protected <T> T getStepPlugin(String confId) throws ProcessingStepException {
         try {
             return pluginService.getPlugin(confId);
@@ -92,9 +115,10 @@ public abstract class AbstractIngestStep<I, O> extends AbstractProcessingStep<I,
     protected void handleRequestError(String error) {
         Assert.hasText(error, "Error message is required");
         prependError(error);
-        job.getCurrentRequest().setState(InternalRequestState.ERROR);
-        job.getCurrentRequest().setErrors(errors);
-        ingestRequestService.handleIngestJobFailed(job.getCurrentRequest(), job.getCurrentEntity(), error);
+        context.getRequest().setState(InternalRequestState.ERROR);
+        context.getRequest().setErrors(errors);
+        // Failure is reported to the ingest request service by the job thread
+        context.setFailure(error);
     }
 
     protected ProcessingStepException throwProcessingStepException(String error, Exception e) {
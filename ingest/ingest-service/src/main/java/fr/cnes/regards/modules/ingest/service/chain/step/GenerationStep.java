@@ -29,14 +29,12 @@ import org.springframework.validation.Errors;
 import org.springframework.validation.MapBindingResult;
 import org.springframework.validation.Validator;
 
-import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
 import fr.cnes.regards.framework.module.validation.ErrorTranslator;
 import fr.cnes.regards.framework.modules.jobs.domain.step.ProcessingStepException;
 import fr.cnes.regards.framework.modules.plugins.domain.PluginConfiguration;
 import fr.cnes.regards.framework.oais.EventType;
 import fr.cnes.regards.framework.oais.urn.OaisUniformResourceName;
-import fr.cnes.regards.modules.ingest.dao.IAIPLightRepository;
 import fr.cnes.regards.modules.ingest.domain.chain.IngestProcessingChain;
 import fr.cnes.regards.modules.ingest.domain.plugin.IAipGeneration;
 import fr.cnes.regards.modules.ingest.domain.request.ingest.IngestRequestStep;
@@ -57,23 +55,20 @@ public class GenerationStep extends AbstractIngestStep<SIPEntity, List<AIP>> {
     @Autowired
     private Validator validator;
 
-    @Autowired
-    private IAIPLightRepository aipLightRepository;
-
     public GenerationStep(IngestProcessingJob job, IngestProcessingChain ingestChain) {
         super(job, ingestChain);
     }
 
     @Override
     protected List<AIP> doExecute(SIPEntity sipEntity) throws ProcessingStepException {
-        job.getCurrentRequest().setStep(IngestRequestStep.LOCAL_GENERATION);
+        context.getRequest().setStep(IngestRequestStep.LOCAL_GENERATION);
 
         LOGGER.debug("Generating AIP(s) from SIP \"{}\"", sipEntity.getSip().getId());
         PluginConfiguration conf = ingestChain.getGenerationPlugin();
         IAipGeneration generation = this.getStepPlugin(conf.getBusinessId());
 
         // Retrieve SIP URN from internal identifier
-        OaisUniformResourceName sipId = job.getCurrentEntity().getSipIdUrn();
+        OaisUniformResourceName sipId = context.getEntity().getSipIdUrn();
         // Launch AIP generation
         List<AIP> aips = generation.generate(sipEntity, sipId.getTenant(), sipId.getEntityType());
         // Add version to AIP
@@ -94,15 +89,15 @@ public class GenerationStep extends AbstractIngestStep<SIPEntity, List<AIP>> {
     private void validateAips(List<AIP> aips) throws ProcessingStepException {
         // Validate all elements of the flow item
         Errors validationErrors;
-        Multimap<String, Integer> versionsByProviderId = HashMultimap.create();
+        // Stored versions of all generated provider ids, prefetched by the job
+        Multimap<String, Integer> versionsByProviderId = job.getAipVersionRegistry()
+                .getVersions(aips.stream().map(AIP::getProviderId).collect(Collectors.toSet()));
         for (AIP aip : aips) {
             // first handle issues with this aip
             validationErrors = new MapBindingResult(new HashMap<>(), AIP.class.getName());
             validator.validate(aip, validationErrors);
             // now lets handle issues with all aips generated
             String providerId = aip.getProviderId();
-            aipLightRepository.findAllByProviderId(providerId)
-                    .forEach(aipLight -> versionsByProviderId.put(providerId, aipLight.getVersion()));
             if (!versionsByProviderId.put(providerId, aip.getVersion())) {
                 String error = String
                         .format("Version %s already exists for the providerId %s.", aip.getVersion(), providerId);
@@ -118,7 +113,7 @@ public class GenerationStep extends AbstractIngestStep<SIPEntity, List<AIP>> {
         }
         if (!errors.isEmpty()) {
             throw new ProcessingStepException(String.format("Validation errors for AIPs generated from SIP %s: %s",
-                                                            job.getCurrentEntity().getProviderId(),
+                                                            context.getEntity().getProviderId(),
                                                             errors.stream().collect(Collectors.joining(", "))));
         }
     }
@@ -47,14 +47,14 @@ public class InternalFinalStep extends AbstractIngestStep<List<AIP>, List<AIPEnt
 
     @Override
     protected List<AIPEntity> doExecute(List<AIP> aips) throws ProcessingStepException {
-        job.getCurrentRequest().setStep(IngestRequestStep.LOCAL_FINAL);
-        return ingestRequestService.handleIngestJobSucceed(job.getCurrentRequest(), job.getCurrentEntity(), aips);
+        context.getRequest().setStep(IngestRequestStep.LOCAL_FINAL);
+        return ingestRequestService.handleIngestJobSucceed(context.getRequest(), context.getEntity(), aips);
     }
 
     @Override
     protected void doAfterError(List<AIP> in) {
         handleRequestError(String.format("Persisting SIP and AIP from SIP \"%s\" fails",
-                                         job.getCurrentEntity().getProviderId()));
+                                         context.getEntity().getProviderId()));
     }
 
 }
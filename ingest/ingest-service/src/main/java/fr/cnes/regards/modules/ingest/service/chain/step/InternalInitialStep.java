@@ -56,25 +56,27 @@ public class InternalInitialStep extends AbstractIngestStep<IngestRequest, SIPEn
 
     @Override
     protected SIPEntity doExecute(IngestRequest request) throws ProcessingStepException {
-        job.getCurrentRequest().setStep(IngestRequestStep.LOCAL_INIT);
+        context.getRequest().setStep(IngestRequestStep.LOCAL_INIT);
 
         SIP sip = request.getSip();
 
         //remove null tags because they have no use!
         sip.getTags().remove(null);
 
-        // Compute checksum
-        String checksum;
-        try {
-            checksum = sipService.calculateChecksum(sip);
-        } catch (NoSuchAlgorithmException | IOException e) {
-            throw throwProcessingStepException(String.format("Cannot compute checksum for SIP identified by %s",
-                                                             sip.getId()),
-                                               e);
+        // Compute checksum if not already done for the whole job
+        String checksum = context.getChecksum();
+        if (checksum == null) {
+            try {
+                checksum = sipService.calculateChecksum(sip);
+            } catch (NoSuchAlgorithmException | IOException e) {
+                throw throwProcessingStepException(String.format("Cannot compute checksum for SIP identified by %s",
+                                                                 sip.getId()),
+                                                   e);
+            }
         }
 
-        // Is SIP already ingested?
-        if (sipService.isAlreadyIngested(checksum)) {
+        // Is SIP already ingested? Checksums are resolved once for the whole job
+        if (job.getSipRegistry().isAlreadyIngested(checksum)) {
             throw throwProcessingStepException(String.format(
                                                              "The SIP \"%s\" already exists and there is no difference "
                                                                      + "between this one and the stored one.",
@@ -82,7 +84,7 @@ public class InternalInitialStep extends AbstractIngestStep<IngestRequest, SIPEn
         }
 
         // Manage version
-        Integer version = sipService.getNextVersion(sip);
+        Integer version = job.getSipRegistry().getNextVersion(sip.getId());
         // handle versioning mode
         VersioningMode versioningMode = request.getMetadata().getVersioningMode();
         switch (versioningMode) {
@@ -51,7 +51,7 @@ public class PreprocessingStep extends AbstractIngestStep<SIP, SIP> {
 
     @Override
     public SIP doExecute(SIP sip) throws ProcessingStepException {
-        job.getCurrentRequest().setStep(IngestRequestStep.LOCAL_PRE_PROCESSING);
+        context.getRequest().setStep(IngestRequestStep.LOCAL_PRE_PROCESSING);
 
         Optional<PluginConfiguration> conf = ingestChain.getPreProcessingPlugin();
         if (conf.isPresent()) {
@@ -48,7 +48,7 @@ public class TaggingStep extends AbstractIngestStep<List<AIP>, Void> {
 
     @Override
     protected Void doExecute(List<AIP> aips) throws ProcessingStepException {
-        job.getCurrentRequest().setStep(IngestRequestStep.LOCAL_TAGGING);
+        context.getRequest().setStep(IngestRequestStep.LOCAL_TAGGING);
 
         Optional<PluginConfiguration> conf = ingestChain.getTagPlugin();
         if (conf.isPresent()) {
@@ -64,6 +64,6 @@ public class TaggingStep extends AbstractIngestStep<List<AIP>, Void> {
     @Override
     protected void doAfterError(List<AIP> pIn) {
         handleRequestError(String.format("Tagging fails for AIP of SIP \"%s\"",
-                                         job.getCurrentEntity().getProviderId()));
+                                         context.getEntity().getProviderId()));
     }
 }
@@ -51,7 +51,7 @@ public class ValidationStep extends AbstractIngestStep<SIP, Void> {
 
     @Override
     protected Void doExecute(SIP sip) throws ProcessingStepException {
-        job.getCurrentRequest().setStep(IngestRequestStep.LOCAL_VALIDATION);
+        context.getRequest().setStep(IngestRequestStep.LOCAL_VALIDATION);
 
         LOGGER.debug("Validating SIP \"{}\"", sip.getId());
         PluginConfiguration conf = ingestChain.getValidationPlugin();
@@ -48,6 +48,50 @@ public class IngestConfigurationProperties {
     @Value("${regards.ingest.remote.request.timeout:5}")
     private Long remoteRequestTimeout;
 
+    /**
+     * Upper bound of the parallelism configured on ingest processing chains
+     */
+    @Value("${regards.ingest.processing.max.parallelism:8}")
+    private Integer maxProcessingParallelism;
+
+    /**
+     * Maximum number of AIPs updated concurrently by an AIP update job
+     */
+    @Value("${regards.ingest.aip.update.parallelism:4}")
+    private Integer aipUpdateParallelism;
+
+    /**
+     * Maximum number of ingest processing jobs queued or running at once. Once reached, granted ingest requests wait
+     * for a job slot.
+     */
+    @Value("${regards.ingest.processing.jobs.max.active:16}")
+    private Integer maxActiveIngestJobs;
+
+    /**
+     * Maximum number of jobs of a same kind (AIP update, deletion or post process) queued or running at once
+     */
+    @Value("${regards.ingest.request.jobs.max.active:8}")
+    private Integer maxActiveRequestJobs;
+
+    /**
+     * Maximum number of jobs of a same kind created by a scheduler tick
+     */
+    @Value("${regards.ingest.request.jobs.max.per.tick:4}")
+    private Integer maxRequestJobsPerTick;
+
+    /**
+     * Maximum number of requests handled by one job. The minimum is regards.ingest.aips.scan.iteration-limit.
+     */
+    @Value("${regards.ingest.request.jobs.max.batch.size:1000}")
+    private Integer maxRequestJobBatchSize;
+
+    /**
+     * If true, session deltas are not notified on transaction commit but accumulated and notified periodically,
+     * every regards.ingest.session.notification.flush.delay milliseconds.
+     */
+    @Value("${regards.ingest.session.notification.deferred:false}")
+    private Boolean sessionNotificationDeferred;
+
     public Integer getMaxBulkSize() {
         return maxBulkSize;
     }
@@ -72,4 +116,60 @@ public class IngestConfigurationProperties {
         this.batchReceiveTimeout = batchReceiveTimeout;
     }
 
+    public Integer getMaxProcessingParallelism() {
+        return maxProcessingParallelism;
+    }
+
+    public void setMaxProcessingParallelism(Integer maxProcessingParallelism) {
+        this.maxProcessingParallelism = maxProcessingParallelism;
+    }
+
+    public Integer getAipUpdateParallelism() {
+        return aipUpdateParallelism;
+    }
+
+    public void setAipUpdateParallelism(Integer aipUpdateParallelism) {
+        this.aipUpdateParallelism = aipUpdateParallelism;
+    }
+
+    public Integer getMaxActiveIngestJobs() {
+        return maxActiveIngestJobs;
+    }
+
+    public void setMaxActiveIngestJobs(Integer maxActiveIngestJobs) {
+        this.maxActiveIngestJobs = maxActiveIngestJobs;
+    }
+
+    public Integer getMaxActiveRequestJobs() {
+        return maxActiveRequestJobs;
+    }
+
+    public void setMaxActiveRequestJobs(Integer maxActiveRequestJobs) {
+        this.maxActiveRequestJobs = maxActiveRequestJobs;
+    }
+
+    public Integer getMaxRequestJobsPerTick() {
+        return maxRequestJobsPerTick;
+    }
+
+    public void setMaxRequestJobsPerTick(Integer maxRequestJobsPerTick) {
+        this.maxRequestJobsPerTick = maxRequestJobsPerTick;
+    }
+
+    public Integer getMaxRequestJobBatchSize() {
+        return maxRequestJobBatchSize;
+    }
+
+    public void setMaxRequestJobBatchSize(Integer maxRequestJobBatchSize) {
+        this.maxRequestJobBatchSize = maxRequestJobBatchSize;
+    }
+
+    public boolean isSessionNotificationDeferred() {
+        return Boolean.TRUE.equals(sessionNotificationDeferred);
+    }
+
+    public void setSessionNotificationDeferred(Boolean sessionNotificationDeferred) {
+        this.sessionNotificationDeferred = sessionNotificationDeferred;
+    }
+
 }
@@ -27,6 +27,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import fr.cnes.regards.framework.amqp.batch.IBatchHandler;
 import fr.cnes.regards.framework.amqp.event.ISubscribable;
 import fr.cnes.regards.framework.multitenant.IRuntimeTenantResolver;
+import fr.cnes.regards.modules.ingest.service.metrics.IngestMetrics;
+import io.micrometer.core.instrument.Timer;
 
 /**
  * Common handler behaviour
@@ -39,6 +41,9 @@ public abstract class AbstractRequestFlowHandler<T extends ISubscribable> implem
     @Autowired
     private IRuntimeTenantResolver runtimeTenantResolver;
 
+    @Autowired
+    private IngestMetrics ingestMetrics;
+
     @Override
     public boolean validate(String tenant, T message) {
         return true;
@@ -50,7 +55,14 @@ public abstract class AbstractRequestFlowHandler<T extends ISubscribable> implem
         try {
             LOGGER.trace("Processing bulk of {} items", messages.size());
             long start = System.currentTimeMillis();
-            processBulk(messages);
+            Timer.Sample sample = ingestMetrics.start();
+            boolean success = false;
+            try {
+                processBulk(messages);
+                success = true;
+            } finally {
+                ingestMetrics.stopBatch(sample, getClass().getSimpleName(), messages.size(), success);
+            }
             if (!messages.isEmpty()) {
                 LOGGER.debug("{} items registered in {} ms", messages.size(), System.currentTimeMillis() - start);
             }
@@ -20,9 +20,7 @@ package fr.cnes.regards.modules.ingest.service.flow;
 
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
 
 import org.slf4j.Logger;
@@ -33,6 +31,7 @@ import org.springframework.stereotype.Component;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
+import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Sets;
 import fr.cnes.regards.framework.jpa.multitenant.transactional.MultitenantTransactional;
 import fr.cnes.regards.framework.oais.urn.OaisUniformResourceName;
@@ -42,6 +41,7 @@ import fr.cnes.regards.modules.ingest.domain.request.ingest.IngestRequest;
 import fr.cnes.regards.modules.ingest.domain.request.update.AIPUpdateFileLocationTask;
 import fr.cnes.regards.modules.ingest.domain.request.update.AbstractAIPUpdateTask;
 import fr.cnes.regards.modules.ingest.service.aip.AIPService;
+import fr.cnes.regards.modules.ingest.service.metrics.IngestMetrics;
 import fr.cnes.regards.modules.ingest.service.request.AIPUpdateRequestService;
 import fr.cnes.regards.modules.ingest.service.request.IIngestRequestService;
 import fr.cnes.regards.modules.ingest.service.request.IOAISDeletionService;
@@ -49,6 +49,7 @@ import fr.cnes.regards.modules.ingest.service.request.IRequestService;
 import fr.cnes.regards.modules.storage.client.IStorageRequestListener;
 import fr.cnes.regards.modules.storage.client.RequestInfo;
 import fr.cnes.regards.modules.storage.domain.dto.request.RequestResultInfoDTO;
+import io.micrometer.core.instrument.Timer;
 
 /**
  * This class offers callbacks from storage events
@@ -64,6 +65,11 @@ public class StorageResponseFlowHandler implements IStorageRequestListener {
 
     private static final String HANDLER_NAME = "[STORAGE RESPONSE HANDLER] ";
 
+    /**
+     * Handler tag prefix of batch metrics, followed by the callback name
+     */
+    private static final String METRICS_HANDLER = StorageResponseFlowHandler.class.getSimpleName() + ".";
+
     @Autowired
     private IIngestRequestService ingestRequestService;
 
@@ -79,21 +85,29 @@ public class StorageResponseFlowHandler implements IStorageRequestListener {
     @Autowired
     private AIPService aipService;
 
+    @Autowired
+    private IngestMetrics ingestMetrics;
+
     @Override
     public void onCopySuccess(Set<RequestInfo> requests) {
+        recordBatch("onCopySuccess", requests.size(), () -> handleCopySuccess(requests));
+    }
+
+    private void handleCopySuccess(Set<RequestInfo> requests) {
         long start = System.currentTimeMillis();
         LOGGER.debug("[COPY RESPONSE HANDLER] Handling {} copy group requests", requests.size());
         // When a AIP is successfully copied to a new location, we have to update local AIP to add the new location.
         // Dispatch each success copy request by AIP to update
         Multimap<String, AbstractAIPUpdateTask> updateTasksByAIPId = createAIPUpdateTasksByAIP(requests);
         // To improve performance, retrieve all requested AIPs in one request
-        Collection<AIPEntity> aips = aipService.findByAipIds(updateTasksByAIPId.keySet());
+        Map<String, AIPEntity> aipsById = new HashMap<>();
+        aipService.findByAipIds(updateTasksByAIPId.keySet()).forEach(a -> aipsById.putIfAbsent(a.getAipId(), a));
         // Then dispatch each update task by AIPentity
         Multimap<AIPEntity, AbstractAIPUpdateTask> updateTasksByAIP = ArrayListMultimap.create();
         updateTasksByAIPId.asMap().forEach((aipId, tasks) -> {
-            Optional<AIPEntity> aip = aips.stream().filter(a -> a.getAipId().equals(aipId)).findFirst();
-            if (aip.isPresent()) {
-                updateTasksByAIP.putAll(aip.get(), tasks);
+            AIPEntity aip = aipsById.get(aipId);
+            if (aip != null) {
+                updateTasksByAIP.putAll(aip, tasks);
             }
         });
         // Finally, creates the AIPUpdateLocationRequests
@@ -122,29 +136,36 @@ public class StorageResponseFlowHandler implements IStorageRequestListener {
     @Override
     public void onDeletionSuccess(Set<RequestInfo> requests) {
         LOGGER.debug("[DELETION RESPONSE HANDLER] Handling {} deletion group requests", requests.size());
-        deleteRequestService.handleRemoteDeleteSuccess(requests);
+        recordBatch("onDeletionSuccess", requests.size(),
+                    () -> deleteRequestService.handleRemoteDeleteSuccess(requests));
     }
 
     @Override
     public void onDeletionError(Set<RequestInfo> requests) {
         LOGGER.debug("[DELETION RESPONSE HANDLER] Handling {} deletion error group requests", requests.size());
-        deleteRequestService.handleRemoteDeleteError(requests);
+        recordBatch("onDeletionError", requests.size(), () -> deleteRequestService.handleRemoteDeleteError(requests));
     }
 
     @Override
     public void onReferenceSuccess(Set<RequestInfo> requests) {
         LOGGER.debug("[REFERENCE RESPONSE HANDLER] Handling {} reference group requests", requests.size());
-        ingestRequestService.handleRemoteReferenceSuccess(requests);
+        recordBatch("onReferenceSuccess", requests.size(),
+                    () -> ingestRequestService.handleRemoteReferenceSuccess(requests));
     }
 
     @Override
     public void onReferenceError(Set<RequestInfo> requests) {
         LOGGER.debug("[REFERENCE RESPONSE HANDLER] Handling {} reference error group requests", requests.size());
-        ingestRequestService.handleRemoteReferenceError(requests);
+        recordBatch("onReferenceError", requests.size(),
+                    () -> ingestRequestService.handleRemoteReferenceError(requests));
     }
 
     @Override
     public void onStoreSuccess(Set<RequestInfo> requestInfos) {
+        recordBatch("onStoreSuccess", requestInfos.size(), () -> handleStoreSuccess(requestInfos));
+    }
+
+    private void handleStoreSuccess(Set<RequestInfo> requestInfos) {
 
         long globalstart = System.currentTimeMillis();
         LOGGER.debug(HANDLER_NAME + "Handling {} storage group requests", requestInfos.size());
@@ -152,30 +173,28 @@ public class StorageResponseFlowHandler implements IStorageRequestListener {
         // Detect INGEST requests to handle
         Map<RequestInfo, Set<IngestRequest>> toHandle = new HashMap<>();
 
-        List<AbstractRequest> requests = requestService.getRequests(requestInfos);
+        // Index requests by group id once for all responses
+        SetMultimap<String, AbstractRequest> requestsByGroupId = requestService.getRequestsByGroupId(requestInfos);
         for (RequestInfo ri : requestInfos) {
             LOGGER.trace(HANDLER_NAME + "handling success storage request {} with {} success / {} errors",
                          ri.getGroupId(), ri.getSuccessRequests().size(), ri.getErrorRequests().size());
-            boolean found = false;
+            Set<AbstractRequest> requests = requestsByGroupId.get(ri.getGroupId());
             Set<IngestRequest> toHandleRemote = Sets.newHashSet();
 
             for (AbstractRequest request : requests) {
-                if (request.getRemoteStepGroupIds().contains(ri.getGroupId())) {
-                    found = true;
-                    if (request instanceof IngestRequest) {
-                        LOGGER.trace(HANDLER_NAME + "Ingest request {} found associated to group request {}",
-                                     request.getId(), ri.getGroupId());
-                        toHandleRemote.add((IngestRequest) request);
-                    } else {
-                        LOGGER.trace(HANDLER_NAME + "Request type undefined {} for group {}", request.getId(),
-                                     ri.getGroupId());
-                        requestService.handleRemoteStoreSuccess(request);
-                    }
+                if (request instanceof IngestRequest) {
+                    LOGGER.trace(HANDLER_NAME + "Ingest request {} found associated to group request {}",
+                                 request.getId(), ri.getGroupId());
+                    toHandleRemote.add((IngestRequest) request);
+                } else {
+                    LOGGER.trace(HANDLER_NAME + "Request type undefined {} for group {}", request.getId(),
+                                 ri.getGroupId());
+                    requestService.handleRemoteStoreSuccess(request);
                 }
             }
 
             toHandle.put(ri, toHandleRemote);
-            if (!found) {
+            if (requests.isEmpty()) {
                 LOGGER.warn(HANDLER_NAME + "No request found associated to group request {}", ri.getGroupId());
             }
         }
@@ -192,21 +211,38 @@ public class StorageResponseFlowHandler implements IStorageRequestListener {
 
     @Override
     public void onStoreError(Set<RequestInfo> requestInfos) {
+        recordBatch("onStoreError", requestInfos.size(), () -> handleStoreError(requestInfos));
+    }
+
+    private void handleStoreError(Set<RequestInfo> requestInfos) {
         LOGGER.debug(HANDLER_NAME + "Handling {} storage error group requests", requestInfos.size());
-        List<AbstractRequest> requests = requestService.getRequests(requestInfos);
+        SetMultimap<String, AbstractRequest> requestsByGroupId = requestService.getRequestsByGroupId(requestInfos);
         for (RequestInfo ri : requestInfos) {
-            for (AbstractRequest request : requests) {
-                if (request.getRemoteStepGroupIds().contains(ri.getGroupId())) {
-                    if (request instanceof IngestRequest) {
-                        ingestRequestService.handleRemoteStoreError((IngestRequest) request, ri);
-                    }  else {
-                        requestService.handleRemoteStoreError(request);
-                    }
+            for (AbstractRequest request : requestsByGroupId.get(ri.getGroupId())) {
+                if (request instanceof IngestRequest) {
+                    ingestRequestService.handleRemoteStoreError((IngestRequest) request, ri);
+                } else {
+                    requestService.handleRemoteStoreError(request);
                 }
             }
         }
     }
 
+    /**
+     * Handle a batch of storage responses and record its size and duration, whatever its outcome
+     * @param callback name of the storage callback
+     */
+    private void recordBatch(String callback, int size, Runnable handling) {
+        Timer.Sample sample = ingestMetrics.start();
+        boolean success = false;
+        try {
+            handling.run();
+            success = true;
+        } finally {
+            ingestMetrics.stopBatch(sample, METRICS_HANDLER + callback, size, success);
+        }
+    }
+
     @Override
     public void onRequestGranted(Set<RequestInfo> requests) {
         requestService.handleRemoteRequestGranted(requests);
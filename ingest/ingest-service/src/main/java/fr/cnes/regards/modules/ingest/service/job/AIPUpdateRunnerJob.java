@@ -20,10 +20,14 @@ package fr.cnes.regards.modules.ingest.service.job;
 
 import java.lang.reflect.Type;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -31,6 +35,7 @@ import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
 
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.google.gson.reflect.TypeToken;
 
@@ -39,6 +44,8 @@ import fr.cnes.regards.framework.modules.jobs.domain.AbstractJob;
 import fr.cnes.regards.framework.modules.jobs.domain.JobParameter;
 import fr.cnes.regards.framework.modules.jobs.domain.exception.JobParameterInvalidException;
 import fr.cnes.regards.framework.modules.jobs.domain.exception.JobParameterMissingException;
+import fr.cnes.regards.framework.multitenant.IRuntimeTenantResolver;
+import fr.cnes.regards.framework.utils.RsRuntimeException;
 import fr.cnes.regards.modules.ingest.dao.IAIPUpdateRequestRepository;
 import fr.cnes.regards.modules.ingest.domain.aip.AIPEntity;
 import fr.cnes.regards.modules.ingest.domain.job.AIPEntityUpdateWrapper;
@@ -49,6 +56,7 @@ import fr.cnes.regards.modules.ingest.domain.request.update.AIPUpdateRequestStep
 import fr.cnes.regards.modules.ingest.domain.request.update.AbstractAIPUpdateTask;
 import fr.cnes.regards.modules.ingest.domain.settings.AIPNotificationSettings;
 import fr.cnes.regards.modules.ingest.service.aip.IAIPService;
+import fr.cnes.regards.modules.ingest.service.conf.IngestConfigurationProperties;
 import fr.cnes.regards.modules.ingest.service.job.step.IUpdateStep;
 import fr.cnes.regards.modules.ingest.service.job.step.UpdateAIPLocation;
 import fr.cnes.regards.modules.ingest.service.job.step.UpdateAIPSimpleProperty;
@@ -66,6 +74,16 @@ public class AIPUpdateRunnerJob extends AbstractJob<Void> {
 
     public static final String UPDATE_REQUEST_IDS = "UPDATE_REQUEST_IDS";
 
+    /**
+     * Maximum number of file deletion requests sent to storage in one call
+     */
+    private static final int MAX_FILE_DELETIONS_PER_CALL = 1000;
+
+    /**
+     * Maximum time to wait for running updates to complete when the job is interrupted
+     */
+    private static final long INTERRUPTION_TIMEOUT_SECONDS = 30;
+
     private List<AIPUpdateRequest> requests;
 
     private int completionCount;
@@ -91,6 +109,21 @@ public class AIPUpdateRunnerJob extends AbstractJob<Void> {
     @Autowired
     private AIPNotificationSettingsService aipNotificationSettingsService;
 
+    @Autowired
+    private IRuntimeTenantResolver runtimeTenantResolver;
+
+    @Autowired
+    private IngestConfigurationProperties confProperties;
+
+    /**
+     * Update steps, stateless so shared by all AIPs of the job
+     */
+    private IUpdateStep updateAIPFile;
+
+    private IUpdateStep updateAIPSimpleProperty;
+
+    private IUpdateStep updateAIPStorage;
+
     private static int compareUpdateRequests(AIPUpdateRequest r1, AIPUpdateRequest r2) {
         // sort by type of task
         int sortValue = r1.getUpdateTask().getType().getOrder(r2.getUpdateTask().getType());
@@ -155,48 +188,58 @@ public class AIPUpdateRunnerJob extends AbstractJob<Void> {
     private void updateAIPs(ListMultimap<String, AIPUpdateRequest> requestByAIP) {
         List<AIPEntity> updates = new ArrayList<>();
         Set<AbstractRequest> requestsToNotify = Sets.newHashSet();
-        long numberOfDeletionRequest = 0L;
+        List<FileDeletionRequestDTO> deletionRequests = new ArrayList<>();
 
         // See if notifications are required
         AIPNotificationSettings notificationSettings = aipNotificationSettingsService.retrieve();
         boolean isToNotify = notificationSettings.isActiveNotification();
 
-        for (String aipId : requestByAIP.keySet()) {
-            // Get the ordered list of task to execute on this AIP
-            List<AIPUpdateRequest> updateRequests = getOrderedTaskList(aipId, requestByAIP);
-            if (Thread.currentThread().isInterrupted()) {
-                updateRequests.forEach(ur -> ur.setState(InternalRequestState.ABORTED));
-            } else {
-                // Run each task
-                AIPEntityUpdateWrapper aipWrapper = runUpdates(updateRequests);
-                // Did something change in the AIP?
-                if (!aipWrapper.isPristine()) {
-                    // Save the AIP through the service
-                    updates.add(aipWrapper.getAip());
-                    // if notifications are required
-                    if (isToNotify) {
-                        // add request to list of requests with aip successfully modified
-                        requestsToNotify.addAll(updateRequests);
-                    }
-                    // Wrapper also collect events
-                    if (aipWrapper.hasDeletionRequests()) {
-                        // Request files deletion
-                        Collection<FileDeletionRequestDTO> deletionRequests = aipWrapper.getDeletionRequests();
-                        logger.trace("[AIP {}] Run {} deletion requests on storage.", aipWrapper.getAip().getAipId(),
-                                     deletionRequests.size());
-                        numberOfDeletionRequest += deletionRequests.size();
-                        storageClient.delete(deletionRequests);
-                    }
+        // Get the ordered list of task to execute on each AIP. Tasks are loaded here, by the job thread.
+        List<List<AIPUpdateRequest>> requestsPerAIP = requestByAIP.keySet().stream()
+                .map(aipId -> getOrderedTaskList(aipId, requestByAIP)).collect(Collectors.toList());
+        initUpdateSteps();
+        // Run each task. AIPs are independent so they can be updated concurrently.
+        int parallelism = Math.min(confProperties.getAipUpdateParallelism(), requestsPerAIP.size());
+        List<AIPEntityUpdateWrapper> aipWrappers;
+        if (parallelism > 1) {
+            aipWrappers = runUpdatesInParallel(requestsPerAIP, parallelism);
+        } else {
+            aipWrappers = new ArrayList<>();
+            for (List<AIPUpdateRequest> updateRequests : requestsPerAIP) {
+                aipWrappers.add(runUpdatesIfNotInterrupted(updateRequests));
+                // update progress
+                advanceCompletion();
+            }
+        }
+
+        for (int i = 0; i < requestsPerAIP.size(); i++) {
+            AIPEntityUpdateWrapper aipWrapper = aipWrappers.get(i);
+            // Did something change in the AIP?
+            if ((aipWrapper != null) && !aipWrapper.isPristine()) {
+                // Save the AIP through the service
+                updates.add(aipWrapper.getAip());
+                // if notifications are required
+                if (isToNotify) {
+                    // add request to list of requests with aip successfully modified
+                    requestsToNotify.addAll(requestsPerAIP.get(i));
+                }
+                // Wrapper also collect events
+                if (aipWrapper.hasDeletionRequests()) {
+                    logger.trace("[AIP {}] {} deletion requests to run on storage.", aipWrapper.getAip().getAipId(),
+                                 aipWrapper.getDeletionRequests().size());
+                    deletionRequests.addAll(aipWrapper.getDeletionRequests());
                 }
             }
-            // update progress
-            advanceCompletion();
         }
         // this use of Thread.interrupted is really wanted. we need to clear the interrupted flag so hibernate
         // transaction can be realized to update requests states.
         boolean interrupted = Thread.interrupted();
 
-        logger.info(this.getClass().getSimpleName() + ": {} file deletion requested.", numberOfDeletionRequest);
+        // Request files deletion of all AIPs at once
+        for (List<FileDeletionRequestDTO> chunk : Lists.partition(deletionRequests, MAX_FILE_DELETIONS_PER_CALL)) {
+            storageClient.delete(chunk);
+        }
+        logger.info(this.getClass().getSimpleName() + ": {} file deletion requested.", deletionRequests.size());
 
         // Keep only ERROR requests
         List<AIPUpdateRequest> succeedRequestsToDelete = requestByAIP.values().stream()
@@ -233,25 +276,112 @@ public class AIPUpdateRunnerJob extends AbstractJob<Void> {
     }
 
     /**
-     * Run update tasks
+     * Initializing update steps
      */
-    private AIPEntityUpdateWrapper runUpdates(List<AIPUpdateRequest> updateRequests) {
-        // Initializing update steps
-
+    private void initUpdateSteps() {
         // Update AIP files bean
-        IUpdateStep updateAIPFile = new UpdateAIPLocation();
+        updateAIPFile = new UpdateAIPLocation();
         beanFactory.autowireBean(updateAIPFile);
 
         // Update simple AIP properties bean
-        IUpdateStep updateAIPSimpleProperty = new UpdateAIPSimpleProperty();
+        updateAIPSimpleProperty = new UpdateAIPSimpleProperty();
         beanFactory.autowireBean(updateAIPSimpleProperty);
 
         // Update AIP storages bean
-        IUpdateStep updateAIPStorage = new UpdateAIPStorage();
+        updateAIPStorage = new UpdateAIPStorage();
         beanFactory.autowireBean(updateAIPStorage);
+    }
 
-        // END initializing update steps
+    /**
+     * Run update tasks of each AIP on a bounded pool of workers. Each AIP is handled by a single worker.
+     * No persistence is done by the workers.
+     * @return update result of each AIP, in the same order, null if the AIP has not been updated due to interruption
+     */
+    private List<AIPEntityUpdateWrapper> runUpdatesInParallel(List<List<AIPUpdateRequest>> requestsPerAIP,
+            int parallelism) {
+        String tenant = runtimeTenantResolver.getTenant();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        List<AIPEntityUpdateWrapper> aipWrappers = new ArrayList<>();
+        try {
+            List<Future<AIPEntityUpdateWrapper>> futures = new ArrayList<>();
+            for (List<AIPUpdateRequest> updateRequests : requestsPerAIP) {
+                futures.add(executor.submit(() -> runUpdates(updateRequests, tenant)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    aipWrappers.add(futures.get(i).get());
+                    // update progress
+                    advanceCompletion();
+                } catch (InterruptedException e) {
+                    // Stop pending updates, abort requests of AIPs not updated
+                    executor.shutdownNow();
+                    awaitRunningUpdates(executor);
+                    for (int j = i; j < futures.size(); j++) {
+                        aipWrappers.add(getIfCompleted(futures.get(j), requestsPerAIP.get(j)));
+                    }
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        } catch (ExecutionException e) {
+            throw new RsRuntimeException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return aipWrappers;
+    }
+
+    private void awaitRunningUpdates(ExecutorService executor) {
+        try {
+            if (!executor.awaitTermination(INTERRUPTION_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                logger.warn("[AIP UPDATE JOB] Some AIP updates are still running after job interruption");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private AIPEntityUpdateWrapper getIfCompleted(Future<AIPEntityUpdateWrapper> future,
+            List<AIPUpdateRequest> updateRequests) throws ExecutionException {
+        if (future.isDone() && !future.isCancelled()) {
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                // Cannot happen, the future is done
+                Thread.currentThread().interrupt();
+            }
+        }
+        updateRequests.forEach(ur -> ur.setState(InternalRequestState.ABORTED));
+        return null;
+    }
 
+    /**
+     * Worker side of the update : run update tasks of one AIP in the job tenant
+     */
+    private AIPEntityUpdateWrapper runUpdates(List<AIPUpdateRequest> updateRequests, String tenant) {
+        try {
+            runtimeTenantResolver.forceTenant(tenant);
+            return runUpdatesIfNotInterrupted(updateRequests);
+        } finally {
+            runtimeTenantResolver.clearTenant();
+        }
+    }
+
+    /**
+     * @return update result of the AIP or null if the current thread is interrupted
+     */
+    private AIPEntityUpdateWrapper runUpdatesIfNotInterrupted(List<AIPUpdateRequest> updateRequests) {
+        if (Thread.currentThread().isInterrupted()) {
+            updateRequests.forEach(ur -> ur.setState(InternalRequestState.ABORTED));
+            return null;
+        }
+        return runUpdates(updateRequests);
+    }
+
+    /**
+     * Run update tasks
+     */
+    private AIPEntityUpdateWrapper runUpdates(List<AIPUpdateRequest> updateRequests) {
         AIPEntityUpdateWrapper aip = AIPEntityUpdateWrapper.build(updateRequests.get(0).getAip());
         for (AIPUpdateRequest updateRequest : updateRequests) {
             AbstractAIPUpdateTask updateTask = updateRequest.getUpdateTask();
@@ -23,10 +23,6 @@ import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 
 import fr.cnes.regards.framework.modules.jobs.domain.AbstractJob;
 import fr.cnes.regards.framework.modules.jobs.domain.JobParameter;
@@ -93,25 +89,19 @@ public class AIPUpdatesCreatorJob extends AbstractJob<Void> {
     public void run() {
         logger.debug("[AIP UPDATE CREATOR JOB] Running job ...");
         long start = System.currentTimeMillis();
-        Pageable pageRequest = PageRequest.of(0, aipIterationLimit, Sort.Direction.ASC, "id");
-        Page<AIPEntity> aipsPage;
         int nbScheduled = 0;
         // Set the request as running
         request.setState(InternalRequestState.RUNNING);
         aipUpdatesCreatorRepository.save(request);
         AIPUpdateParametersDto updateTask = request.getConfig();
-        aipsPage = aipRepository.findByFilters(updateTask.getCriteria(), pageRequest);
-        while (aipsPage.hasContent()) {
-            aipsPage = aipRepository.findByFilters(updateTask.getCriteria(), pageRequest);
-            // Save number of pages to publish job advancement
-            if (totalPages < aipsPage.getTotalPages()) {
-                totalPages = aipsPage.getTotalPages();
-            }
-            nbScheduled += aipUpdateReqService.create(aipsPage.getContent(), AbstractAIPUpdateTask.build(updateTask));
-            if (totalPages > 0) {
-                advanceCompletion();
-            }
-            pageRequest = pageRequest.next();
+        // Scan AIPs by id, number of pages is only computed once
+        KeysetScan<AIPEntity> scan = new KeysetScan<>((lastId, limit) -> aipRepository
+                .findByFiltersAfterId(updateTask.getCriteria(), lastId, limit), AIPEntity::getId, aipIterationLimit,
+                aipRepository.countByFilters(updateTask.getCriteria()));
+        totalPages = scan.getTotalPages();
+        while (scan.hasNext()) {
+            nbScheduled += aipUpdateReqService.create(scan.next(), AbstractAIPUpdateTask.build(updateTask));
+            advanceCompletion();
         }
         // Delete the request
         requestService.deleteRequest(request);
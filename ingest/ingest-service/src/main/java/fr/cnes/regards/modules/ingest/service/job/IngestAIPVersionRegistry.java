@@ -0,0 +1,95 @@
+/*
+ * Copyright 2017-2020 CNES - CENTRE NATIONAL d'ETUDES SPATIALES
+ *
+ * This file is part of REGARDS.
+ *
+ * REGARDS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * REGARDS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with REGARDS. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.cnes.regards.modules.ingest.service.job;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Multimaps;
+import com.google.common.collect.SetMultimap;
+
+import fr.cnes.regards.modules.ingest.domain.aip.AIPEntity;
+import fr.cnes.regards.modules.ingest.dto.aip.AIP;
+
+/**
+ * Job level view of the versions of already stored {@link AIPEntity}s per provider id.<br/>
+ * Versions of the provider ids of the SIPs of an {@link IngestProcessingJob} are loaded once for the whole job.
+ * Versions of other provider ids, produced by generation plugins, are loaded on demand. The registry is kept up to
+ * date with the AIPs persisted by the job so that version collisions are detected as if each AIP was checked against
+ * the database.<br/>
+ * Thread safe, AIPs are generated by the job workers.
+ *
+ * @author Sébastien Binda
+ */
+public class IngestAIPVersionRegistry {
+
+    private final SetMultimap<String, Integer> versions = Multimaps.synchronizedSetMultimap(HashMultimap.create());
+
+    /**
+     * Provider ids whose versions are already loaded
+     */
+    private final Set<String> loaded = ConcurrentHashMap.newKeySet();
+
+    private final Function<Collection<String>, Multimap<String, Integer>> loader;
+
+    /**
+     * @param loader loads versions of stored AIPs for a set of provider ids
+     */
+    public IngestAIPVersionRegistry(Function<Collection<String>, Multimap<String, Integer>> loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * Load versions of stored AIPs of the given provider ids, if not already loaded
+     */
+    public void load(Collection<String> providerIds) {
+        Set<String> toLoad = providerIds.stream().filter(p -> !loaded.contains(p)).collect(Collectors.toSet());
+        if (!toLoad.isEmpty()) {
+            versions.putAll(loader.apply(toLoad));
+            loaded.addAll(toLoad);
+        }
+    }
+
+    /**
+     * Get versions of stored AIPs of the given provider ids, loading missing ones
+     * @return a copy of the versions, grouped by provider id
+     */
+    public Multimap<String, Integer> getVersions(Collection<String> providerIds) {
+        load(providerIds);
+        Multimap<String, Integer> copy = HashMultimap.create();
+        synchronized (versions) {
+            providerIds.forEach(providerId -> copy.putAll(providerId, versions.get(providerId)));
+        }
+        return copy;
+    }
+
+    /**
+     * Register AIPs newly persisted by the job
+     */
+    public void register(Collection<AIP> aips) {
+        if (aips != null) {
+            aips.forEach(aip -> versions.put(aip.getProviderId(), aip.getVersion()));
+        }
+    }
+}
@@ -18,6 +18,8 @@
  */
 package fr.cnes.regards.modules.ingest.service.job;
 
+import fr.cnes.regards.modules.ingest.domain.sip.IngestRequestPriority;
+
 /**
  * Ingest jobs priority management
  * @author Marc Sordi
@@ -105,4 +107,23 @@ public enum IngestJobPriority {
     };
 
     public abstract int getPriority();
+
+    /**
+     * Gap between the priorities of ingest processing jobs of two consecutive {@link IngestRequestPriority}
+     */
+    public static final int INGEST_PRIORITY_STEP = 10;
+
+    /**
+     * @param requestPriority priority of the requests handled by the job
+     * @return priority of an ingest processing job
+     */
+    public static int getIngestProcessingPriority(IngestRequestPriority requestPriority) {
+        int priority = INGEST_PROCESSING_JOB_PRIORITY.getPriority();
+        if (requestPriority == IngestRequestPriority.HIGH) {
+            priority += INGEST_PRIORITY_STEP;
+        } else if (requestPriority == IngestRequestPriority.LOW) {
+            priority -= INGEST_PRIORITY_STEP;
+        }
+        return priority;
+    }
 }
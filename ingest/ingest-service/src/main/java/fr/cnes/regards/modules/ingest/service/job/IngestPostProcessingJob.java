@@ -42,8 +42,10 @@ import fr.cnes.regards.modules.ingest.dao.IAIPPostProcessRequestRepository;
 import fr.cnes.regards.modules.ingest.domain.aip.AIPEntity;
 import fr.cnes.regards.modules.ingest.domain.plugin.ISipPostprocessing;
 import fr.cnes.regards.modules.ingest.domain.request.InternalRequestState;
+import fr.cnes.regards.modules.ingest.domain.request.RequestSchedulerType;
 import fr.cnes.regards.modules.ingest.domain.request.postprocessing.AIPPostProcessRequest;
 import fr.cnes.regards.modules.ingest.domain.request.postprocessing.PostProcessResult;
+import fr.cnes.regards.modules.ingest.service.schedule.RequestSchedulingSignals;
 import fr.cnes.regards.modules.ingest.service.session.SessionNotifier;
 
 /**
@@ -63,6 +65,9 @@ public class IngestPostProcessingJob extends AbstractJob<Void> {
     @Autowired
     private SessionNotifier sessionNotifier;
 
+    @Autowired
+    private RequestSchedulingSignals schedulingSignals;
+
     public static final String AIP_POST_PROCESS_REQUEST_IDS = "AIP_POST_PROCESS_REQUEST_IDS";
 
     private Map<Long, AIPPostProcessRequest> requests;
@@ -274,6 +279,8 @@ public class IngestPostProcessingJob extends AbstractJob<Void> {
         //Delete successful requests
         aipPostProcessRequestRepository.deleteAll(succeedRequestsToDelete);
         logger.debug("AIPs in success deleted from database");
+        // Job slot is about to be released
+        schedulingSignals.signal(RequestSchedulerType.AIP_POST_PROCESS);
     }
 
     @Override
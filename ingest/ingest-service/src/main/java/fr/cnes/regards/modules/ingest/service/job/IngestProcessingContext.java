@@ -0,0 +1,110 @@
+/*
+ * Copyright 2017-2020 CNES - CENTRE NATIONAL d'ETUDES SPATIALES
+ *
+ * This file is part of REGARDS.
+ *
+ * REGARDS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * REGARDS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with REGARDS. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.cnes.regards.modules.ingest.service.job;
+
+import java.util.List;
+
+import fr.cnes.regards.framework.modules.jobs.domain.step.ProcessingStepException;
+import fr.cnes.regards.modules.ingest.domain.request.ingest.IngestRequest;
+import fr.cnes.regards.modules.ingest.domain.sip.SIPEntity;
+import fr.cnes.regards.modules.ingest.dto.aip.AIP;
+
+/**
+ * Processing state of a single {@link IngestRequest} along the steps of an {@link IngestProcessingJob}.<br/>
+ * Each SIP owns its context so that SIPs can be processed concurrently.
+ *
+ * @author Sébastien Binda
+ */
+public class IngestProcessingContext {
+
+    private final IngestRequest request;
+
+    /**
+     * SIP checksum computed before processing, if any
+     */
+    private String checksum;
+
+    /**
+     * The SIP entity built from the request
+     */
+    private SIPEntity entity;
+
+    /**
+     * AIPs generated from the SIP entity
+     */
+    private List<AIP> aips;
+
+    /**
+     * Error message to report on the request. Failures are reported by the job thread.
+     */
+    private String failure;
+
+    /**
+     * Step exception that interrupted the processing, if any
+     */
+    private ProcessingStepException exception;
+
+    public IngestProcessingContext(IngestRequest request) {
+        this.request = request;
+    }
+
+    public IngestRequest getRequest() {
+        return request;
+    }
+
+    public String getChecksum() {
+        return checksum;
+    }
+
+    public void setChecksum(String checksum) {
+        this.checksum = checksum;
+    }
+
+    public SIPEntity getEntity() {
+        return entity;
+    }
+
+    public void setEntity(SIPEntity entity) {
+        this.entity = entity;
+    }
+
+    public List<AIP> getAips() {
+        return aips;
+    }
+
+    public void setAips(List<AIP> aips) {
+        this.aips = aips;
+    }
+
+    public String getFailure() {
+        return failure;
+    }
+
+    public void setFailure(String failure) {
+        this.failure = failure;
+    }
+
+    public ProcessingStepException getException() {
+        return exception;
+    }
+
+    public void setException(ProcessingStepException exception) {
+        this.exception = exception;
+    }
+}
@@ -18,8 +18,17 @@
  */
 package fr.cnes.regards.modules.ingest.service.job;
 
+import java.io.IOException;
 import java.lang.reflect.Type;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
@@ -30,28 +39,33 @@ import fr.cnes.regards.framework.modules.jobs.domain.AbstractJob;
 import fr.cnes.regards.framework.modules.jobs.domain.JobParameter;
 import fr.cnes.regards.framework.modules.jobs.domain.exception.JobParameterInvalidException;
 import fr.cnes.regards.framework.modules.jobs.domain.exception.JobParameterMissingException;
-import fr.cnes.regards.framework.modules.jobs.domain.step.IProcessingStep;
 import fr.cnes.regards.framework.modules.jobs.domain.step.ProcessingStepException;
+import fr.cnes.regards.framework.multitenant.IRuntimeTenantResolver;
 import fr.cnes.regards.framework.notification.NotificationLevel;
 import fr.cnes.regards.framework.notification.client.INotificationClient;
 import fr.cnes.regards.framework.security.role.DefaultRole;
-import fr.cnes.regards.modules.ingest.dao.IIngestProcessingChainRepository;
-import fr.cnes.regards.modules.ingest.domain.aip.AIPEntity;
+import fr.cnes.regards.framework.utils.RsRuntimeException;
 import fr.cnes.regards.modules.ingest.domain.chain.IngestProcessingChain;
 import fr.cnes.regards.modules.ingest.domain.request.AbstractRequest;
 import fr.cnes.regards.modules.ingest.domain.request.InternalRequestState;
+import fr.cnes.regards.modules.ingest.domain.request.RequestSchedulerType;
 import fr.cnes.regards.modules.ingest.domain.request.ingest.IngestRequest;
-import fr.cnes.regards.modules.ingest.domain.sip.SIPEntity;
-import fr.cnes.regards.modules.ingest.dto.aip.AIP;
+import fr.cnes.regards.modules.ingest.domain.request.ingest.IngestRequestStep;
 import fr.cnes.regards.modules.ingest.dto.sip.SIP;
+import fr.cnes.regards.modules.ingest.service.aip.IAIPService;
+import fr.cnes.regards.modules.ingest.service.chain.IngestProcessingChainCache;
+import fr.cnes.regards.modules.ingest.service.chain.step.AbstractIngestStep;
 import fr.cnes.regards.modules.ingest.service.chain.step.GenerationStep;
 import fr.cnes.regards.modules.ingest.service.chain.step.InternalFinalStep;
 import fr.cnes.regards.modules.ingest.service.chain.step.InternalInitialStep;
 import fr.cnes.regards.modules.ingest.service.chain.step.PreprocessingStep;
 import fr.cnes.regards.modules.ingest.service.chain.step.TaggingStep;
 import fr.cnes.regards.modules.ingest.service.chain.step.ValidationStep;
+import fr.cnes.regards.modules.ingest.service.conf.IngestConfigurationProperties;
 import fr.cnes.regards.modules.ingest.service.notification.IAIPNotificationService;
 import fr.cnes.regards.modules.ingest.service.request.IIngestRequestService;
+import fr.cnes.regards.modules.ingest.service.schedule.RequestSchedulingSignals;
+import fr.cnes.regards.modules.ingest.service.sip.ISIPService;
 
 /**
  * This job manages processing chain for AIP generation from a SIP
@@ -66,11 +80,19 @@ public class IngestProcessingJob extends AbstractJob<Void> {
 
     private static final String INFO_TAB = "     >>>>>     ";
 
+    /**
+     * Steps from which a request goes through the whole chain
+     */
+    private static final Set<IngestRequestStep> LOCAL_STEPS = EnumSet
+            .of(IngestRequestStep.LOCAL_SCHEDULED, IngestRequestStep.LOCAL_INIT, IngestRequestStep.LOCAL_PRE_PROCESSING,
+                IngestRequestStep.LOCAL_VALIDATION, IngestRequestStep.LOCAL_GENERATION,
+                IngestRequestStep.LOCAL_TAGGING, IngestRequestStep.LOCAL_POST_PROCESSING);
+
     @Autowired
     private AutowireCapableBeanFactory beanFactory;
 
     @Autowired
-    private IIngestProcessingChainRepository processingChainRepository;
+    private IngestProcessingChainCache chainCache;
 
     @Autowired
     private IIngestRequestService ingestRequestService;
@@ -81,19 +103,34 @@ public class IngestProcessingJob extends AbstractJob<Void> {
     @Autowired
     private IAIPNotificationService aipNotificationService;
 
+    @Autowired
+    private IRuntimeTenantResolver runtimeTenantResolver;
+
+    @Autowired
+    private IngestConfigurationProperties confProperties;
+
+    @Autowired
+    private ISIPService sipService;
+
+    @Autowired
+    private IAIPService aipService;
+
+    @Autowired
+    private RequestSchedulingSignals schedulingSignals;
+
     private IngestProcessingChain ingestChain;
 
     private List<IngestRequest> requests;
 
     /**
-     * The request we are currently processing
+     * Already ingested checksums and current versions of the SIPs of the job
      */
-    private IngestRequest request;
+    private IngestSIPRegistry sipRegistry;
 
     /**
-     * The SIP entity we are currently working on
+     * Versions of the stored AIPs of the provider ids handled by the job
      */
-    private SIPEntity currentEntity;
+    private IngestAIPVersionRegistry aipVersionRegistry;
 
     @Override
     public void setParameters(Map<String, JobParameter> parameters)
@@ -110,7 +147,7 @@ public class IngestProcessingJob extends AbstractJob<Void> {
         String processingChainName = getValue(parameters, CHAIN_NAME_PARAMETER);
 
         // Load processing chain
-        Optional<IngestProcessingChain> chain = processingChainRepository.findOneByName(processingChainName);
+        Optional<IngestProcessingChain> chain = chainCache.getChain(processingChainName);
         if (!chain.isPresent()) {
             String message = String.format("No related chain has been found for value \"%s\"", processingChainName);
             // Monitoring
@@ -124,132 +161,290 @@ public class IngestProcessingJob extends AbstractJob<Void> {
     @Override
     public void run() {
         // Lets prepare a fex things in case there is errors
-        StringJoiner notifMsg = new StringJoiner("\n");
-        notifMsg.add("Errors occurred during SIPs processing using " + ingestChain.getName() + ":");
-
-        // Internal initial step
-        IProcessingStep<IngestRequest, SIPEntity> initStep = new InternalInitialStep(this, ingestChain);
-        beanFactory.autowireBean(initStep);
+        JobReport report = new JobReport();
+        report.notifMsg.add("Errors occurred during SIPs processing using " + ingestChain.getName() + ":");
 
-        // Initializing steps
-        // Step 1 : optional preprocessing
-        IProcessingStep<SIP, SIP> preStep = new PreprocessingStep(this, ingestChain);
-        beanFactory.autowireBean(preStep);
-        // Step 2 : required validation
-        IProcessingStep<SIP, Void> validationStep = new ValidationStep(this, ingestChain);
-        beanFactory.autowireBean(validationStep);
-        // Step 3 : required AIP generation
-        IProcessingStep<SIPEntity, List<AIP>> generationStep = new GenerationStep(this, ingestChain);
-        beanFactory.autowireBean(generationStep);
-        // Step 4 : optional AIP tagging
-        IProcessingStep<List<AIP>, Void> taggingStep = new TaggingStep(this, ingestChain);
-        beanFactory.autowireBean(taggingStep);
-        /** Step 5 : optional postprocessing has to be run after storage ends. See {@link IngestPostProcessingJob}.  */
-
-        // Internal final step
-        IProcessingStep<List<AIP>, List<AIPEntity>> finalStep = new InternalFinalStep(this, ingestChain);
-        beanFactory.autowireBean(finalStep);
+        // Steps run by the job thread
+        StepChain steps = new StepChain();
 
         long start = System.currentTimeMillis();
-        int sipIngested = 0;
-        int sipInError = 0;
 
-        // To notify again ingest request with NOTIFICATION_ERROR step
-        Set<AbstractRequest> notificationRequests = Sets.newHashSet();
-
-        for (IngestRequest request : requests) {
-            //FIXME add logic to handle interruption
-            this.request = request;
-            try {
-                long start2 = System.currentTimeMillis();
-                List<AIP> aips;
-                // retry the process only from the the step needed
-                switch (request.getStep()) {
-                    case LOCAL_SCHEDULED:
-                    case LOCAL_INIT:
-                    case LOCAL_PRE_PROCESSING:
-                    case LOCAL_VALIDATION:
-                    case LOCAL_GENERATION:
-                    case LOCAL_TAGGING:
-                    case LOCAL_POST_PROCESSING:
-                        ingestRequestService.handleIngestJobStart(request);
-                        // Internal preparation step (no plugin involved)
-                        currentEntity = initStep.execute(request);
-                        // Step 1 : optional preprocessing
-                        SIP sip = preStep.execute(request.getSip());
-                        // Propagate to entity
-                        currentEntity.setSip(sip);
-                        // Step 2 : required validation
-                        validationStep.execute(sip);
-                        // Step 3 : required AIP generation
-                        aips = generationStep.execute(currentEntity);
-                        // Step 4 : optional AIP tagging
-                        taggingStep.execute(aips);
-                        // Internal finalization step (no plugin involved)
-                        // Do all persistence actions in this step
-                        finalStep.execute(aips);
-                        break;
-                    case LOCAL_FINAL:
-                    case REMOTE_STORAGE_REQUESTED:
-                    case REMOTE_STORAGE_ERROR:
-                    case REMOTE_STORAGE_DENIED:
-                        // According to storage dev, it is better to simply request a new storage,
-                        // if request already exists anyway it will be retried
-                        ingestRequestService.requestRemoteStorage(request);
-
-                        break;
-                    case REMOTE_NOTIFICATION_ERROR:
-                        // add request to list of requests to be notified again
-                        notificationRequests.add(request);
-                        break;
-                    default:
-                        logger.debug("{}SIP \"{}\" ingestion has been retried and nothing had to be done in local",
-                                     INFO_TAB,
-                                     request.getSip().getId());
-                        break;
-                }
-                sipIngested++;
-                logger.debug("{}SIP \"{}\" ingested in {} ms",
-                             INFO_TAB,
-                             request.getSip().getId(),
-                             System.currentTimeMillis() - start2);
-
-            } catch (ProcessingStepException e) {
-                if (request.getState() != InternalRequestState.WAITING_VERSIONING_MODE
-                        && request.getState() != InternalRequestState.IGNORED) {
-                    logger.error("SIP \"{}\" ingestion error", request.getSip().getId());
-                    sipInError++;
-                    String msg = String.format("Error while ingesting SIP \"%s\" in request \"%s\"",
-                                               request.getSip().getId(),
-                                               request.getRequestId());
-                    notifMsg.add(msg);
-                    logger.error(msg);
-                    logger.error("Ingestion step error", e);
-                    // Continue with following SIPs
-                } else {
-                    logger.debug(e.getMessage(), e);
-                }
+        List<IngestProcessingContext> contexts = requests.stream().map(IngestProcessingContext::new)
+                .collect(Collectors.toList());
+        // Resolve duplicates and versions for the whole job at once
+        sipRegistry = prefetch(contexts);
+
+        int parallelism = Math.min(Math.min(ingestChain.getParallelism(), confProperties.getMaxProcessingParallelism()),
+                                   requests.size());
+        if (parallelism > 1) {
+            logger.debug("{}Processing {} SIP(s) with parallelism {}", INFO_TAB, requests.size(), parallelism);
+            runInParallel(contexts, steps, parallelism, report);
+        } else {
+            for (IngestProcessingContext context : contexts) {
+                //FIXME add logic to handle interruption
+                process(context, steps, report);
             }
         }
 
         // notify if errors occurred
-        if (sipInError > 0) {
-            notificationClient.notify(notifMsg.toString(),
+        if (report.sipInError > 0) {
+            notificationClient.notify(report.notifMsg.toString(),
                                       "Error occurred during SIPs Ingestion.",
                                       NotificationLevel.INFO,
                                       DefaultRole.ADMIN);
             logger.error("{}{} SIP(s) INGESTED and {} in ERROR in {} ms",
                          INFO_TAB,
-                         sipIngested,
-                         sipInError,
+                         report.sipIngested,
+                         report.sipInError,
                          System.currentTimeMillis() - start);
         } else {
-            logger.info("{}{} SIP(s) INGESTED in {} ms", INFO_TAB, sipIngested, System.currentTimeMillis() - start);
+            logger.info("{}{} SIP(s) INGESTED in {} ms",
+                        INFO_TAB,
+                        report.sipIngested,
+                        System.currentTimeMillis() - start);
         }
 
         // if there are requests to be notified again, send them to notifier
-        if(!notificationRequests.isEmpty()) {
-            aipNotificationService.sendRequestsToNotifier(notificationRequests);
+        if (!report.notificationRequests.isEmpty()) {
+            aipNotificationService.sendRequestsToNotifier(report.notificationRequests);
+        }
+        // Job slot is about to be released for waiting ingest requests
+        schedulingSignals.signal(RequestSchedulerType.REQUEST_PENDING);
+    }
+
+    /**
+     * Compute checksums of all SIPs to process locally then load existing checksums, current SIP versions and stored
+     * AIP versions of their provider ids with three set-based queries.
+     */
+    private IngestSIPRegistry prefetch(List<IngestProcessingContext> contexts) {
+        long start = System.currentTimeMillis();
+        Set<String> checksums = new HashSet<>();
+        Set<String> providerIds = new HashSet<>();
+        for (IngestProcessingContext context : contexts) {
+            IngestRequest request = context.getRequest();
+            if (LOCAL_STEPS.contains(request.getStep())) {
+                SIP sip = request.getSip();
+                //remove null tags because they have no use!
+                sip.getTags().remove(null);
+                try {
+                    context.setChecksum(sipService.calculateChecksum(sip));
+                    checksums.add(context.getChecksum());
+                } catch (NoSuchAlgorithmException | IOException e) {
+                    // Error is reported by the initial step that computes the checksum again
+                    logger.debug(String.format("Cannot compute checksum for SIP identified by %s", sip.getId()), e);
+                }
+                providerIds.add(sip.getId());
+            }
+        }
+        IngestSIPRegistry registry = new IngestSIPRegistry(sipService.findExistingChecksums(checksums),
+                sipService.getCurrentVersions(providerIds));
+        aipVersionRegistry = new IngestAIPVersionRegistry(aipService::getVersions);
+        aipVersionRegistry.load(providerIds);
+        logger.debug("{}Checksums and versions of {} SIP(s) resolved in {} ms",
+                     INFO_TAB,
+                     checksums.size(),
+                     System.currentTimeMillis() - start);
+        return registry;
+    }
+
+    /**
+     * Sequential processing of one request through the whole chain
+     */
+    private void process(IngestProcessingContext context, StepChain steps, JobReport report) {
+        IngestRequest request = context.getRequest();
+        try {
+            long start = System.currentTimeMillis();
+            if (initialize(context, steps, report)) {
+                runPluginSteps(context, steps);
+                finalizeRequest(context, steps);
+            }
+            report.sipIngested++;
+            logger.debug("{}SIP \"{}\" ingested in {} ms",
+                         INFO_TAB,
+                         request.getSip().getId(),
+                         System.currentTimeMillis() - start);
+        } catch (ProcessingStepException e) {
+            handleStepError(context, e, report);
+        }
+    }
+
+    /**
+     * Parallel processing of the requests. Database related steps (initialization and finalization) are run by the job
+     * thread in requests order whereas plugin steps are dispatched to a bounded pool of workers.<br/>
+     * Requests sharing a same provider id are processed in successive rounds so that versions are computed exactly as
+     * in sequential mode.
+     */
+    private void runInParallel(List<IngestProcessingContext> allContexts, StepChain steps, int parallelism,
+            JobReport report) {
+        String tenant = runtimeTenantResolver.getTenant();
+        // Steps are stateful, so each worker uses its own instances
+        BlockingQueue<StepChain> workerSteps = new ArrayBlockingQueue<>(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            workerSteps.add(new StepChain());
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            for (List<IngestProcessingContext> round : splitInRounds(allContexts)) {
+                // Job thread : initialization
+                List<IngestProcessingContext> contexts = new ArrayList<>();
+                for (IngestProcessingContext context : round) {
+                    try {
+                        if (initialize(context, steps, report)) {
+                            contexts.add(context);
+                        } else {
+                            report.sipIngested++;
+                        }
+                    } catch (ProcessingStepException e) {
+                        handleStepError(context, e, report);
+                    }
+                }
+                // Workers : plugin steps
+                List<Future<?>> futures = new ArrayList<>();
+                for (IngestProcessingContext context : contexts) {
+                    futures.add(executor.submit(() -> runPluginSteps(context, workerSteps, tenant)));
+                }
+                // Job thread : persistence
+                for (int i = 0; i < contexts.size(); i++) {
+                    IngestProcessingContext context = contexts.get(i);
+                    try {
+                        futures.get(i).get();
+                        if (context.getException() != null) {
+                            throw context.getException();
+                        }
+                        finalizeRequest(context, steps);
+                        report.sipIngested++;
+                    } catch (ProcessingStepException e) {
+                        handleStepError(context, e, report);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RsRuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RsRuntimeException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Split request contexts in successive rounds containing at most one request per provider id, keeping requests order.
+     */
+    private static List<List<IngestProcessingContext>> splitInRounds(List<IngestProcessingContext> contexts) {
+        List<List<IngestProcessingContext>> rounds = new ArrayList<>();
+        Map<String, Integer> occurrences = new HashMap<>();
+        for (IngestProcessingContext context : contexts) {
+            int round = occurrences.merge(context.getRequest().getProviderId(), 1, Integer::sum) - 1;
+            if (rounds.size() <= round) {
+                rounds.add(new ArrayList<>());
+            }
+            rounds.get(round).add(context);
+        }
+        return rounds;
+    }
+
+    /**
+     * Handle request start and initialize the SIP entity.
+     * @return true if the request has to go through the plugin steps
+     */
+    private boolean initialize(IngestProcessingContext context, StepChain steps, JobReport report)
+            throws ProcessingStepException {
+        IngestRequest request = context.getRequest();
+        // retry the process only from the the step needed
+        if (LOCAL_STEPS.contains(request.getStep())) {
+            ingestRequestService.handleIngestJobStart(request);
+            // Internal preparation step (no plugin involved)
+            steps.bind(context);
+            context.setEntity(steps.initStep.execute(request));
+            return true;
+        }
+        switch (request.getStep()) {
+            case LOCAL_FINAL:
+            case REMOTE_STORAGE_REQUESTED:
+            case REMOTE_STORAGE_ERROR:
+            case REMOTE_STORAGE_DENIED:
+                // According to storage dev, it is better to simply request a new storage,
+                // if request already exists anyway it will be retried
+                ingestRequestService.requestRemoteStorage(request);
+                return false;
+            case REMOTE_NOTIFICATION_ERROR:
+                // add request to list of requests to be notified again
+                report.notificationRequests.add(request);
+                return false;
+            default:
+                logger.debug("{}SIP \"{}\" ingestion has been retried and nothing had to be done in local",
+                             INFO_TAB,
+                             request.getSip().getId());
+                return false;
+        }
+    }
+
+    /**
+     * Worker side of the plugin steps : borrow a step chain and run it in the job tenant
+     */
+    private Void runPluginSteps(IngestProcessingContext context, BlockingQueue<StepChain> workerSteps, String tenant)
+            throws InterruptedException {
+        StepChain steps = workerSteps.take();
+        try {
+            runtimeTenantResolver.forceTenant(tenant);
+            runPluginSteps(context, steps);
+        } catch (ProcessingStepException e) {
+            context.setException(e);
+        } finally {
+            runtimeTenantResolver.clearTenant();
+            workerSteps.add(steps);
+        }
+        return null;
+    }
+
+    /**
+     * Run all steps involving chain plugins. No persistence is done here.
+     */
+    private void runPluginSteps(IngestProcessingContext context, StepChain steps) throws ProcessingStepException {
+        steps.bind(context);
+        // Step 1 : optional preprocessing
+        SIP sip = steps.preStep.execute(context.getRequest().getSip());
+        // Propagate to entity
+        context.getEntity().setSip(sip);
+        // Step 2 : required validation
+        steps.validationStep.execute(sip);
+        // Step 3 : required AIP generation
+        context.setAips(steps.generationStep.execute(context.getEntity()));
+        // Step 4 : optional AIP tagging
+        steps.taggingStep.execute(context.getAips());
+    }
+
+    /**
+     * Internal finalization step (no plugin involved). Do all persistence actions in this step.
+     */
+    private void finalizeRequest(IngestProcessingContext context, StepChain steps) throws ProcessingStepException {
+        steps.bind(context);
+        steps.finalStep.execute(context.getAips());
+        // Keep track of the persisted SIP for the following SIPs of the job
+        sipRegistry.register(context.getEntity());
+        aipVersionRegistry.register(context.getAips());
+    }
+
+    private void handleStepError(IngestProcessingContext context, ProcessingStepException e, JobReport report) {
+        IngestRequest request = context.getRequest();
+        // Report failure registered by the step
+        if (context.getFailure() != null) {
+            ingestRequestService.handleIngestJobFailed(request, context.getEntity(), context.getFailure());
+        }
+        if ((request.getState() != InternalRequestState.WAITING_VERSIONING_MODE)
+                && (request.getState() != InternalRequestState.IGNORED)) {
+            logger.error("SIP \"{}\" ingestion error", request.getSip().getId());
+            report.sipInError++;
+            String msg = String.format("Error while ingesting SIP \"%s\" in request \"%s\"",
+                                       request.getSip().getId(),
+                                       request.getRequestId());
+            report.notifMsg.add(msg);
+            logger.error(msg);
+            logger.error("Ingestion step error", e);
+            // Continue with following SIPs
+        } else {
+            logger.debug(e.getMessage(), e);
         }
     }
 
@@ -258,11 +453,69 @@ public class IngestProcessingJob extends AbstractJob<Void> {
         return 7;
     }
 
-    public SIPEntity getCurrentEntity() {
-        return currentEntity;
+    public IngestSIPRegistry getSipRegistry() {
+        return sipRegistry;
     }
 
-    public IngestRequest getCurrentRequest() {
-        return request;
+    public IngestAIPVersionRegistry getAipVersionRegistry() {
+        return aipVersionRegistry;
+    }
+
+    /**
+     * Set of chain steps. Steps hold the state of the SIP they process so a step chain must not be shared between
+     * threads.
+     */
+    private class StepChain {
+
+        private final InternalInitialStep initStep;
+
+        private final PreprocessingStep preStep;
+
+        private final ValidationStep validationStep;
+
+        private final GenerationStep generationStep;
+
+        private final TaggingStep taggingStep;
+
+        private final InternalFinalStep finalStep;
+
+        private final List<AbstractIngestStep<?, ?>> steps;
+
+        private StepChain() {
+            // Internal initial step
+            initStep = new InternalInitialStep(IngestProcessingJob.this, ingestChain);
+            // Step 1 : optional preprocessing
+            preStep = new PreprocessingStep(IngestProcessingJob.this, ingestChain);
+            // Step 2 : required validation
+            validationStep = new ValidationStep(IngestProcessingJob.this, ingestChain);
+            // Step 3 : required AIP generation
+            generationStep = new GenerationStep(IngestProcessingJob.this, ingestChain);
+            // Step 4 : optional AIP tagging
+            taggingStep = new TaggingStep(IngestProcessingJob.this, ingestChain);
+            /** Step 5 : optional postprocessing has to be run after storage ends. See {@link IngestPostProcessingJob}.  */
+            // Internal final step
+            finalStep = new InternalFinalStep(IngestProcessingJob.this, ingestChain);
+            steps = Arrays.asList(initStep, preStep, validationStep, generationStep, taggingStep, finalStep);
+            steps.forEach(beanFactory::autowireBean);
+        }
+
+        private void bind(IngestProcessingContext context) {
+            steps.forEach(step -> step.setContext(context));
+        }
+    }
+
+    /**
+     * Job processing summary
+     */
+    private static class JobReport {
+
+        private final StringJoiner notifMsg = new StringJoiner("\n");
+
+        // To notify again ingest request with NOTIFICATION_ERROR step
+        private final Set<AbstractRequest> notificationRequests = Sets.newHashSet();
+
+        private int sipIngested = 0;
+
+        private int sipInError = 0;
     }
 }
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2017-2020 CNES - CENTRE NATIONAL d'ETUDES SPATIALES
+ *
+ * This file is part of REGARDS.
+ *
+ * REGARDS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * REGARDS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with REGARDS. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.cnes.regards.modules.ingest.service.job;
+
+import java.util.Map;
+import java.util.Set;
+
+import fr.cnes.regards.modules.ingest.domain.sip.SIPEntity;
+
+/**
+ * Job level view of already ingested SIP checksums and of current SIP versions per provider id.<br/>
+ * It is loaded once for all SIPs of an {@link IngestProcessingJob} and kept up to date with the SIPs persisted by the
+ * job so that duplicates and versions inside the job are detected as if each SIP was checked against the database.
+ * <br/>
+ * Not thread safe, only used by the job thread.
+ *
+ * @author Sébastien Binda
+ */
+public class IngestSIPRegistry {
+
+    private final Set<String> checksums;
+
+    private final Map<String, Integer> versions;
+
+    /**
+     * @param checksums checksums of already stored SIPs
+     * @param versions current version per provider id of already stored SIPs
+     */
+    public IngestSIPRegistry(Set<String> checksums, Map<String, Integer> versions) {
+        this.checksums = checksums;
+        this.versions = versions;
+    }
+
+    /**
+     * @return true if a SIP with provided checksum is already stored
+     */
+    public boolean isAlreadyIngested(String checksum) {
+        return checksums.contains(checksum);
+    }
+
+    /**
+     * Get next version of the SIP identified by provider id
+     */
+    public Integer getNextVersion(String providerId) {
+        Integer version = versions.get(providerId);
+        return version == null ? 1 : version + 1;
+    }
+
+    /**
+     * Register a SIP newly persisted by the job
+     */
+    public void register(SIPEntity entity) {
+        checksums.add(entity.getChecksum());
+        versions.merge(entity.getProviderId(), entity.getVersion(), Math::max);
+    }
+}
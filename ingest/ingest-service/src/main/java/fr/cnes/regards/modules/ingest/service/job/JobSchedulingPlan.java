@@ -0,0 +1,69 @@
+/*
+ * Copyright 2017-2020 CNES - CENTRE NATIONAL d'ETUDES SPATIALES
+ *
+ * This file is part of REGARDS.
+ *
+ * REGARDS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * REGARDS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with REGARDS. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.cnes.regards.modules.ingest.service.job;
+
+/**
+ * Number of jobs to create during a scheduler tick and number of requests to give to each one.<br/>
+ * Jobs are only created for free job slots. The batch size grows with the backlog, from the minimum batch size up to
+ * the maximum one, so that a large backlog is spread over all free slots without creating tiny jobs.
+ *
+ * @author Sébastien Binda
+ */
+public class JobSchedulingPlan {
+
+    private final int nbJobs;
+
+    private final int batchSize;
+
+    private JobSchedulingPlan(int nbJobs, int batchSize) {
+        this.nbJobs = nbJobs;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @param backlog number of requests waiting for a job
+     * @param activeJobs number of jobs of the same kind already queued or running
+     * @param maxActiveJobs maximum number of jobs of the same kind queued or running
+     * @param maxJobsPerTick maximum number of jobs created at once
+     * @param minBatchSize minimum number of requests per job, unless the backlog is smaller
+     * @param maxBatchSize maximum number of requests per job
+     */
+    public static JobSchedulingPlan compute(long backlog, long activeJobs, int maxActiveJobs, int maxJobsPerTick,
+            int minBatchSize, int maxBatchSize) {
+        long slots = Math.min(maxActiveJobs - activeJobs, maxJobsPerTick);
+        if ((backlog <= 0) || (slots <= 0)) {
+            return new JobSchedulingPlan(0, minBatchSize);
+        }
+        long batchSize = Math.max(minBatchSize, Math.min(maxBatchSize, ceilDiv(backlog, slots)));
+        int nbJobs = (int) Math.min(slots, ceilDiv(backlog, batchSize));
+        return new JobSchedulingPlan(nbJobs, (int) batchSize);
+    }
+
+    private static long ceilDiv(long dividend, long divisor) {
+        return (dividend + divisor - 1) / divisor;
+    }
+
+    public int getNbJobs() {
+        return nbJobs;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2017-2020 CNES - CENTRE NATIONAL d'ETUDES SPATIALES
+ *
+ * This file is part of REGARDS.
+ *
+ * REGARDS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * REGARDS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with REGARDS. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.cnes.regards.modules.ingest.service.job;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Page by page scan of entities in id order, each page being loaded after the last id of the previous one (keyset
+ * pagination). Pages are loaded lazily, so each page can be handled in its own transaction before the next one is
+ * loaded.<br/>
+ * The number of pages is estimated once, from the number of matching entities when the scan starts.
+ *
+ * @author Sébastien Binda
+ */
+public class KeysetScan<T> implements Iterator<List<T>> {
+
+    /**
+     * Page loader, from the last id of the previous page (null for the first one) and the page size
+     */
+    private final BiFunction<Long, Integer, List<T>> pageLoader;
+
+    private final Function<T, Long> idExtractor;
+
+    private final int pageSize;
+
+    private final int totalPages;
+
+    private Long lastId;
+
+    private List<T> nextPage;
+
+    /**
+     * True when the last loaded page was not full, so no more entity is available
+     */
+    private boolean exhausted = false;
+
+    /**
+     * @param pageLoader load a page from the last id of the previous page (null for the first page) and the page size
+     * @param idExtractor id of an entity
+     * @param pageSize maximum number of entities per page
+     * @param totalElements estimated number of entities to scan
+     */
+    public KeysetScan(BiFunction<Long, Integer, List<T>> pageLoader, Function<T, Long> idExtractor, int pageSize,
+            long totalElements) {
+        this.pageLoader = pageLoader;
+        this.idExtractor = idExtractor;
+        this.pageSize = pageSize;
+        this.totalPages = (int) ((totalElements + pageSize - 1) / pageSize);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if ((nextPage == null) && !exhausted) {
+            nextPage = pageLoader.apply(lastId, pageSize);
+            exhausted = nextPage.size() < pageSize;
+            if (!nextPage.isEmpty()) {
+                lastId = idExtractor.apply(nextPage.get(nextPage.size() - 1));
+            }
+        }
+        return (nextPage != null) && !nextPage.isEmpty();
+    }
+
+    @Override
+    public List<T> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        List<T> page = nextPage;
+        nextPage = null;
+        return page;
+    }
+
+    /**
+     * @return number of pages estimated when the scan started
+     */
+    public int getTotalPages() {
+        return totalPages;
+    }
+}
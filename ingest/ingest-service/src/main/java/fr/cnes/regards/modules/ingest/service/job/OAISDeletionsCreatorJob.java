@@ -21,14 +21,11 @@ package fr.cnes.regards.modules.ingest.service.job;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 
 import fr.cnes.regards.framework.modules.jobs.domain.AbstractJob;
 import fr.cnes.regards.framework.modules.jobs.domain.JobParameter;
@@ -102,32 +99,28 @@ public class OAISDeletionsCreatorJob extends AbstractJob<Void> {
     public void run() {
         logger.debug("[OAIS DELETION CREATOR JOB] Running job ...");
         long start = System.currentTimeMillis();
-        Pageable pageRequest = PageRequest.of(0, aipIterationLimit, Sort.Direction.ASC, "id");
-        Page<AIPEntity> aipsPage;
         int nbRequestScheduled = 0;
         // Set the request as running
         deletionCreator.setState(InternalRequestState.RUNNING);
         oaisDeletionCreatorRepo.save(deletionCreator);
-        do {
-            OAISDeletionCreatorPayload deletionPayload = deletionCreator.getConfig();
-            aipsPage = aipRepository.findByFilters(deletionPayload, pageRequest);
-            logger.debug("[OAIS DELETION CREATOR JOB] Scheduling deletion of {} aips", aipsPage.getNumberOfElements());
-            // Save number of pages to publish job advancement
-            if (totalPages < aipsPage.getTotalPages()) {
-                totalPages = aipsPage.getTotalPages();
-            }
+        OAISDeletionCreatorPayload deletionPayload = deletionCreator.getConfig();
+        // Scan AIPs by id, number of pages is only computed once
+        KeysetScan<AIPEntity> scan = new KeysetScan<>((lastId, limit) -> aipRepository
+                .findByFiltersAfterId(deletionPayload, lastId, limit), AIPEntity::getId, aipIterationLimit,
+                aipRepository.countByFilters(deletionPayload));
+        totalPages = scan.getTotalPages();
+        while (scan.hasNext()) {
+            List<AIPEntity> aips = scan.next();
+            logger.debug("[OAIS DELETION CREATOR JOB] Scheduling deletion of {} aips", aips.size());
             // If deletion request is already registered for the given aip do not create a new one.
-            List<AbstractRequest> requests = aipsPage.stream()
-                    .filter(aip -> !aipDeletionService.deletionAlreadyPending(aip))
+            Set<Long> pendingAipIds = aipDeletionService.findAipIdsWithPendingDeletion(aips);
+            List<AbstractRequest> requests = aips.stream().filter(aip -> !pendingAipIds.contains(aip.getId()))
                     .map(aip -> OAISDeletionRequest.build(aip, deletionPayload.getDeletionMode(),
                                                           deletionPayload.getDeletePhysicalFiles()))
                     .collect(Collectors.toList());
             nbRequestScheduled += requestService.scheduleRequests(requests);
-            if (totalPages > 0) {
-                advanceCompletion();
-            }
-            pageRequest = pageRequest.next();
-        } while (aipsPage.hasNext());
+            advanceCompletion();
+        }
         // Delete the request
         requestService.deleteRequest(deletionCreator);
 
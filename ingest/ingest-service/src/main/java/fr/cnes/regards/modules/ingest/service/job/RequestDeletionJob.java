@@ -18,14 +18,11 @@
  */
 package fr.cnes.regards.modules.ingest.service.job;
 
+import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 
 import fr.cnes.regards.framework.modules.jobs.domain.AbstractJob;
 import fr.cnes.regards.framework.modules.jobs.domain.JobParameter;
@@ -73,20 +70,18 @@ public class RequestDeletionJob extends AbstractJob<Void> {
         logger.debug("Running job ...");
         long start = System.currentTimeMillis();
         int nbRequestsDeleted = 0;
-        Pageable pageRequest = PageRequest.of(0, requestIterationLimit, Sort.Direction.ASC, "id");
         criteria.setStateExcluded(InternalRequestState.RUNNING);
-        Page<AbstractRequest> requestsPage;
-        do {
-            // Page request isn't modified as entities are removed on every page fetched
-            requestsPage = requestService.findRequests(criteria, pageRequest);
-            // Save number of pages to publish job advancement
-            if (totalPages < requestsPage.getTotalPages()) {
-                totalPages = requestsPage.getTotalPages();
-            }
-            requestService.deleteRequests(requestsPage.getContent());
+        // Scan requests by id, number of pages is only computed once
+        KeysetScan<AbstractRequest> scan = new KeysetScan<>((lastId, limit) -> requestService
+                .findRequestsAfterId(criteria, lastId, limit), AbstractRequest::getId, requestIterationLimit,
+                requestService.countRequests(criteria));
+        totalPages = scan.getTotalPages();
+        while (scan.hasNext()) {
+            List<AbstractRequest> requests = scan.next();
+            requestService.deleteRequests(requests);
             advanceCompletion();
-            nbRequestsDeleted += requestsPage.getNumberOfElements();
-        } while (requestsPage.hasNext());
+            nbRequestsDeleted += requests.size();
+        }
         logger.debug("Job handled for {} AbstractRequest(s) in {}ms", nbRequestsDeleted,
                      System.currentTimeMillis() - start);
     }
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2017-2020 CNES - CENTRE NATIONAL d'ETUDES SPATIALES
+ *
+ * This file is part of REGARDS.
+ *
+ * REGARDS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * REGARDS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with REGARDS. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.cnes.regards.modules.ingest.service.job;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import fr.cnes.regards.framework.modules.jobs.domain.JobInfo;
+import fr.cnes.regards.framework.modules.jobs.domain.JobStatus;
+import fr.cnes.regards.framework.modules.jobs.service.IJobInfoService;
+import fr.cnes.regards.modules.ingest.service.conf.IngestConfigurationProperties;
+
+/**
+ * Compute {@link JobSchedulingPlan}s of request jobs from the backlog and the jobs already queued or running
+ *
+ * @author Sébastien Binda
+ */
+@Component
+public class RequestJobPlanner {
+
+    @Autowired
+    private IJobInfoService jobInfoService;
+
+    @Autowired
+    private IngestConfigurationProperties confProperties;
+
+    /**
+     * Schedule as many jobs as allowed by the backlog and the free job slots
+     * @param jobClassName class of the jobs to create
+     * @param backlog number of requests waiting for a job
+     * @param minBatchSize minimum number of requests per job
+     * @param scheduleOne schedules one job for the given number of requests at most, returns null if there is no
+     *            more waiting request
+     * @return scheduled jobs
+     */
+    public List<JobInfo> scheduleJobs(String jobClassName, long backlog, int minBatchSize,
+            IntFunction<JobInfo> scheduleOne) {
+        JobSchedulingPlan plan = plan(jobClassName, backlog, minBatchSize);
+        List<JobInfo> jobInfos = new ArrayList<>();
+        for (int i = 0; i < plan.getNbJobs(); i++) {
+            JobInfo jobInfo = scheduleOne.apply(plan.getBatchSize());
+            if (jobInfo == null) {
+                break;
+            }
+            jobInfos.add(jobInfo);
+        }
+        return jobInfos;
+    }
+
+    /**
+     * @param jobClassName class of the jobs to create
+     * @param backlog number of requests waiting for a job
+     * @param minBatchSize minimum number of requests per job
+     * @return the jobs to create during the current tick
+     */
+    public JobSchedulingPlan plan(String jobClassName, long backlog, int minBatchSize) {
+        if (backlog <= 0) {
+            return JobSchedulingPlan.compute(0, 0, 0, 0, minBatchSize, minBatchSize);
+        }
+        long activeJobs = jobInfoService
+                .retrieveJobsCount(jobClassName, JobStatus.QUEUED, JobStatus.TO_BE_RUN, JobStatus.RUNNING);
+        return JobSchedulingPlan.compute(backlog, activeJobs, confProperties.getMaxActiveRequestJobs(),
+                                         confProperties.getMaxRequestJobsPerTick(), minBatchSize,
+                                         Math.max(minBatchSize, confProperties.getMaxRequestJobBatchSize()));
+    }
+}
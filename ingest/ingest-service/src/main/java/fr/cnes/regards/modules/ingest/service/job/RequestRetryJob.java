@@ -26,10 +26,6 @@ import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 
 import fr.cnes.regards.framework.modules.jobs.domain.AbstractJob;
 import fr.cnes.regards.framework.modules.jobs.domain.JobParameter;
@@ -80,24 +76,21 @@ public class RequestRetryJob extends AbstractJob<Void> {
     public void run() {
         logger.debug("Running job ...");
         long start = System.currentTimeMillis();
-        Pageable pageRequest = PageRequest.of(0, requestIterationLimit, Sort.Direction.ASC, "id");
         // Override state in filter
         criteria.setStates(new HashSet<>());
         criteria.addState(InternalRequestState.ERROR);
         criteria.addState(InternalRequestState.ABORTED);
         criteria.setStateExcluded(null);
         int nbRelaunchedRequests = 0;
-        Page<AbstractRequest> requestsPage;
-        do {
-            // Page request isn't modified, as entities doesn't keep the ERROR state, on every page fetched
-            requestsPage = requestService.findRequests(criteria, pageRequest);
-            // Save number of pages to publish job advancement
-            if (totalPages < requestsPage.getTotalPages()) {
-                totalPages = requestsPage.getTotalPages();
-            }
+        // Scan requests by id : relaunched requests leave the ERROR state but the scan goes on after the last id
+        KeysetScan<AbstractRequest> scan = new KeysetScan<>((lastId, limit) -> requestService
+                .findRequestsAfterId(criteria, lastId, limit), AbstractRequest::getId, requestIterationLimit,
+                requestService.countRequests(criteria));
+        totalPages = scan.getTotalPages();
+        while (scan.hasNext()) {
             // Sort out requests by type
             Map<String, List<AbstractRequest>> byRequestType = new HashMap<>();
-            for (AbstractRequest ar : requestsPage) {
+            for (AbstractRequest ar : scan.next()) {
                 if (!byRequestType.containsKey(ar.getDtype())) {
                     byRequestType.put(ar.getDtype(), new ArrayList<>());
                 }
@@ -109,7 +102,7 @@ public class RequestRetryJob extends AbstractJob<Void> {
             }
             nbRelaunchedRequests += byRequestType.size();
             advanceCompletion();
-        } while (requestsPage.hasNext());
+        }
         logger.debug("Job handled for {} AbstractRequest(s) in {}ms", nbRelaunchedRequests,
                      System.currentTimeMillis() - start);
     }
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2017-2020 CNES - CENTRE NATIONAL d'ETUDES SPATIALES
+ *
+ * This file is part of REGARDS.
+ *
+ * REGARDS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * REGARDS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with REGARDS. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.cnes.regards.modules.ingest.service.metrics;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import fr.cnes.regards.framework.multitenant.IRuntimeTenantResolver;
+import fr.cnes.regards.modules.ingest.domain.request.IRequestStateCount;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Ingest request lifecycle metrics. All meters are tagged by tenant so they can be exported as is to Prometheus :
+ * <ul>
+ * <li>{@link #STEP_TIMER} : duration of each processing chain step for one SIP, by chain, step and outcome,</li>
+ * <li>{@link #BATCH_SIZE} and {@link #BATCH_TIMER} : size and handling duration of message batches, by handler and
+ * outcome,</li>
+ * <li>{@link #REQUEST_COUNT} : number of requests by state and type, refreshed periodically,</li>
+ * <li>{@link #REQUEST_DURATION} : time from request grant to success, by chain,</li>
+ * <li>{@link #CHAIN_CACHE} : processing chain cache lookups, by cache and outcome (hit or miss).</li>
+ * </ul>
+ * Meters are registered in the application {@link MeterRegistry} if any, in the global one otherwise.
+ *
+ * @author Sébastien Binda
+ */
+@Component
+public class IngestMetrics {
+
+    public static final String STEP_TIMER = "regards.ingest.step";
+
+    public static final String BATCH_SIZE = "regards.ingest.flow.batch.size";
+
+    public static final String BATCH_TIMER = "regards.ingest.flow.batch";
+
+    public static final String REQUEST_COUNT = "regards.ingest.requests";
+
+    public static final String REQUEST_DURATION = "regards.ingest.request.duration";
+
+    public static final String CHAIN_CACHE = "regards.ingest.chain.cache";
+
+    public static final String TENANT_TAG = "tenant";
+
+    public static final String CHAIN_TAG = "chain";
+
+    public static final String STEP_TAG = "step";
+
+    public static final String OUTCOME_TAG = "outcome";
+
+    public static final String HANDLER_TAG = "handler";
+
+    public static final String STATE_TAG = "state";
+
+    public static final String TYPE_TAG = "type";
+
+    public static final String CACHE_TAG = "cache";
+
+    private static final String UNKNOWN = "unknown";
+
+    @Autowired(required = false)
+    private MeterRegistry registry;
+
+    @Autowired
+    private IRuntimeTenantResolver runtimeTenantResolver;
+
+    /**
+     * Request count gauge values by tenant
+     */
+    private final Map<String, Map<Tags, AtomicLong>> requestCounts = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        if (registry == null) {
+            registry = Metrics.globalRegistry;
+        }
+    }
+
+    /**
+     * Start timing an operation, see {@link #stopStep(Timer.Sample, String, String, boolean)} and
+     * {@link #stopBatch(Timer.Sample, String, int, boolean)}
+     */
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    /**
+     * Record the duration of a processing chain step for one SIP
+     */
+    public void stopStep(Timer.Sample sample, String chain, String step, boolean success) {
+        sample.stop(Timer.builder(STEP_TIMER).description("Duration of an ingest processing chain step for one SIP")
+                .tags(getTenantTags()).tag(CHAIN_TAG, valueOf(chain)).tag(STEP_TAG, step)
+                .tag(OUTCOME_TAG, outcome(success)).publishPercentileHistogram().register(registry));
+    }
+
+    /**
+     * Record the size and the handling duration of a batch of messages
+     * @param success false if the handling of the batch failed
+     */
+    public void stopBatch(Timer.Sample sample, String handler, int size, boolean success) {
+        Tags tags = getTenantTags().and(HANDLER_TAG, handler);
+        DistributionSummary.builder(BATCH_SIZE).description("Number of messages handled in one batch")
+                .baseUnit("messages").tags(tags).publishPercentileHistogram().register(registry).record(size);
+        sample.stop(Timer.builder(BATCH_TIMER).description("Duration of the handling of a batch of messages")
+                .tags(tags).tag(OUTCOME_TAG, outcome(success)).publishPercentileHistogram().register(registry));
+    }
+
+    /**
+     * Record the time elapsed between the grant and the success of a request.
+     * Session owners are free text so they are not used as tag, to keep the number of timer series bounded.
+     * @param grantDate request creation date, requests are created when granted
+     */
+    public void recordRequestSuccess(String chain, OffsetDateTime grantDate) {
+        if (grantDate != null) {
+            Timer.builder(REQUEST_DURATION).description("Time from ingest request grant to success")
+                    .tags(getTenantTags()).tag(CHAIN_TAG, valueOf(chain)).publishPercentileHistogram()
+                    .register(registry)
+                    .record(Duration.between(grantDate, OffsetDateTime.now()));
+        }
+    }
+
+    /**
+     * Count a lookup in a cache of the current tenant
+     * @param cache cache name
+     * @param hit true if the value was found in the cache, false if it had to be loaded
+     */
+    public void recordCacheAccess(String cache, boolean hit) {
+        registry.counter(CHAIN_CACHE, getTenantTags().and(CACHE_TAG, cache).and(OUTCOME_TAG, hit ? "hit" : "miss"))
+                .increment();
+    }
+
+    /**
+     * Update request count gauges of the current tenant. Gauges of couples of state and type without any request
+     * anymore are reset.
+     */
+    public void updateRequestCounts(Collection<IRequestStateCount> counts) {
+        String tenant = getTenant();
+        Map<Tags, AtomicLong> tenantCounts = requestCounts.computeIfAbsent(tenant, t -> new ConcurrentHashMap<>());
+        Set<Tags> updated = new HashSet<>();
+        for (IRequestStateCount count : counts) {
+            Tags tags = Tags.of(TENANT_TAG, tenant, STATE_TAG, valueOf(count.getState()), TYPE_TAG,
+                                valueOf(count.getDtype()));
+            tenantCounts.computeIfAbsent(tags, t -> registry.gauge(REQUEST_COUNT, t, new AtomicLong()))
+                    .set(count.getNbRequests());
+            updated.add(tags);
+        }
+        tenantCounts.forEach((tags, value) -> {
+            if (!updated.contains(tags)) {
+                value.set(0);
+            }
+        });
+    }
+
+    private Tags getTenantTags() {
+        return Tags.of(TENANT_TAG, getTenant());
+    }
+
+    private String getTenant() {
+        return valueOf(runtimeTenantResolver.getTenant());
+    }
+
+    private static String outcome(boolean success) {
+        return success ? "success" : "error";
+    }
+
+    private static String valueOf(Object value) {
+        return value == null ? UNKNOWN : value.toString();
+    }
+}
@@ -37,6 +37,7 @@ import fr.cnes.regards.modules.ingest.domain.request.update.AIPUpdateRequestStep
 import fr.cnes.regards.modules.ingest.dto.request.RequestState;
 import fr.cnes.regards.modules.ingest.dto.request.RequestTypeConstant;
 import fr.cnes.regards.modules.ingest.dto.request.event.IngestRequestEvent;
+import fr.cnes.regards.modules.ingest.service.metrics.IngestMetrics;
 import fr.cnes.regards.modules.ingest.service.request.RequestService;
 import fr.cnes.regards.modules.notifier.client.INotifierClient;
 import fr.cnes.regards.modules.notifier.dto.in.NotificationRequestEvent;
@@ -75,6 +76,9 @@ public class AIPNotificationService implements IAIPNotificationService {
     @Autowired
     private IPublisher publisher;
 
+    @Autowired
+    private IngestMetrics ingestMetrics;
+
     @Value("${spring.application.name}")
     private String microserviceName;
 
@@ -179,6 +183,7 @@ public class AIPNotificationService implements IAIPNotificationService {
             ingestRequestEvents.add(IngestRequestEvent.build(request.getRequestId(), request.getSip().getId(), sipId,
                                                              RequestState.SUCCESS));
             AIPNotificationLogger.notificationSuccess(request.getId(), request.getProviderId());
+            ingestMetrics.recordRequestSuccess(request.getMetadata().getIngestChain(), request.getCreationDate());
         }
 
         // publish success
@@ -42,13 +42,21 @@ import fr.cnes.regards.modules.storage.client.RequestInfo;
 public interface IIngestRequestService {
 
     /**
-     * Schedule a job with following passed requests.
+     * Schedule a job with following passed requests, one per request priority.
+     * Once the maximum number of active ingest processing jobs is reached, requests are left waiting without job.
      * <b>Ingest requests must be linked to the chain. No additional control is done!</b>
      * @param chainName related processing chain
      * @param requests requests to handle
      */
     void scheduleIngestProcessingJobByChain(String chainName, Collection<IngestRequest> requests);
 
+    /**
+     * Schedule jobs for the oldest ingest requests left waiting by
+     * {@link #scheduleIngestProcessingJobByChain(String, Collection)}, as long as job slots are available.
+     * @return number of requests scheduled
+     */
+    int scheduleWaitingRequests();
+
     /**
      * Handle job error
      */
@@ -69,6 +77,18 @@ public interface IIngestRequestService {
      */
     void handleRequestDenied(IngestRequest request);
 
+    /**
+     * Handle a bulk of requests granted during request handling.<br/>
+     * All requests are saved in one batch and all GRANTED events are published at once.
+     */
+    void handleRequestsGranted(Collection<IngestRequest> requests);
+
+    /**
+     * Handle a bulk of requests denied during request handling.<br/>
+     * All DENIED events are published at once.
+     */
+    void handleRequestsDenied(Collection<IngestRequest> requests);
+
     /**
      * Handle unknown chain while loading job parameters
      */
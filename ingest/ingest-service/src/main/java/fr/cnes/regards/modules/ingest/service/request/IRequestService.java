@@ -28,9 +28,12 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.transaction.annotation.Propagation;
 
+import com.google.common.collect.SetMultimap;
+
 import fr.cnes.regards.framework.jpa.multitenant.transactional.MultitenantTransactional;
 import fr.cnes.regards.modules.ingest.domain.aip.AIPEntity;
 import fr.cnes.regards.modules.ingest.domain.request.AbstractRequest;
+import fr.cnes.regards.modules.ingest.domain.request.IRequestStateCount;
 import fr.cnes.regards.modules.ingest.dto.request.RequestDto;
 import fr.cnes.regards.modules.ingest.dto.request.RequestTypeEnum;
 import fr.cnes.regards.modules.ingest.dto.request.SearchRequestsParameters;
@@ -63,6 +66,19 @@ public interface IRequestService {
      */
     Page<AbstractRequest> findRequests(SearchRequestsParameters filters, Pageable pageable);
 
+    /**
+     * Retrieve requests matching provided criteria with an id greater than the given one, in id order.<br/>
+     * Allows to scan all matching requests page by page without offset nor count.
+     * @param lastId id of the last request of the previous page, null for the first page
+     * @param limit maximum number of requests to retrieve
+     */
+    List<AbstractRequest> findRequestsAfterId(SearchRequestsParameters filters, Long lastId, int limit);
+
+    /**
+     * Count requests matching provided criteria
+     */
+    long countRequests(SearchRequestsParameters filters);
+
     /**
      * Retrieve all requests matching provided criteria
      * @param filters
@@ -126,8 +142,9 @@ public interface IRequestService {
     /**
      * Fetch a page of requests and try to unblock them
      * @param requestType the type of requests to retrieve and unblock, if possible
+     * @return number of requests unblocked
      */
-    void unblockRequests(RequestTypeEnum requestType);
+    int unblockRequests(RequestTypeEnum requestType);
 
     /**
      * Associate a job to a {@link AbstractRequest}
@@ -164,4 +181,15 @@ public interface IRequestService {
      * Retrieve {@link AbstractRequest}s associated to the given storage respones associated by groupId.
      */
     public List<AbstractRequest> getRequests(Set<RequestInfo> requestInfos);
+
+    /**
+     * Retrieve {@link AbstractRequest}s associated to the given storage responses, indexed by groupId.<br/>
+     * Only the group ids of the given responses are indexed.
+     */
+    SetMultimap<String, AbstractRequest> getRequestsByGroupId(Set<RequestInfo> requestInfos);
+
+    /**
+     * Count requests of the current tenant by state and type
+     */
+    List<IRequestStateCount> countByStateAndType();
 }
@@ -21,18 +21,25 @@ package fr.cnes.regards.modules.ingest.service.request;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
@@ -50,6 +57,7 @@ import fr.cnes.regards.framework.module.rest.exception.ModuleException;
 import fr.cnes.regards.framework.modules.jobs.domain.IJob;
 import fr.cnes.regards.framework.modules.jobs.domain.JobInfo;
 import fr.cnes.regards.framework.modules.jobs.domain.JobParameter;
+import fr.cnes.regards.framework.modules.jobs.domain.JobStatus;
 import fr.cnes.regards.framework.modules.jobs.domain.event.JobEvent;
 import fr.cnes.regards.framework.modules.jobs.domain.exception.JobParameterInvalidException;
 import fr.cnes.regards.framework.modules.jobs.domain.exception.JobParameterMissingException;
@@ -58,7 +66,6 @@ import fr.cnes.regards.framework.notification.NotificationLevel;
 import fr.cnes.regards.framework.notification.client.INotificationClient;
 import fr.cnes.regards.framework.security.role.DefaultRole;
 import fr.cnes.regards.modules.ingest.dao.IAIPPostProcessRequestRepository;
-import fr.cnes.regards.modules.ingest.dao.IIngestProcessingChainRepository;
 import fr.cnes.regards.modules.ingest.dao.IIngestRequestRepository;
 import fr.cnes.regards.modules.ingest.domain.aip.AIPEntity;
 import fr.cnes.regards.modules.ingest.domain.aip.AIPState;
@@ -70,6 +77,7 @@ import fr.cnes.regards.modules.ingest.domain.request.ingest.IngestRequestStep;
 import fr.cnes.regards.modules.ingest.domain.request.postprocessing.AIPPostProcessRequest;
 import fr.cnes.regards.modules.ingest.domain.settings.AIPNotificationSettings;
 import fr.cnes.regards.modules.ingest.domain.sip.ISipIdAndVersion;
+import fr.cnes.regards.modules.ingest.domain.sip.IngestRequestPriority;
 import fr.cnes.regards.modules.ingest.domain.sip.SIPEntity;
 import fr.cnes.regards.modules.ingest.domain.sip.SIPState;
 import fr.cnes.regards.modules.ingest.domain.sip.VersioningMode;
@@ -79,10 +87,12 @@ import fr.cnes.regards.modules.ingest.dto.request.RequestState;
 import fr.cnes.regards.modules.ingest.dto.request.event.IngestRequestEvent;
 import fr.cnes.regards.modules.ingest.service.aip.IAIPService;
 import fr.cnes.regards.modules.ingest.service.aip.IAIPStorageService;
+import fr.cnes.regards.modules.ingest.service.chain.IngestProcessingChainCache;
 import fr.cnes.regards.modules.ingest.service.conf.IngestConfigurationProperties;
 import fr.cnes.regards.modules.ingest.service.job.ChooseVersioningJob;
 import fr.cnes.regards.modules.ingest.service.job.IngestJobPriority;
 import fr.cnes.regards.modules.ingest.service.job.IngestProcessingJob;
+import fr.cnes.regards.modules.ingest.service.metrics.IngestMetrics;
 import fr.cnes.regards.modules.ingest.service.notification.IAIPNotificationService;
 import fr.cnes.regards.modules.ingest.service.session.SessionNotifier;
 import fr.cnes.regards.modules.ingest.service.settings.IAIPNotificationSettingsService;
@@ -138,7 +148,7 @@ public class IngestRequestService implements IIngestRequestService {
     private SessionNotifier sessionNotifier;
 
     @Autowired
-    private IIngestProcessingChainRepository processingChainRepository;
+    private IngestProcessingChainCache chainCache;
 
     @Autowired
     private IAIPPostProcessRequestRepository aipPostProcessRequestRepository;
@@ -149,11 +159,61 @@ public class IngestRequestService implements IIngestRequestService {
     @Autowired
     private IAIPNotificationService aipNotificationService;
 
+    @Autowired
+    private IngestMetrics ingestMetrics;
+
     @Override
     public void scheduleIngestProcessingJobByChain(String chainName, Collection<IngestRequest> requests) {
+        // One job per request priority, the most urgent one first
+        Map<IngestRequestPriority, List<IngestRequest>> requestsByPriority = requests.stream()
+                .collect(Collectors.groupingBy(r -> Optional.ofNullable(r.getMetadata().getPriority())
+                        .orElse(IngestRequestPriority.NORMAL), () -> new EnumMap<>(IngestRequestPriority.class),
+                                               Collectors.toList()));
+        long availableJobs = getAvailableIngestJobs();
+        for (Entry<IngestRequestPriority, List<IngestRequest>> entry : requestsByPriority.entrySet()) {
+            if (availableJobs > 0) {
+                scheduleIngestProcessingJob(chainName, entry.getValue(),
+                                            IngestJobPriority.getIngestProcessingPriority(entry.getKey()));
+                availableJobs--;
+            } else {
+                // Requests wait for a job slot, see scheduleWaitingRequests
+                LOGGER.debug("Maximum number of ingest processing jobs reached, {} {} ingest request(s) on chain {} "
+                        + "are waiting", entry.getValue().size(), entry.getKey(), chainName);
+                entry.getValue().forEach(r -> r.setJobInfo(null));
+            }
+        }
+    }
+
+    @Override
+    public int scheduleWaitingRequests() {
+        if (getAvailableIngestJobs() <= 0) {
+            return 0;
+        }
+        List<IngestRequest> requests = ingestRequestRepository
+                .findByStateAndJobInfoIsNull(InternalRequestState.CREATED,
+                                             PageRequest.of(0, confProperties.getMaxRequestJobBatchSize(),
+                                                            Sort.by(Sort.Direction.ASC, "id")));
+        Map<String, List<IngestRequest>> requestsByChain = requests.stream()
+                .collect(Collectors.groupingBy(r -> r.getMetadata().getIngestChain(), LinkedHashMap::new,
+                                               Collectors.toList()));
+        requestsByChain.forEach(this::scheduleIngestProcessingJobByChain);
+        return (int) requests.stream().filter(r -> r.getJobInfo() != null).count();
+    }
+
+    /**
+     * @return number of ingest processing jobs that can still be created for the current tenant
+     */
+    private long getAvailableIngestJobs() {
+        return confProperties.getMaxActiveIngestJobs() - jobInfoService
+                .retrieveJobsCount(IngestProcessingJob.class.getName(), JobStatus.QUEUED, JobStatus.TO_BE_RUN,
+                                   JobStatus.RUNNING);
+    }
+
+    private void scheduleIngestProcessingJob(String chainName, Collection<IngestRequest> requests, int priority) {
 
         // Schedule jobs
-        LOGGER.debug("Scheduling job to handle {} ingest request(s) on chain {}", requests.size(), chainName);
+        LOGGER.debug("Scheduling job with priority {} to handle {} ingest request(s) on chain {}", priority,
+                     requests.size(), chainName);
 
         Set<Long> ids = requests.stream().map(r -> r.getId()).collect(Collectors.toSet());
 
@@ -161,8 +221,8 @@ public class IngestRequestService implements IIngestRequestService {
         jobParameters.add(new JobParameter(IngestProcessingJob.IDS_PARAMETER, ids));
         jobParameters.add(new JobParameter(IngestProcessingJob.CHAIN_NAME_PARAMETER, chainName));
         // Lock job info
-        JobInfo jobInfo = new JobInfo(false, IngestJobPriority.INGEST_PROCESSING_JOB_PRIORITY.getPriority(),
-                jobParameters, authResolver.getUser(), IngestProcessingJob.class.getName());
+        JobInfo jobInfo = new JobInfo(false, priority, jobParameters, authResolver.getUser(),
+                IngestProcessingJob.class.getName());
         // Lock job to avoid automatic deletion. The job must be unlock when the link to the request is removed.
         jobInfo.setLocked(true);
         jobInfoService.createAsQueued(jobInfo);
@@ -207,22 +267,42 @@ public class IngestRequestService implements IIngestRequestService {
 
     @Override
     public void handleRequestGranted(IngestRequest request) {
-        // Keep track of the request
-        saveRequest(request);
+        handleRequestsGranted(Lists.newArrayList(request));
+    }
+
+    @Override
+    public void handleRequestDenied(IngestRequest request) {
+        handleRequestsDenied(Lists.newArrayList(request));
+    }
+
+    @Override
+    public void handleRequestsGranted(Collection<IngestRequest> requests) {
+        if (requests.isEmpty()) {
+            return;
+        }
+        // Keep track of the requests (batched inserts)
+        saveRequests(requests);
 
         // Publish
-        publisher.publish(IngestRequestEvent.build(request.getRequestId(),
-                                                   request.getSip() != null ? request.getSip().getId() : null, null,
-                                                   RequestState.GRANTED, request.getErrors()));
+        publisher.publish(requests.stream().map(r -> buildRequestEvent(r, RequestState.GRANTED))
+                                  .collect(Collectors.toList()));
     }
 
     @Override
-    public void handleRequestDenied(IngestRequest request) {
-        // Do not keep track of the request
-        // Publish DENIED request
-        publisher.publish(IngestRequestEvent.build(request.getRequestId(),
-                                                   request.getSip() != null ? request.getSip().getId() : null, null,
-                                                   RequestState.DENIED, request.getErrors()));
+    public void handleRequestsDenied(Collection<IngestRequest> requests) {
+        if (requests.isEmpty()) {
+            return;
+        }
+        // Do not keep track of the requests
+        // Publish DENIED requests
+        publisher.publish(requests.stream().map(r -> buildRequestEvent(r, RequestState.DENIED))
+                                  .collect(Collectors.toList()));
+    }
+
+    private static IngestRequestEvent buildRequestEvent(IngestRequest request, RequestState state) {
+        return IngestRequestEvent.build(request.getRequestId(),
+                                        request.getSip() != null ? request.getSip().getId() : null, null, state,
+                                        request.getErrors());
     }
 
     @Override
@@ -296,7 +376,7 @@ public class IngestRequestService implements IIngestRequestService {
             for (IngestRequest request : requests) {
                 String chainName = request.getMetadata().getIngestChain();
                 if (!chains.containsKey(chainName)) {
-                    chains.put(chainName, processingChainRepository.findOneByName(chainName));
+                    chains.put(chainName, chainCache.getChain(chainName));
                 }
             }
         }
@@ -443,8 +523,10 @@ public class IngestRequestService implements IIngestRequestService {
             return;
         }
 
-        List<AbstractRequest> toSchedule = Lists.newArrayList();
         Map<IngestProcessingChain, Set<AIPEntity>> postProcessToSchedule = Maps.newHashMap();
+        // AIPs to version in request order with their versioning mode
+        Map<AIPEntity, VersioningMode> aipsToVersion = new LinkedHashMap<>();
+        List<SIPEntity> sipsToSave = new ArrayList<>();
         SIPEntity sipEntity;
         List<IngestRequestEvent> listIngestRequestEvents = new ArrayList<>();
 
@@ -455,9 +537,7 @@ public class IngestRequestService implements IIngestRequestService {
             // Change AIP state
             for (AIPEntity aipEntity : aips) {
                 aipEntity.setState(AIPState.STORED);
-                // Find if this is the last version and set last flag accordingly
-                aipService.handleVersioning(aipEntity, request.getMetadata().getVersioningMode(), lastVersions);
-                aipService.save(aipEntity);
+                aipsToVersion.put(aipEntity, request.getMetadata().getVersioningMode());
 
                 // Manage post processing
                 Optional<IngestProcessingChain> chain = chains.get(request.getMetadata().getIngestChain());
@@ -481,13 +561,17 @@ public class IngestRequestService implements IIngestRequestService {
             // Update SIP state
             sipEntity = aips.get(0).getSip();
             sipEntity.setState(SIPState.STORED);
-            sipService.save(sipEntity);
+            sipsToSave.add(sipEntity);
 
             // add ingest request event to list of ingest request events to publish
             listIngestRequestEvents.add(IngestRequestEvent.build(request.getRequestId(), request.getSip().getId(),
                                                                  sipEntity.getSipId(), RequestState.SUCCESS));
         }
 
+        // Find last versions for the whole batch and save AIPs and SIPs at once
+        aipService.handleVersioning(aipsToVersion, lastVersions);
+        sipService.saveAll(sipsToSave);
+
         // NOTIFICATIONS
         // check if notifications are required - if true send to notifier, if false publish events and delete requests
         AIPNotificationSettings notificationSettings = aipNotificationSettingsService.retrieve();
@@ -497,18 +581,22 @@ public class IngestRequestService implements IIngestRequestService {
         } else {
             publisher.publish(listIngestRequestEvents);
             requestService.deleteRequests(Sets.newHashSet(requests));
+            requests.forEach(r -> ingestMetrics.recordRequestSuccess(r.getMetadata().getIngestChain(),
+                                                                     r.getCreationDate()));
         }
 
         // POSTPROCESS
+        List<AIPPostProcessRequest> postProcessRequests = Lists.newArrayList();
         for (Entry<IngestProcessingChain, Set<AIPEntity>> es : postProcessToSchedule.entrySet()) {
             for (AIPEntity aip : es.getValue()) {
-                AIPPostProcessRequest req = AIPPostProcessRequest
-                        .build(aip, es.getKey().getPostProcessingPlugin().get().getBusinessId());
-                toSchedule.add(aipPostProcessRequestRepository.save(req));
-                sessionNotifier.incrementPostProcessPending(req);
+                postProcessRequests.add(AIPPostProcessRequest
+                        .build(aip, es.getKey().getPostProcessingPlugin().get().getBusinessId()));
             }
         }
-        requestService.scheduleRequests(toSchedule);
+        List<AIPPostProcessRequest> savedPostProcessRequests = aipPostProcessRequestRepository
+                .saveAll(postProcessRequests);
+        savedPostProcessRequests.forEach(sessionNotifier::incrementPostProcessPending);
+        requestService.scheduleRequests(new ArrayList<>(savedPostProcessRequests));
         LOGGER.trace("Successful request handled in {} ms", System.currentTimeMillis() - start);
     }
 
@@ -541,12 +629,14 @@ public class IngestRequestService implements IIngestRequestService {
     public void handleRemoteReferenceSuccess(Set<RequestInfo> requests) {
         Map<String, Optional<IngestProcessingChain>> chains = new HashMap<>();
         Set<IngestRequest> requestsToFinilized = Sets.newHashSet();
+        Map<String, RequestInfo> infosByGroupId = requests.stream()
+                .collect(Collectors.toMap(RequestInfo::getGroupId, Function.identity(), (r1, r2) -> r1));
         for (AbstractRequest request : requestService.getRequests(requests)) {
             IngestRequest iReq = (IngestRequest) request;
             if (iReq.getStep() == IngestRequestStep.REMOTE_STORAGE_REQUESTED) {// Check if there is another storage request we're waiting for
-                for (RequestInfo ri : requests.stream()
-                        .filter(r -> request.getRemoteStepGroupIds().contains(r.getGroupId()))
-                        .collect(Collectors.toSet())) {
+                // Copy group ids as they are removed while handled
+                for (RequestInfo ri : new LinkedHashSet<>(request.getRemoteStepGroupIds()).stream()
+                        .map(infosByGroupId::get).filter(Objects::nonNull).collect(Collectors.toList())) {
                     aipStorageService.updateAIPsContentInfosAndLocations(iReq.getAips(), ri.getSuccessRequests());
                     List<String> remoteStepGroupIds = updateRemoteStepGroupId(iReq, ri);
                     if (!remoteStepGroupIds.isEmpty()) {
@@ -616,9 +706,9 @@ public class IngestRequestService implements IIngestRequestService {
             sessionNotifier.decrementProductWaitingVersioningMode(request);
             request.setState(InternalRequestState.CREATED);
             request.getMetadata().setVersioningMode(versioningMode);
-            handleRequestGranted(request);
             ingestRequestToSchedulePerChain.add(request.getMetadata().getIngestChain(), request);
         }
+        handleRequestsGranted(requests);
         ingestRequestToSchedulePerChain.keySet()
                 .forEach(chain -> scheduleIngestProcessingJobByChain(chain,
                                                                      ingestRequestToSchedulePerChain.get(chain)));
@@ -655,6 +745,21 @@ public class IngestRequestService implements IIngestRequestService {
     }
 
     private IngestRequest saveRequest(IngestRequest request, boolean checkAips) {
+        lockJobInfo(request);
+        return ingestRequestRepository.save(request);
+    }
+
+    /**
+     * Creates or update the given {@link IngestRequest}s in one batch and lock associated jobs if any.
+     * @param requests
+     * @return saved {@link IngestRequest}s
+     */
+    private List<IngestRequest> saveRequests(Collection<IngestRequest> requests) {
+        requests.forEach(this::lockJobInfo);
+        return ingestRequestRepository.saveAll(requests);
+    }
+
+    private void lockJobInfo(IngestRequest request) {
         // Before saving entity check the state of the associated job if any
         if ((request.getJobInfo() != null) && !request.getJobInfo().isLocked()) {
             // Lock the job info before saving entity in order to avoid deletion of this job by an other process
@@ -663,7 +768,6 @@ public class IngestRequestService implements IIngestRequestService {
             jobInfoService.save(jobInfo);
             request.setJobInfo(jobInfo);
         }
-        return ingestRequestRepository.save(request);
     }
 
     private void updateRequestWithErrors(IngestRequest request, Collection<RequestResultInfoDTO> errors,
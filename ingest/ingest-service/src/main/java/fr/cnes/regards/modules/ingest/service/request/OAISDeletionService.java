@@ -32,8 +32,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import com.google.common.collect.Lists;
-
+import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Sets;
+
 import fr.cnes.regards.framework.jpa.multitenant.transactional.MultitenantTransactional;
 import fr.cnes.regards.modules.ingest.dao.IOAISDeletionCreatorRepository;
 import fr.cnes.regards.modules.ingest.dao.IOAISDeletionRequestRepository;
@@ -128,21 +129,20 @@ public class OAISDeletionService implements IOAISDeletionService {
 
     @Override
     public void handleRemoteDeleteSuccess(Set<RequestInfo> requestInfos) {
-        List<AbstractRequest> requests = requestService.getRequests(requestInfos);
-        List<AbstractRequest> requestsToSchedule = Lists.newArrayList();
+        SetMultimap<String, AbstractRequest> requestsByGroupId = requestService.getRequestsByGroupId(requestInfos);
+        // A request waiting for several groups is scheduled once
+        Set<AbstractRequest> requestsToSchedule = Sets.newLinkedHashSet();
         for (RequestInfo ri : requestInfos) {
-            for (AbstractRequest request : requests) {
-                if (request.getRemoteStepGroupIds().contains(ri.getGroupId())) {
-                    // Storage knows files are deleted
-                    // Put back request as CREATED
-                    OAISDeletionRequest deletionRequest = (OAISDeletionRequest) request;
-                    deletionRequest.setRequestFilesDeleted();
-                    deletionRequest.clearRemoteStepGroupIds();
-                    requestsToSchedule.add(deletionRequest);
-                }
+            for (AbstractRequest request : requestsByGroupId.get(ri.getGroupId())) {
+                // Storage knows files are deleted
+                // Put back request as CREATED
+                OAISDeletionRequest deletionRequest = (OAISDeletionRequest) request;
+                deletionRequest.setRequestFilesDeleted();
+                deletionRequest.clearRemoteStepGroupIds();
+                requestsToSchedule.add(deletionRequest);
             }
         }
-        requestService.scheduleRequests(requestsToSchedule);
+        requestService.scheduleRequests(Lists.newArrayList(requestsToSchedule));
     }
 
     @Override
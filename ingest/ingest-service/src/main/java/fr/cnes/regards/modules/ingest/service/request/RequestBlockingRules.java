@@ -0,0 +1,143 @@
+/*
+ * Copyright 2017-2020 CNES - CENTRE NATIONAL d'ETUDES SPATIALES
+ *
+ * This file is part of REGARDS.
+ *
+ * REGARDS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * REGARDS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with REGARDS. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.cnes.regards.modules.ingest.service.request;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+
+import fr.cnes.regards.modules.ingest.domain.request.AbstractRequest;
+import fr.cnes.regards.modules.ingest.domain.request.InternalRequestState;
+import fr.cnes.regards.modules.ingest.domain.request.deletion.DeletionRequestStep;
+import fr.cnes.regards.modules.ingest.domain.request.deletion.OAISDeletionRequest;
+import fr.cnes.regards.modules.ingest.domain.request.update.AIPUpdateRequest;
+import fr.cnes.regards.modules.ingest.domain.request.update.AIPUpdateRequestStep;
+import fr.cnes.regards.modules.ingest.dto.request.RequestTypeConstant;
+
+/**
+ * Rules deciding which running requests prevent an {@link AbstractRequest} from being executed right now.<br/>
+ * A request is blocked by the running requests of some types of its own session and by the running requests of
+ * some other types whatever their session.
+ *
+ * @author Sébastien Binda
+ */
+public final class RequestBlockingRules {
+
+    /**
+     * States of the requests that can block other requests
+     */
+    public static final Set<InternalRequestState> RUNNING_STATES = Sets
+            .immutableEnumSet(InternalRequestState.CREATED, InternalRequestState.RUNNING);
+
+    /**
+     * Types of the requests blocking a request of the given type when they belong to the same session
+     */
+    private static final Map<String, Set<String>> SESSION_BLOCKING_TYPES = ImmutableMap
+            .<String, Set<String>> builder()
+            .put(RequestTypeConstant.AIP_UPDATES_CREATOR_VALUE, ImmutableSet.of())
+            .put(RequestTypeConstant.OAIS_DELETION_CREATOR_VALUE, ImmutableSet.of(RequestTypeConstant.UPDATE_VALUE))
+            .put(RequestTypeConstant.OAIS_DELETION_VALUE,
+                 ImmutableSet.of(RequestTypeConstant.UPDATE_VALUE, RequestTypeConstant.AIP_POST_PROCESS_VALUE))
+            .put(RequestTypeConstant.UPDATE_VALUE,
+                 ImmutableSet.of(RequestTypeConstant.OAIS_DELETION_VALUE, RequestTypeConstant.AIP_POST_PROCESS_VALUE))
+            .put(RequestTypeConstant.AIP_POST_PROCESS_VALUE,
+                 ImmutableSet.of(RequestTypeConstant.UPDATE_VALUE, RequestTypeConstant.OAIS_DELETION_VALUE))
+            .build();
+
+    /**
+     * Types of the requests blocking a request of the given type whatever their session
+     */
+    private static final Map<String, Set<String>> GLOBAL_BLOCKING_TYPES = ImmutableMap
+            .<String, Set<String>> builder()
+            .put(RequestTypeConstant.AIP_UPDATES_CREATOR_VALUE,
+                 ImmutableSet.of(RequestTypeConstant.OAIS_DELETION_CREATOR_VALUE))
+            .put(RequestTypeConstant.OAIS_DELETION_CREATOR_VALUE,
+                 ImmutableSet.of(RequestTypeConstant.OAIS_DELETION_CREATOR_VALUE))
+            .put(RequestTypeConstant.OAIS_DELETION_VALUE,
+                 ImmutableSet.of(RequestTypeConstant.AIP_UPDATES_CREATOR_VALUE))
+            .put(RequestTypeConstant.UPDATE_VALUE, ImmutableSet.of(RequestTypeConstant.OAIS_DELETION_CREATOR_VALUE))
+            .put(RequestTypeConstant.AIP_POST_PROCESS_VALUE,
+                 ImmutableSet.of(RequestTypeConstant.AIP_UPDATES_CREATOR_VALUE,
+                                 RequestTypeConstant.OAIS_DELETION_CREATOR_VALUE))
+            .build();
+
+    /**
+     * Every type blocking requests of its session
+     */
+    public static final Set<String> ALL_SESSION_BLOCKING_TYPES = ImmutableSet
+            .copyOf(SESSION_BLOCKING_TYPES.values().stream().flatMap(Set::stream).collect(Collectors.toSet()));
+
+    /**
+     * Every type blocking requests whatever their session
+     */
+    public static final Set<String> ALL_GLOBAL_BLOCKING_TYPES = ImmutableSet
+            .copyOf(GLOBAL_BLOCKING_TYPES.values().stream().flatMap(Set::stream).collect(Collectors.toSet()));
+
+    private RequestBlockingRules() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * @param request the request to check
+     * @return true when some running requests can prevent the given request from being executed right now
+     */
+    public static boolean canBeBlocked(AbstractRequest request) {
+        switch (request.getDtype()) {
+            case RequestTypeConstant.OAIS_DELETION_VALUE:
+                // In case of notification error, aip has already been deleted so do not delay request.
+                return ((OAISDeletionRequest) request).getStep() != DeletionRequestStep.REMOTE_NOTIFICATION_ERROR;
+            case RequestTypeConstant.UPDATE_VALUE:
+                // In case of notification error, aip has already been updated so do not delay request
+                return ((AIPUpdateRequest) request).getStep() != AIPUpdateRequestStep.REMOTE_NOTIFICATION_ERROR;
+            case RequestTypeConstant.AIP_UPDATES_CREATOR_VALUE:
+            case RequestTypeConstant.OAIS_DELETION_CREATOR_VALUE:
+            case RequestTypeConstant.AIP_POST_PROCESS_VALUE:
+                return true;
+            case RequestTypeConstant.INGEST_VALUE:
+                // Ingest cannot be blocked
+                return false;
+            case RequestTypeConstant.AIP_SAVE_METADATA_VALUE:
+                // Save metadata cannot be blocked
+                return false;
+            default:
+                throw new IllegalArgumentException(String
+                        .format("You should not use this method for requests having [%s] type", request.getDtype()));
+        }
+    }
+
+    /**
+     * @param requestType type of the request to check
+     * @return types of the running requests blocking it when they belong to the same session
+     */
+    public static Set<String> getSessionBlockingTypes(String requestType) {
+        return SESSION_BLOCKING_TYPES.getOrDefault(requestType, ImmutableSet.of());
+    }
+
+    /**
+     * @param requestType type of the request to check
+     * @return types of the running requests blocking it whatever their session
+     */
+    public static Set<String> getGlobalBlockingTypes(String requestType) {
+        return GLOBAL_BLOCKING_TYPES.getOrDefault(requestType, ImmutableSet.of());
+    }
+}
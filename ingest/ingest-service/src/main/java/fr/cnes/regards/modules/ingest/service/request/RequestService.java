@@ -19,7 +19,6 @@
 package fr.cnes.regards.modules.ingest.service.request;
 
 import java.util.*;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -27,15 +26,14 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.*;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 
-import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Lists;
+import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Sets;
-import com.google.common.collect.Table;
 import fr.cnes.regards.framework.authentication.IAuthenticationResolver;
 import fr.cnes.regards.framework.jpa.multitenant.transactional.MultitenantTransactional;
 import fr.cnes.regards.framework.modules.jobs.domain.JobInfo;
@@ -47,24 +45,26 @@ import fr.cnes.regards.modules.ingest.dao.AbstractRequestSpecifications;
 import fr.cnes.regards.modules.ingest.dao.IAIPPostProcessRequestRepository;
 import fr.cnes.regards.modules.ingest.dao.IAIPUpdateRequestRepository;
 import fr.cnes.regards.modules.ingest.dao.IAbstractRequestRepository;
+import fr.cnes.regards.modules.ingest.dao.IExistsRepository;
 import fr.cnes.regards.modules.ingest.dao.IIngestRequestRepository;
+import fr.cnes.regards.modules.ingest.dao.IKeysetRepository;
 import fr.cnes.regards.modules.ingest.domain.aip.AIPEntity;
 import fr.cnes.regards.modules.ingest.domain.mapper.IRequestMapper;
 import fr.cnes.regards.modules.ingest.domain.request.AbstractRequest;
+import fr.cnes.regards.modules.ingest.domain.request.IRequestStateCount;
 import fr.cnes.regards.modules.ingest.domain.request.InternalRequestState;
-import fr.cnes.regards.modules.ingest.domain.request.deletion.DeletionRequestStep;
-import fr.cnes.regards.modules.ingest.domain.request.deletion.OAISDeletionCreatorRequest;
+import fr.cnes.regards.modules.ingest.domain.request.RequestSchedulerType;
 import fr.cnes.regards.modules.ingest.domain.request.deletion.OAISDeletionRequest;
+import fr.cnes.regards.modules.ingest.domain.request.deletion.OAISDeletionCreatorRequest;
 import fr.cnes.regards.modules.ingest.domain.request.ingest.IngestRequest;
 import fr.cnes.regards.modules.ingest.domain.request.postprocessing.AIPPostProcessRequest;
 import fr.cnes.regards.modules.ingest.domain.request.update.AIPUpdateRequest;
-import fr.cnes.regards.modules.ingest.domain.request.update.AIPUpdateRequestStep;
 import fr.cnes.regards.modules.ingest.domain.request.update.AIPUpdatesCreatorRequest;
 import fr.cnes.regards.modules.ingest.dto.request.RequestDto;
-import fr.cnes.regards.modules.ingest.dto.request.RequestTypeConstant;
 import fr.cnes.regards.modules.ingest.dto.request.RequestTypeEnum;
 import fr.cnes.regards.modules.ingest.dto.request.SearchRequestsParameters;
 import fr.cnes.regards.modules.ingest.service.job.*;
+import fr.cnes.regards.modules.ingest.service.schedule.RequestSchedulingSignals;
 import fr.cnes.regards.modules.ingest.service.session.SessionNotifier;
 import fr.cnes.regards.modules.storage.client.RequestInfo;
 
@@ -80,12 +80,23 @@ public class RequestService implements IRequestService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(RequestService.class);
 
+    /**
+     * Maximum number of remote step group ids in a single lookup query
+     */
+    private static final int MAX_GROUP_IDS_PER_QUERY = 10_000;
+
     @Autowired
     private IIngestRequestRepository ingestRequestRepository;
 
     @Autowired
     private IAbstractRequestRepository abstractRequestRepository;
 
+    @Autowired
+    private IKeysetRepository keysetRepository;
+
+    @Autowired
+    private IExistsRepository existsRepository;
+
     @Autowired
     private IAIPUpdateRequestRepository aipUpdateRequestRepository;
 
@@ -107,6 +118,9 @@ public class RequestService implements IRequestService {
     @Autowired
     private SessionNotifier sessionNotifier;
 
+    @Autowired
+    private RequestSchedulingSignals schedulingSignals;
+
     @Autowired
     @Lazy
     private IRequestService self;
@@ -141,6 +155,20 @@ public class RequestService implements IRequestService {
                                                  pageable);
     }
 
+    @Override
+    public List<AbstractRequest> findRequestsAfterId(SearchRequestsParameters filters, Long lastId, int limit) {
+        Pageable pageable = PageRequest.of(0, limit, Sort.Direction.ASC, "id");
+        return keysetRepository.findAllAfterId(AbstractRequest.class,
+                                               AbstractRequestSpecifications.searchAllByFilters(filters, pageable),
+                                               lastId, limit);
+    }
+
+    @Override
+    public long countRequests(SearchRequestsParameters filters) {
+        Pageable pageable = PageRequest.of(0, 1, Sort.Direction.ASC, "id");
+        return abstractRequestRepository.count(AbstractRequestSpecifications.searchAllByFilters(filters, pageable));
+    }
+
     @Override
     public Page<RequestDto> findRequestDtos(SearchRequestsParameters filters, Pageable pageable) {
         Page<AbstractRequest> requests = findRequests(filters, pageable);
@@ -164,6 +192,10 @@ public class RequestService implements IRequestService {
 
         List<AIPUpdateRequest> updateRequests = aipUpdateRequestRepository.findAllByAipIdIn(aipIds);
         aipUpdateRequestRepository.deleteAll(updateRequests);
+        if (!requests.isEmpty() || !updateRequests.isEmpty()) {
+            // Deleted requests may have blocked other ones
+            schedulingSignals.signal(RequestSchedulerType.REQUEST_PENDING);
+        }
     }
 
     @Override
@@ -264,7 +296,7 @@ public class RequestService implements IRequestService {
     }
 
     @Override
-    public void unblockRequests(RequestTypeEnum requestType) {
+    public int unblockRequests(RequestTypeEnum requestType) {
         // Build search filters
         SearchRequestsParameters searchFilters = SearchRequestsParameters.build().withRequestType(requestType)
                 .withState(InternalRequestState.BLOCKED);
@@ -286,6 +318,7 @@ public class RequestService implements IRequestService {
                 }
             }
         }
+        return (int) requests.stream().filter(r -> r.getState() != InternalRequestState.BLOCKED).count();
     }
 
     /**
@@ -332,6 +365,9 @@ public class RequestService implements IRequestService {
         }
         sessionNotifier.requestDeleted(request);
         abstractRequestRepository.delete(request);
+        // Deleted request may have blocked other ones or held a job slot
+        schedulingSignals.signal(RequestSchedulerType.REQUEST_PENDING);
+        getScheduler(request).ifPresent(schedulingSignals::signal);
     }
 
     /**
@@ -343,27 +379,15 @@ public class RequestService implements IRequestService {
     @Override
     public int scheduleRequests(List<AbstractRequest> requests) {
         int nbRequestScheduled = 0;
-        // Store request state (can be scheduled right now ?) by session
-        Table<String, String, InternalRequestState> history = HashBasedTable.create();
-
+        // Running requests that may block the ones to schedule are loaded once for the whole list
+        RunningRequestsSnapshot runningRequests = null;
         for (AbstractRequest request : requests) {
             // Ignore BLOCKED request
             if (request.getState() != InternalRequestState.BLOCKED) {
-                // Do not use history if the request is also a jobRequest or session values are missing
-                if (!isJobRequest(request) && (request.getSessionOwner() != null) && (request.getSession() != null)) {
-                    if (!history.contains(request.getSessionOwner(), request.getSession())) {
-                        // Check if the request can be processed right now
-                        request = scheduleRequest(request);
-                        // Store if request for this session can be executed right now
-                        history.put(request.getSessionOwner(), request.getSession(), request.getState());
-                    }
-                    InternalRequestState state = history.get(request.getSessionOwner(), request.getSession());
-                    request.setState(state);
-                    abstractRequestRepository.save(request);
-                } else {
-                    // Schedule the request
-                    scheduleRequest(request);
+                if (runningRequests == null) {
+                    runningRequests = loadRunningRequests(requests);
                 }
+                scheduleRequest(request, runningRequests);
                 nbRequestScheduled++;
             } else {
                 abstractRequestRepository.save(request);
@@ -374,18 +398,85 @@ public class RequestService implements IRequestService {
 
     @Override
     public AbstractRequest scheduleRequest(AbstractRequest request) {
-        boolean shouldDelayCurrentRequest = shouldDelayRequest(request);
+        return applySchedulingDecision(request, shouldDelayRequest(request));
+    }
+
+    /**
+     * Schedule a request using the running requests loaded for the current scheduling round.
+     * The database is only queried if the request session is not covered by the snapshot.
+     */
+    private AbstractRequest scheduleRequest(AbstractRequest request, RunningRequestsSnapshot runningRequests) {
+        boolean shouldDelayCurrentRequest;
+        if (!RequestBlockingRules.canBeBlocked(request)) {
+            shouldDelayCurrentRequest = false;
+        } else if (runningRequests.covers(request)) {
+            shouldDelayCurrentRequest = runningRequests.isBlocked(request);
+        } else {
+            shouldDelayCurrentRequest = shouldDelayRequest(request);
+        }
+        AbstractRequest savedRequest = applySchedulingDecision(request, shouldDelayCurrentRequest);
+        if (RequestBlockingRules.RUNNING_STATES.contains(savedRequest.getState())) {
+            // Accepted request may block the next ones of the round
+            runningRequests.register(savedRequest);
+        }
+        return savedRequest;
+    }
+
+    private AbstractRequest applySchedulingDecision(AbstractRequest request, boolean shouldDelayCurrentRequest) {
         if (shouldDelayCurrentRequest) {
             // Block the request
             request.setState(InternalRequestState.BLOCKED);
         } else if (request.getState() == InternalRequestState.TO_SCHEDULE) {
             // If the request is accepted but was in TO_SCHEDULE, put it in CREATED
             request.setState(InternalRequestState.CREATED);
+            // Wake up the scheduler creating jobs for this request
+            getScheduler(request).ifPresent(schedulingSignals::signal);
         }
         // Save to repo
         return abstractRequestRepository.save(request);
     }
 
+    /**
+     * @return the scheduler creating jobs for the given request, if any
+     */
+    private Optional<RequestSchedulerType> getScheduler(AbstractRequest request) {
+        if (request instanceof AIPUpdateRequest) {
+            return Optional.of(RequestSchedulerType.AIP_UPDATE);
+        } else if (request instanceof OAISDeletionRequest) {
+            return Optional.of(RequestSchedulerType.AIP_DELETION);
+        } else if (request instanceof AIPPostProcessRequest) {
+            return Optional.of(RequestSchedulerType.AIP_POST_PROCESS);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Load running requests that can block the given ones : every running request of a global blocking type and
+     * running requests of a session blocking type belonging to the sessions of the given requests.
+     */
+    private RunningRequestsSnapshot loadRunningRequests(Collection<AbstractRequest> requests) {
+        RunningRequestsSnapshot runningRequests = new RunningRequestsSnapshot();
+        Set<String> sessionOwners = new HashSet<>();
+        Set<String> sessions = new HashSet<>();
+        for (AbstractRequest request : requests) {
+            if ((request.getSessionOwner() != null) && (request.getSession() != null)) {
+                runningRequests.addSession(request.getSessionOwner(), request.getSession());
+                sessionOwners.add(request.getSessionOwner());
+                sessions.add(request.getSession());
+            }
+        }
+        runningRequests.addGlobalTypes(abstractRequestRepository
+                .findDtypesByDtypeInAndStateIn(RequestBlockingRules.ALL_GLOBAL_BLOCKING_TYPES,
+                                               RequestBlockingRules.RUNNING_STATES));
+        if (!sessions.isEmpty()) {
+            abstractRequestRepository
+                    .findTypesAndSessions(RequestBlockingRules.ALL_SESSION_BLOCKING_TYPES,
+                                          RequestBlockingRules.RUNNING_STATES, sessionOwners, sessions)
+                    .forEach(runningRequests::addSessionType);
+        }
+        return runningRequests;
+    }
+
     /**
      * @param request
      * @return true when the concrete {@link AbstractRequest} is run in a job
@@ -407,67 +498,59 @@ public class RequestService implements IRequestService {
      */
     @Override
     public boolean shouldDelayRequest(AbstractRequest request) {
-        Specification<AbstractRequest> spec;
-        Optional<String> sessionOwnerOp = Optional.ofNullable(request.getSessionOwner());
-        Optional<String> sessionOp = Optional.ofNullable(request.getSession());
-        switch (request.getDtype()) {
-            case RequestTypeConstant.AIP_UPDATES_CREATOR_VALUE:
-                spec = AbstractRequestSpecifications.searchRequestBlockingAipUpdatesCreator(sessionOwnerOp, sessionOp);
-                break;
-            case RequestTypeConstant.OAIS_DELETION_CREATOR_VALUE:
-                spec = AbstractRequestSpecifications.searchRequestBlockingOAISDeletionCreator(sessionOwnerOp,
-                                                                                              sessionOp);
-                break;
-            case RequestTypeConstant.OAIS_DELETION_VALUE:
-                if(((OAISDeletionRequest) request).getStep() != DeletionRequestStep.REMOTE_NOTIFICATION_ERROR) {
-                    spec = AbstractRequestSpecifications
-                            .searchRequestBlockingOAISDeletion(sessionOwnerOp, sessionOp,
-                                                               ((OAISDeletionRequest) request).getAip().getId());
-                } else {
-                    // In case of notification error, aip has already been deleted so do not delay request.
-                    return false;
-                }
-                break;
-            case RequestTypeConstant.UPDATE_VALUE:
-                if(((AIPUpdateRequest) request).getStep() != AIPUpdateRequestStep.REMOTE_NOTIFICATION_ERROR) {
-                    spec = AbstractRequestSpecifications.searchRequestBlockingUpdate(sessionOwnerOp, sessionOp);
-                } else {
-                    // In case of notification error, aip has already been updated so do not delay request
-                    return false;
-                }
-                break;
-            case RequestTypeConstant.AIP_POST_PROCESS_VALUE:
-                spec = AbstractRequestSpecifications.searchRequestBlockingAIPPostProcess(sessionOwnerOp, sessionOp);
-                break;
-            case RequestTypeConstant.INGEST_VALUE:
-                // Ingest cannot be blocked
-                return false;
-            case RequestTypeConstant.AIP_SAVE_METADATA_VALUE:
-                // Save metadata cannot be blocked
-                return false;
-            default:
-                throw new IllegalArgumentException(String
-                        .format("You should not use this method for requests having [%s] type", request.getDtype()));
+        if (!RequestBlockingRules.canBeBlocked(request)) {
+            return false;
         }
-        return abstractRequestRepository.exists(spec);
+        return existsRepository.exists(AbstractRequest.class, AbstractRequestSpecifications
+                .searchRequestBlocking(Optional.ofNullable(request.getSessionOwner()),
+                                       Optional.ofNullable(request.getSession()),
+                                       RequestBlockingRules.getSessionBlockingTypes(request.getDtype()),
+                                       RequestBlockingRules.getGlobalBlockingTypes(request.getDtype())));
     }
 
     @Override
     public List<AbstractRequest> getRequests(Set<RequestInfo> requestInfos) {
-        List<String> groupIds = requestInfos.stream().map(RequestInfo::getGroupId).collect(Collectors.toList());
-        List<AbstractRequest> requests = new ArrayList<>();
-        // To avoid sql too long request, divide the list of groupIds to search for in subList of 100 groupIds at most.
-        final int chunkSize = 100;
-        if (groupIds.size() > chunkSize) {
-            final AtomicInteger counter = new AtomicInteger();
-            groupIds.stream().collect(Collectors.groupingBy(it -> counter.getAndIncrement() / chunkSize)).values()
-                    .forEach(list -> {
-                        requests.addAll(findRequestsByGroupIdIn(list));
-                    });
-        } else {
-            requests.addAll(findRequestsByGroupIdIn(groupIds));
+        List<String> groupIds = requestInfos.stream().map(RequestInfo::getGroupId).distinct()
+                .collect(Collectors.toList());
+        // Group ids are matched through an index, only split to stay below the JDBC bind parameter limit.
+        // Same persistence context : a request found by several chunks is the same instance.
+        Set<AbstractRequest> requests = new LinkedHashSet<>();
+        for (List<String> chunk : Lists.partition(groupIds, MAX_GROUP_IDS_PER_QUERY)) {
+            requests.addAll(findRequestsByGroupIdIn(chunk));
         }
-        return requests;
+        return new ArrayList<>(requests);
+    }
+
+    @Override
+    public SetMultimap<String, AbstractRequest> getRequestsByGroupId(Set<RequestInfo> requestInfos) {
+        Set<String> groupIds = requestInfos.stream().map(RequestInfo::getGroupId).collect(Collectors.toSet());
+        return indexByRemoteStepGroupId(getRequests(requestInfos), groupIds);
     }
 
+    /**
+     * Index the given requests by remote step group id, restricted to the given group ids.<br/>
+     * For each group id, requests are kept in the given order.
+     * @param requests requests to index
+     * @param groupIds group ids to index
+     * @return {@link SetMultimap} key: group id, values: requests waiting for this group
+     */
+    public static SetMultimap<String, AbstractRequest> indexByRemoteStepGroupId(
+            Collection<? extends AbstractRequest> requests, Set<String> groupIds) {
+        SetMultimap<String, AbstractRequest> index = LinkedHashMultimap.create();
+        for (AbstractRequest request : requests) {
+            if (request.getRemoteStepGroupIds() != null) {
+                for (String groupId : request.getRemoteStepGroupIds()) {
+                    if (groupIds.contains(groupId)) {
+                        index.put(groupId, request);
+                    }
+                }
+            }
+        }
+        return index;
+    }
+
+    @Override
+    public List<IRequestStateCount> countByStateAndType() {
+        return abstractRequestRepository.countByStateAndDtype();
+    }
 }
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2017-2020 CNES - CENTRE NATIONAL d'ETUDES SPATIALES
+ *
+ * This file is part of REGARDS.
+ *
+ * REGARDS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * REGARDS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with REGARDS. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.cnes.regards.modules.ingest.service.request;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.Table;
+
+import fr.cnes.regards.modules.ingest.domain.request.AbstractRequest;
+import fr.cnes.regards.modules.ingest.domain.request.IRequestTypeAndSession;
+
+/**
+ * Snapshot of the running requests that can block other requests, loaded once per scheduling round so that
+ * {@link RequestBlockingRules} can be evaluated in memory.<br/>
+ * Global blocking types are known for every session, session blocking types only for the sessions added to the
+ * snapshot. Requests accepted during the round must be {@link #register}ed to keep the snapshot up to date.
+ *
+ * @author Sébastien Binda
+ */
+public class RunningRequestsSnapshot {
+
+    /**
+     * Running global blocking types
+     */
+    private final Set<String> globalTypes = new HashSet<>();
+
+    /**
+     * Running session blocking types by session owner and session
+     */
+    private final Table<String, String, Set<String>> sessionTypes = HashBasedTable.create();
+
+    /**
+     * Declare a session whose running requests are loaded in this snapshot
+     */
+    public void addSession(String sessionOwner, String session) {
+        if (!sessionTypes.contains(sessionOwner, session)) {
+            sessionTypes.put(sessionOwner, session, new HashSet<>());
+        }
+    }
+
+    /**
+     * Add running global blocking types
+     */
+    public void addGlobalTypes(Collection<String> requestTypes) {
+        globalTypes.addAll(requestTypes);
+    }
+
+    /**
+     * Add the type of a running request of one of the sessions of this snapshot
+     */
+    public void addSessionType(IRequestTypeAndSession request) {
+        Set<String> types = sessionTypes.get(request.getSessionOwner(), request.getSession());
+        if (types != null) {
+            types.add(request.getDtype());
+        }
+    }
+
+    /**
+     * @return true when this snapshot is enough to know if the given request is blocked
+     */
+    public boolean covers(AbstractRequest request) {
+        return RequestBlockingRules.getSessionBlockingTypes(request.getDtype()).isEmpty()
+                || ((request.getSessionOwner() != null) && (request.getSession() != null)
+                        && sessionTypes.contains(request.getSessionOwner(), request.getSession()));
+    }
+
+    /**
+     * @param request a request {@link #covers covered} by this snapshot
+     * @return true when a running request prevents the given one from being executed right now
+     */
+    public boolean isBlocked(AbstractRequest request) {
+        if (RequestBlockingRules.getGlobalBlockingTypes(request.getDtype()).stream()
+                .anyMatch(globalTypes::contains)) {
+            return true;
+        }
+        Set<String> sessionBlockingTypes = RequestBlockingRules.getSessionBlockingTypes(request.getDtype());
+        if (sessionBlockingTypes.isEmpty()) {
+            return false;
+        }
+        return sessionTypes.get(request.getSessionOwner(), request.getSession()).stream()
+                .anyMatch(sessionBlockingTypes::contains);
+    }
+
+    /**
+     * Register a request accepted during the current round, so that it blocks the next ones
+     */
+    public void register(AbstractRequest request) {
+        if (RequestBlockingRules.ALL_GLOBAL_BLOCKING_TYPES.contains(request.getDtype())) {
+            globalTypes.add(request.getDtype());
+        }
+        if (RequestBlockingRules.ALL_SESSION_BLOCKING_TYPES.contains(request.getDtype())
+                && (request.getSessionOwner() != null) && (request.getSession() != null)) {
+            Set<String> types = sessionTypes.get(request.getSessionOwner(), request.getSession());
+            if (types != null) {
+                types.add(request.getDtype());
+            }
+        }
+    }
+}
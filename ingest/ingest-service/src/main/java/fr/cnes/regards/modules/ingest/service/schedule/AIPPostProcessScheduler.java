@@ -20,6 +20,7 @@
 package fr.cnes.regards.modules.ingest.service.schedule;
 
 import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,6 +33,7 @@ import fr.cnes.regards.framework.jpa.multitenant.lock.AbstractTaskScheduler;
 import fr.cnes.regards.framework.jpa.multitenant.lock.LockingTaskExecutors;
 import fr.cnes.regards.framework.multitenant.IRuntimeTenantResolver;
 import fr.cnes.regards.framework.multitenant.ITenantResolver;
+import fr.cnes.regards.modules.ingest.domain.request.RequestSchedulerType;
 import fr.cnes.regards.modules.ingest.domain.request.postprocessing.AIPPostProcessRequest;
 import fr.cnes.regards.modules.ingest.service.aip.AIPPostProcessService;
 import static fr.cnes.regards.modules.ingest.service.schedule.SchedulerConstant.*;
@@ -62,30 +64,44 @@ public class AIPPostProcessScheduler extends AbstractTaskScheduler {
     @Autowired
     private LockingTaskExecutors lockingTaskExecutors;
 
+    @Autowired
+    private RequestSchedulingSignals schedulingSignals;
+
     /**
      * Post process task
+     * @param idle set to true if no job has been scheduled
      */
-    private final Task postProcessTask = () -> {
-        LockAssert.assertLocked();
-        aipPostProcessService.scheduleJob();
-    };
+    private Task postProcessTask(AtomicBoolean idle) {
+        return () -> {
+            LockAssert.assertLocked();
+            idle.set(aipPostProcessService.scheduleJobs().isEmpty());
+        };
+    }
 
     /**
-     * Bulk save queued items every second.
+     * Schedule AIP post processing jobs for tenants that have pending post process requests or were signaled.<br/>
+     * Tenants without work are skipped with an increasing delay until new requests are signaled.
      */
     @Scheduled(initialDelayString = DEFAULT_INITIAL_DELAY,
             fixedDelayString = "${regards.ingest.aip.post-process.bulk.delay:" + DEFAULT_SCHEDULING_DELAY + "}")
     protected void scheduleAIPPostProcessingJobs() {
-        for (String tenant : tenantResolver.getAllActiveTenants()) {
+        for (String tenant : schedulingSignals.getTenantsInTurn(RequestSchedulerType.AIP_POST_PROCESS,
+                                                                tenantResolver.getAllActiveTenants())) {
+            if (!schedulingSignals.shouldRun(RequestSchedulerType.AIP_POST_PROCESS, tenant)) {
+                continue;
+            }
+            // Lock held by another instance means it is already handling requests
+            AtomicBoolean idle = new AtomicBoolean(true);
             try {
                 runtimeTenantResolver.forceTenant(tenant);
                 traceScheduling(tenant, POST_PROCESS_REQUESTS);
-                lockingTaskExecutors.executeWithLock(postProcessTask, new LockConfiguration(POST_PROCESS_REQUEST_LOCK,
-                                                                                            Instant.now().plusSeconds(
-                                                                                                    MAX_TASK_DELAY)));
+                lockingTaskExecutors.executeWithLock(postProcessTask(idle),
+                                                     new LockConfiguration(POST_PROCESS_REQUEST_LOCK,
+                                                                           Instant.now().plusSeconds(MAX_TASK_DELAY)));
             } catch (Throwable e) {
                 handleSchedulingError(POST_PROCESS_REQUESTS, POST_PROCESS_TITLE, e);
             } finally {
+                schedulingSignals.reportRun(RequestSchedulerType.AIP_POST_PROCESS, tenant, idle.get());
                 runtimeTenantResolver.clearTenant();
             }
         }
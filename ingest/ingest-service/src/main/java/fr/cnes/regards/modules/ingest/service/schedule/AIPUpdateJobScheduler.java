@@ -19,6 +19,7 @@
 package fr.cnes.regards.modules.ingest.service.schedule;
 
 import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,6 +32,7 @@ import fr.cnes.regards.framework.jpa.multitenant.lock.AbstractTaskScheduler;
 import fr.cnes.regards.framework.jpa.multitenant.lock.LockingTaskExecutors;
 import fr.cnes.regards.framework.multitenant.IRuntimeTenantResolver;
 import fr.cnes.regards.framework.multitenant.ITenantResolver;
+import fr.cnes.regards.modules.ingest.domain.request.RequestSchedulerType;
 import fr.cnes.regards.modules.ingest.service.aip.AIPUpdateService;
 import static fr.cnes.regards.modules.ingest.service.schedule.SchedulerConstant.*;
 import net.javacrumbs.shedlock.core.LockAssert;
@@ -60,30 +62,44 @@ public class AIPUpdateJobScheduler extends AbstractTaskScheduler {
     @Autowired
     private LockingTaskExecutors lockingTaskExecutors;
 
+    @Autowired
+    private RequestSchedulingSignals schedulingSignals;
+
     /**
      * Update task
+     * @param idle set to true if no job has been scheduled
      */
-    private final Task aipUpdateTask = () -> {
-        LockAssert.assertLocked();
-        aipUpdateService.scheduleJob();
-    };
+    private Task aipUpdateTask(AtomicBoolean idle) {
+        return () -> {
+            LockAssert.assertLocked();
+            idle.set(aipUpdateService.scheduleJobs().isEmpty());
+        };
+    }
 
     /**
-     * Bulk save queued items every second.
+     * Schedule AIP update jobs for tenants that have pending update requests or were signaled.<br/>
+     * Tenants without work are skipped with an increasing delay until new requests are signaled.
      */
     @Scheduled(initialDelayString = DEFAULT_INITIAL_DELAY,
             fixedDelayString = "${regards.ingest.aip.update.bulk.delay:" + DEFAULT_SCHEDULING_DELAY + "}")
     protected void scheduleAIPUpdateJobs() {
-        for (String tenant : tenantResolver.getAllActiveTenants()) {
+        for (String tenant : schedulingSignals.getTenantsInTurn(RequestSchedulerType.AIP_UPDATE,
+                                                                tenantResolver.getAllActiveTenants())) {
+            if (!schedulingSignals.shouldRun(RequestSchedulerType.AIP_UPDATE, tenant)) {
+                continue;
+            }
+            // Lock held by another instance means it is already handling requests
+            AtomicBoolean idle = new AtomicBoolean(true);
             try {
                 runtimeTenantResolver.forceTenant(tenant);
                 traceScheduling(tenant, AIP_UPDATE_REQUESTS);
-                lockingTaskExecutors.executeWithLock(aipUpdateTask, new LockConfiguration(AIP_UPDATE_REQUEST_LOCK,
-                                                                                          Instant.now().plusSeconds(
-                                                                                                  MAX_TASK_DELAY)));
+                lockingTaskExecutors.executeWithLock(aipUpdateTask(idle),
+                                                     new LockConfiguration(AIP_UPDATE_REQUEST_LOCK,
+                                                                           Instant.now().plusSeconds(MAX_TASK_DELAY)));
             } catch (Throwable e) {
                 handleSchedulingError(AIP_UPDATE_REQUESTS, AIP_UPDATE_TITLE, e);
             } finally {
+                schedulingSignals.reportRun(RequestSchedulerType.AIP_UPDATE, tenant, idle.get());
                 runtimeTenantResolver.clearTenant();
             }
         }
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2017-2020 CNES - CENTRE NATIONAL d'ETUDES SPATIALES
+ *
+ * This file is part of REGARDS.
+ *
+ * REGARDS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * REGARDS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with REGARDS. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.cnes.regards.modules.ingest.service.schedule;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import fr.cnes.regards.framework.multitenant.IRuntimeTenantResolver;
+import fr.cnes.regards.framework.multitenant.ITenantResolver;
+import fr.cnes.regards.modules.ingest.service.metrics.IngestMetrics;
+import fr.cnes.regards.modules.ingest.service.request.IRequestService;
+import static fr.cnes.regards.modules.ingest.service.schedule.SchedulerConstant.*;
+
+/**
+ * Periodically refresh request count gauges of {@link IngestMetrics} for each tenant.
+ * Each instance exposes its own gauges so no lock is required.
+ *
+ * @author Sébastien Binda
+ */
+@Profile("!noscheduler")
+@Component
+public class IngestMetricsScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IngestMetricsScheduler.class);
+
+    @Autowired
+    private ITenantResolver tenantResolver;
+
+    @Autowired
+    private IRuntimeTenantResolver runtimeTenantResolver;
+
+    @Autowired
+    private IRequestService requestService;
+
+    @Autowired
+    private IngestMetrics ingestMetrics;
+
+    @Scheduled(initialDelayString = DEFAULT_INITIAL_DELAY,
+            fixedDelayString = "${regards.ingest.metrics.requests.refresh.delay:60000}")
+    protected void refreshRequestCounts() {
+        for (String tenant : tenantResolver.getAllActiveTenants()) {
+            try {
+                runtimeTenantResolver.forceTenant(tenant);
+                ingestMetrics.updateRequestCounts(requestService.countByStateAndType());
+            } catch (Exception e) {
+                LOGGER.error(String.format("Error while refreshing request metrics of tenant %s", tenant), e);
+            } finally {
+                runtimeTenantResolver.clearTenant();
+            }
+        }
+    }
+}
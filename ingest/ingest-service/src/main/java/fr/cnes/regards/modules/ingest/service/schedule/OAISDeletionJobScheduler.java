@@ -19,6 +19,7 @@
 package fr.cnes.regards.modules.ingest.service.schedule;
 
 import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,6 +32,7 @@ import fr.cnes.regards.framework.jpa.multitenant.lock.AbstractTaskScheduler;
 import fr.cnes.regards.framework.jpa.multitenant.lock.LockingTaskExecutors;
 import fr.cnes.regards.framework.multitenant.IRuntimeTenantResolver;
 import fr.cnes.regards.framework.multitenant.ITenantResolver;
+import fr.cnes.regards.modules.ingest.domain.request.RequestSchedulerType;
 import fr.cnes.regards.modules.ingest.domain.request.deletion.OAISDeletionRequest;
 import fr.cnes.regards.modules.ingest.service.aip.AIPDeletionService;
 import fr.cnes.regards.modules.ingest.service.job.OAISDeletionsCreatorJob;
@@ -64,30 +66,44 @@ public class OAISDeletionJobScheduler extends AbstractTaskScheduler {
     @Autowired
     private LockingTaskExecutors lockingTaskExecutors;
 
+    @Autowired
+    private RequestSchedulingSignals schedulingSignals;
+
     /**
      * OAIS Deletion Task
+     * @param idle set to true if no job has been scheduled
      */
-    private final Task aipDeletionTask = () -> {
-        LockAssert.assertLocked();
-        aipDeletionService.scheduleJob();
-    };
+    private Task aipDeletionTask(AtomicBoolean idle) {
+        return () -> {
+            LockAssert.assertLocked();
+            idle.set(aipDeletionService.scheduleJobs().isEmpty());
+        };
+    }
 
     /**
-     * Bulk save queued items every second.
+     * Schedule OAIS deletion jobs for tenants that have pending deletion requests or were signaled.<br/>
+     * Tenants without work are skipped with an increasing delay until new requests are signaled.
      */
     @Scheduled(initialDelayString = DEFAULT_INITIAL_DELAY,
             fixedDelayString = "${regards.ingest.aip.delete.bulk.delay:" + DEFAULT_SCHEDULING_DELAY + "}")
     protected void scheduleOAISDeletionJobs() {
-        for (String tenant : tenantResolver.getAllActiveTenants()) {
+        for (String tenant : schedulingSignals.getTenantsInTurn(RequestSchedulerType.AIP_DELETION,
+                                                                tenantResolver.getAllActiveTenants())) {
+            if (!schedulingSignals.shouldRun(RequestSchedulerType.AIP_DELETION, tenant)) {
+                continue;
+            }
+            // Lock held by another instance means it is already handling requests
+            AtomicBoolean idle = new AtomicBoolean(true);
             try {
                 runtimeTenantResolver.forceTenant(tenant);
                 traceScheduling(tenant, AIP_DELETION_REQUESTS);
-                lockingTaskExecutors.executeWithLock(aipDeletionTask, new LockConfiguration(AIP_DELETION_REQUEST_LOCK,
-                                                                                            Instant.now().plusSeconds(
-                                                                                                    MAX_TASK_DELAY)));
+                lockingTaskExecutors.executeWithLock(aipDeletionTask(idle),
+                                                     new LockConfiguration(AIP_DELETION_REQUEST_LOCK,
+                                                                           Instant.now().plusSeconds(MAX_TASK_DELAY)));
             } catch (Throwable e) {
                 handleSchedulingError(AIP_DELETION_REQUESTS, AIP_DELETION_TITLE, e);
             } finally {
+                schedulingSignals.reportRun(RequestSchedulerType.AIP_DELETION, tenant, idle.get());
                 runtimeTenantResolver.clearTenant();
             }
         }
@@ -19,6 +19,7 @@
 package fr.cnes.regards.modules.ingest.service.schedule;
 
 import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,7 +33,9 @@ import fr.cnes.regards.framework.jpa.multitenant.lock.AbstractTaskScheduler;
 import fr.cnes.regards.framework.jpa.multitenant.lock.LockingTaskExecutors;
 import fr.cnes.regards.framework.multitenant.IRuntimeTenantResolver;
 import fr.cnes.regards.framework.multitenant.ITenantResolver;
+import fr.cnes.regards.modules.ingest.domain.request.RequestSchedulerType;
 import fr.cnes.regards.modules.ingest.dto.request.RequestTypeEnum;
+import fr.cnes.regards.modules.ingest.service.request.IIngestRequestService;
 import fr.cnes.regards.modules.ingest.service.request.IRequestService;
 import static fr.cnes.regards.modules.ingest.service.schedule.SchedulerConstant.*;
 import net.javacrumbs.shedlock.core.LockAssert;
@@ -40,7 +43,9 @@ import net.javacrumbs.shedlock.core.LockConfiguration;
 import net.javacrumbs.shedlock.core.LockingTaskExecutor.Task;
 
 /**
- * Scheduler to periodically check if there is some pending request that can be scheduled
+ * Scheduler to periodically check if there is some pending request that can be scheduled.
+ * Blocked requests are unblocked and ingest requests waiting for an ingest processing job slot are scheduled.
+ * Tenants without such requests are skipped until they are signaled by {@link RequestSchedulingSignals}.
  *
  * NOTE : Number of parallel schedule execution is defined by spring configuration property regards.scheduler.pool.size.
  *
@@ -62,30 +67,50 @@ public class RequestPendingScheduler extends AbstractTaskScheduler {
     @Autowired
     private IRequestService requestService;
 
+    @Autowired
+    private IIngestRequestService ingestRequestService;
+
     @Autowired
     private LockingTaskExecutors lockingTaskExecutors;
 
-    private final Task unlockRequestsTask = () -> {
-        LockAssert.assertLocked();
-        requestService.unblockRequests(RequestTypeEnum.AIP_UPDATES_CREATOR);
-        requestService.unblockRequests(RequestTypeEnum.OAIS_DELETION);
-        requestService.unblockRequests(RequestTypeEnum.OAIS_DELETION_CREATOR);
-        requestService.unblockRequests(RequestTypeEnum.UPDATE);
-    };
+    @Autowired
+    private RequestSchedulingSignals schedulingSignals;
+
+    /**
+     * @param idle set to true if no request has been unblocked
+     */
+    private Task unlockRequestsTask(AtomicBoolean idle) {
+        return () -> {
+            LockAssert.assertLocked();
+            int nbUnblocked = requestService.unblockRequests(RequestTypeEnum.AIP_UPDATES_CREATOR);
+            nbUnblocked += requestService.unblockRequests(RequestTypeEnum.OAIS_DELETION);
+            nbUnblocked += requestService.unblockRequests(RequestTypeEnum.OAIS_DELETION_CREATOR);
+            nbUnblocked += requestService.unblockRequests(RequestTypeEnum.UPDATE);
+            nbUnblocked += ingestRequestService.scheduleWaitingRequests();
+            idle.set(nbUnblocked == 0);
+        };
+    }
 
     @Scheduled(initialDelayString = "${regards.ingest.schedule.pending.initial.delay:" + DEFAULT_INITIAL_DELAY + "}",
             fixedDelayString = "${regards.ingest.schedule.pending.delay:" + DEFAULT_SCHEDULING_DELAY + "}")
     public void scheduleUpdateRequests() {
-        for (String tenant : tenantResolver.getAllActiveTenants()) {
+        for (String tenant : schedulingSignals.getTenantsInTurn(RequestSchedulerType.REQUEST_PENDING,
+                                                                tenantResolver.getAllActiveTenants())) {
+            if (!schedulingSignals.shouldRun(RequestSchedulerType.REQUEST_PENDING, tenant)) {
+                continue;
+            }
+            // Lock held by another instance means it is already handling requests
+            AtomicBoolean idle = new AtomicBoolean(true);
             try {
                 runtimeTenantResolver.forceTenant(tenant);
                 traceScheduling(tenant, UNLOCK_ACTIONS);
-                lockingTaskExecutors.executeWithLock(unlockRequestsTask,
+                lockingTaskExecutors.executeWithLock(unlockRequestsTask(idle),
                                                      new LockConfiguration(UNLOCK_REQ_SCHEDULER_LOCK,
                                                                            Instant.now().plusSeconds(120)));
             } catch (Throwable e) {
                 handleSchedulingError(UNLOCK_ACTIONS, UNLOCK_TITLE, e);
             } finally {
+                schedulingSignals.reportRun(RequestSchedulerType.REQUEST_PENDING, tenant, idle.get());
                 runtimeTenantResolver.clearTenant();
             }
         }
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2017-2020 CNES - CENTRE NATIONAL d'ETUDES SPATIALES
+ *
+ * This file is part of REGARDS.
+ *
+ * REGARDS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * REGARDS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with REGARDS. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.cnes.regards.modules.ingest.service.schedule;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import fr.cnes.regards.framework.amqp.IPublisher;
+import fr.cnes.regards.framework.amqp.ISubscriber;
+import fr.cnes.regards.framework.amqp.domain.IHandler;
+import fr.cnes.regards.framework.amqp.domain.TenantWrapper;
+import fr.cnes.regards.framework.multitenant.IRuntimeTenantResolver;
+import fr.cnes.regards.modules.ingest.domain.request.RequestSchedulerType;
+import fr.cnes.regards.modules.ingest.domain.request.RequestSchedulingEvent;
+
+/**
+ * Decide for each request scheduler and tenant whether the current tick has to run.<br/>
+ * A scheduler runs at each tick as long as it finds some work. Once idle, it waits for an exponentially growing delay,
+ * from regards.ingest.schedule.idle.min.delay up to regards.ingest.schedule.idle.max.delay, unless it is signaled.
+ * Signals are sent when requests are waiting for a scheduler, after the commit of the current transaction, to this
+ * instance and to the other ones with a {@link RequestSchedulingEvent}.<br/>
+ * Tenants are handled in round-robin so that the same tenants are not always served first.
+ *
+ * @author Sébastien Binda
+ */
+@Component
+public class RequestSchedulingSignals
+        implements IHandler<RequestSchedulingEvent>, ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RequestSchedulingSignals.class);
+
+    @Value("${regards.ingest.schedule.idle.min.delay:2000}")
+    private long minIdleDelay;
+
+    @Value("${regards.ingest.schedule.idle.max.delay:30000}")
+    private long maxIdleDelay;
+
+    @Autowired
+    private IRuntimeTenantResolver runtimeTenantResolver;
+
+    @Autowired
+    private IPublisher publisher;
+
+    @Autowired
+    private ISubscriber subscriber;
+
+    /**
+     * Scheduling state by scheduler and tenant
+     */
+    private final Map<RequestSchedulerType, Map<String, SchedulingState>> states = new ConcurrentHashMap<>();
+
+    /**
+     * Number of ticks by scheduler, used to rotate tenants
+     */
+    private final Map<RequestSchedulerType, AtomicInteger> ticks = new ConcurrentHashMap<>();
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        subscriber.subscribeTo(RequestSchedulingEvent.class, this);
+    }
+
+    @Override
+    public void handle(TenantWrapper<RequestSchedulingEvent> wrapper) {
+        wakeUp(wrapper.getTenant(), wrapper.getContent().getSchedulers());
+    }
+
+    /**
+     * Signal that some requests of the current tenant are waiting for the given scheduler.<br/>
+     * Within a transaction, signals are grouped and only sent after commit.
+     */
+    public void signal(RequestSchedulerType scheduler) {
+        String tenant = runtimeTenantResolver.getTenant();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager
+                    .getSynchronizations()) {
+                if ((synchronization instanceof SignalSynchronization)
+                        && ((SignalSynchronization) synchronization).accept(this, tenant)) {
+                    ((SignalSynchronization) synchronization).schedulers.add(scheduler);
+                    return;
+                }
+            }
+            SignalSynchronization synchronization = new SignalSynchronization(tenant);
+            synchronization.schedulers.add(scheduler);
+            TransactionSynchronizationManager.registerSynchronization(synchronization);
+        } else {
+            send(tenant, EnumSet.of(scheduler));
+        }
+    }
+
+    private void send(String tenant, Set<RequestSchedulerType> schedulers) {
+        wakeUp(tenant, schedulers);
+        publisher.publish(new RequestSchedulingEvent(schedulers));
+    }
+
+    /**
+     * Make the given schedulers run at their next tick for the given tenant
+     */
+    public void wakeUp(String tenant, Collection<RequestSchedulerType> schedulers) {
+        for (RequestSchedulerType scheduler : schedulers) {
+            LOGGER.trace("[{}] Waking up {} scheduler", tenant, scheduler);
+            getState(scheduler, tenant).signaled = true;
+        }
+    }
+
+    /**
+     * @return given tenants in the order the given scheduler has to handle them during the current tick, starting
+     *         one tenant further at each tick
+     */
+    public List<String> getTenantsInTurn(RequestSchedulerType scheduler, Collection<String> tenants) {
+        List<String> orderedTenants = new ArrayList<>(new TreeSet<>(tenants));
+        if (!orderedTenants.isEmpty()) {
+            int tick = ticks.computeIfAbsent(scheduler, s -> new AtomicInteger()).getAndIncrement();
+            Collections.rotate(orderedTenants, -Math.floorMod(tick, orderedTenants.size()));
+        }
+        return orderedTenants;
+    }
+
+    /**
+     * @return true if the given scheduler has to run for the given tenant during the current tick
+     */
+    public boolean shouldRun(RequestSchedulerType scheduler, String tenant) {
+        SchedulingState state = getState(scheduler, tenant);
+        if (state.signaled) {
+            // Consume signal before running so that a signal sent during the run triggers the next tick
+            state.signaled = false;
+            return true;
+        }
+        return System.currentTimeMillis() >= state.nextRunTime;
+    }
+
+    /**
+     * Report the result of a run of the given scheduler for the given tenant
+     * @param idle true if the scheduler did not find any work
+     */
+    public void reportRun(RequestSchedulerType scheduler, String tenant, boolean idle) {
+        SchedulingState state = getState(scheduler, tenant);
+        if (idle) {
+            state.idleDelay = state.idleDelay == 0 ? minIdleDelay : Math.min(state.idleDelay * 2, maxIdleDelay);
+            state.nextRunTime = System.currentTimeMillis() + state.idleDelay;
+        } else {
+            state.idleDelay = 0;
+            state.nextRunTime = 0;
+        }
+    }
+
+    private SchedulingState getState(RequestSchedulerType scheduler, String tenant) {
+        return states.computeIfAbsent(scheduler, s -> new ConcurrentHashMap<>())
+                .computeIfAbsent(tenant, t -> new SchedulingState());
+    }
+
+    private static class SchedulingState {
+
+        private volatile boolean signaled;
+
+        private volatile long nextRunTime;
+
+        private volatile long idleDelay;
+    }
+
+    /**
+     * Collect the signals of a transaction and send them once it is committed
+     */
+    private class SignalSynchronization extends TransactionSynchronizationAdapter {
+
+        private final String tenant;
+
+        private final Set<RequestSchedulerType> schedulers = EnumSet.noneOf(RequestSchedulerType.class);
+
+        private SignalSynchronization(String tenant) {
+            this.tenant = tenant;
+        }
+
+        private boolean accept(RequestSchedulingSignals signals, String tenant) {
+            return (signals == RequestSchedulingSignals.this) && this.tenant.equals(tenant);
+        }
+
+        @Override
+        public void afterCommit() {
+            send(tenant, schedulers);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2017-2020 CNES - CENTRE NATIONAL d'ETUDES SPATIALES
+ *
+ * This file is part of REGARDS.
+ *
+ * REGARDS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * REGARDS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with REGARDS. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.cnes.regards.modules.ingest.service.schedule;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import fr.cnes.regards.modules.ingest.service.session.SessionNotifier;
+import static fr.cnes.regards.modules.ingest.service.schedule.SchedulerConstant.*;
+
+/**
+ * Periodically notify session deltas accumulated by the {@link SessionNotifier} when notification is deferred.
+ * Deltas are held in memory by each instance so no lock is required.
+ *
+ * @author Sébastien Binda
+ */
+@Profile("!noscheduler")
+@Component
+public class SessionNotificationScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SessionNotificationScheduler.class);
+
+    @Autowired
+    private SessionNotifier sessionNotifier;
+
+    @Scheduled(initialDelayString = DEFAULT_INITIAL_DELAY,
+            fixedDelayString = "${regards.ingest.session.notification.flush.delay:" + DEFAULT_SCHEDULING_DELAY + "}")
+    protected void flushSessionNotifications() {
+        try {
+            sessionNotifier.flush();
+        } catch (Exception e) {
+            LOGGER.error("Error while notifying session deltas", e);
+        }
+    }
+}
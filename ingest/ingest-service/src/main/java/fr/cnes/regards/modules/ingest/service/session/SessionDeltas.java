@@ -0,0 +1,134 @@
+/*
+ * Copyright 2017-2020 CNES - CENTRE NATIONAL d'ETUDES SPATIALES
+ *
+ * This file is part of REGARDS.
+ *
+ * REGARDS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * REGARDS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with REGARDS. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.cnes.regards.modules.ingest.service.session;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import fr.cnes.regards.modules.sessionmanager.domain.event.SessionNotificationState;
+
+/**
+ * Net deltas of session properties, accumulated before being notified.<br/>
+ * Increments and decrements of a same session property cancel each other out.
+ * Thread-safe : counters are updated and drained atomically per key, with the lock striping of
+ * {@link ConcurrentHashMap}.
+ *
+ * @author Sébastien Binda
+ */
+class SessionDeltas {
+
+    private final Map<Key, Integer> deltas = new ConcurrentHashMap<>();
+
+    void add(Key key, int delta) {
+        deltas.merge(key, delta, Integer::sum);
+    }
+
+    boolean isEmpty() {
+        return deltas.isEmpty();
+    }
+
+    /**
+     * Move all deltas of this accumulator to the given one
+     */
+    void drainTo(SessionDeltas target) {
+        drain(target::add);
+    }
+
+    /**
+     * Remove accumulated deltas and give non null ones to the consumer
+     */
+    void drain(DeltaConsumer consumer) {
+        for (Key key : deltas.keySet()) {
+            Integer delta = deltas.remove(key);
+            if ((delta != null) && (delta != 0)) {
+                consumer.accept(key, delta);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface DeltaConsumer {
+
+        void accept(Key key, int delta);
+    }
+
+    /**
+     * Session property of a tenant
+     */
+    static final class Key {
+
+        private final String tenant;
+
+        private final String sessionOwner;
+
+        private final String session;
+
+        private final String property;
+
+        private final SessionNotificationState state;
+
+        Key(String tenant, String sessionOwner, String session, String property, SessionNotificationState state) {
+            this.tenant = tenant;
+            this.sessionOwner = sessionOwner;
+            this.session = session;
+            this.property = property;
+            this.state = state;
+        }
+
+        String getTenant() {
+            return tenant;
+        }
+
+        String getSessionOwner() {
+            return sessionOwner;
+        }
+
+        String getSession() {
+            return session;
+        }
+
+        String getProperty() {
+            return property;
+        }
+
+        SessionNotificationState getState() {
+            return state;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if ((o == null) || (getClass() != o.getClass())) {
+                return false;
+            }
+            Key key = (Key) o;
+            return Objects.equals(tenant, key.tenant) && Objects.equals(sessionOwner, key.sessionOwner)
+                    && Objects.equals(session, key.session) && Objects.equals(property, key.property)
+                    && (state == key.state);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tenant, sessionOwner, session, property, state);
+        }
+    }
+}
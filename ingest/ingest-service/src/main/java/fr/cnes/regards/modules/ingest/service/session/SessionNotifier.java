@@ -1,6 +1,7 @@
 package fr.cnes.regards.modules.ingest.service.session;
 
 import java.util.Collection;
+import java.util.Objects;
 import java.util.Optional;
 
 import javax.annotation.PostConstruct;
@@ -9,8 +10,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import fr.cnes.regards.framework.jpa.multitenant.transactional.MultitenantTransactional;
+import fr.cnes.regards.framework.multitenant.IRuntimeTenantResolver;
 import fr.cnes.regards.modules.ingest.dao.IAIPPostProcessRequestRepository;
 import fr.cnes.regards.modules.ingest.dao.IIngestRequestRepository;
 import fr.cnes.regards.modules.ingest.domain.aip.AIPEntity;
@@ -18,9 +24,15 @@ import fr.cnes.regards.modules.ingest.domain.request.AbstractRequest;
 import fr.cnes.regards.modules.ingest.domain.request.InternalRequestState;
 import fr.cnes.regards.modules.ingest.domain.request.ingest.IngestRequest;
 import fr.cnes.regards.modules.ingest.domain.request.postprocessing.AIPPostProcessRequest;
+import fr.cnes.regards.modules.ingest.service.conf.IngestConfigurationProperties;
 import fr.cnes.regards.modules.sessionmanager.client.ISessionNotificationClient;
 import fr.cnes.regards.modules.sessionmanager.domain.event.SessionNotificationState;
 
+/**
+ * Notify session manager of product and request counters.<br/>
+ * Counter changes are coalesced into net deltas per session property and notified once per transaction commit,
+ * or periodically if notification is deferred (see {@link IngestConfigurationProperties}).
+ */
 @Service
 @MultitenantTransactional
 public class SessionNotifier {
@@ -65,16 +77,35 @@ public class SessionNotifier {
     @Autowired
     private IAIPPostProcessRequestRepository aipPostProcessRequestRepository;
 
+    @Autowired
+    private IRuntimeTenantResolver runtimeTenantResolver;
+
+    @Autowired
+    private IngestConfigurationProperties confProperties;
+
+    /**
+     * Deltas committed but not notified yet, only used when notification is deferred
+     */
+    private final SessionDeltas committedDeltas = new SessionDeltas();
+
     @PostConstruct
     public void init() {
         sessionNotificationClient.setStep(SESSION_NOTIF_STEP);
     }
 
+    /**
+     * Notify session deltas committed since last flush. Only useful when notification is deferred.
+     */
+    @MultitenantTransactional(propagation = Propagation.NOT_SUPPORTED)
+    public void flush() {
+        committedDeltas.drain(this::notifyDelta);
+    }
+
     // Product count
 
     public void incrementProductCount(IngestRequest request, int nbProducts) {
-        sessionNotificationClient.increment(request.getSessionOwner(), request.getSession(), PRODUCT_COUNT,
-                                  SessionNotificationState.OK, nbProducts);
+        increment(request.getSessionOwner(), request.getSession(), PRODUCT_COUNT, SessionNotificationState.OK,
+                  nbProducts);
     }
 
     public void incrementProductCount(IngestRequest request) {
@@ -82,37 +113,34 @@ public class SessionNotifier {
     }
 
     public void decrementProductCount(IngestRequest request) {
-        sessionNotificationClient.decrement(request.getSessionOwner(), request.getSession(), PRODUCT_COUNT,
-                                  SessionNotificationState.OK, 1);
+        decrement(request.getSessionOwner(), request.getSession(), PRODUCT_COUNT, SessionNotificationState.OK, 1);
     }
 
     // AIP generation
 
     public void incrementProductGenerationPending(IngestRequest request) {
-        sessionNotificationClient.increment(request.getSessionOwner(), request.getSession(), PRODUCT_GEN_PENDING,
-                                  SessionNotificationState.OK, 1);
+        increment(request.getSessionOwner(), request.getSession(), PRODUCT_GEN_PENDING, SessionNotificationState.OK, 1);
     }
 
     public void decrementProductGenerationPending(IngestRequest request) {
-        sessionNotificationClient.decrement(request.getSessionOwner(), request.getSession(), PRODUCT_GEN_PENDING,
-                                  SessionNotificationState.OK, 1);
+        decrement(request.getSessionOwner(), request.getSession(), PRODUCT_GEN_PENDING, SessionNotificationState.OK, 1);
     }
 
     public void incrementProductGenerationError(IngestRequest request) {
-        sessionNotificationClient.increment(request.getSessionOwner(), request.getSession(), PRODUCT_GEN_ERROR,
-                                  SessionNotificationState.ERROR, 1);
+        increment(request.getSessionOwner(), request.getSession(), PRODUCT_GEN_ERROR, SessionNotificationState.ERROR,
+                  1);
     }
 
     public void decrementProductGenerationError(IngestRequest request) {
-        sessionNotificationClient.decrement(request.getSessionOwner(), request.getSession(), PRODUCT_GEN_ERROR,
-                                  SessionNotificationState.ERROR, 1);
+        decrement(request.getSessionOwner(), request.getSession(), PRODUCT_GEN_ERROR, SessionNotificationState.ERROR,
+                  1);
     }
 
     // File storage
 
     public void incrementProductStorePending(IngestRequest request) {
-        sessionNotificationClient.increment(request.getSessionOwner(), request.getSession(), PRODUCT_STORE_PENDING,
-                                  SessionNotificationState.OK, request.getAips().size());
+        increment(request.getSessionOwner(), request.getSession(), PRODUCT_STORE_PENDING, SessionNotificationState.OK,
+                  request.getAips().size());
         // Synchronize number of products according to available AIP(s)
         if (request.getAips().size() > 1) {
             // Increment number of total products (case of one SIP for many AIPs)
@@ -123,92 +151,90 @@ public class SessionNotifier {
     }
 
     public void decrementProductStorePending(IngestRequest request) {
-        sessionNotificationClient.decrement(request.getSessionOwner(), request.getSession(), PRODUCT_STORE_PENDING,
-                                  SessionNotificationState.OK, request.getAips().size());
+        decrement(request.getSessionOwner(), request.getSession(), PRODUCT_STORE_PENDING, SessionNotificationState.OK,
+                  request.getAips().size());
     }
 
     public void decrementProductStore(IngestRequest request) {
-        sessionNotificationClient.decrement(request.getSessionOwner(), request.getSession(), PRODUCT_STORED,
-                                  SessionNotificationState.OK, request.getAips().size());
+        decrement(request.getSessionOwner(), request.getSession(), PRODUCT_STORED, SessionNotificationState.OK,
+                  request.getAips().size());
     }
 
     public void incrementProductStoreSuccess(IngestRequest request) {
-        sessionNotificationClient.increment(request.getSessionOwner(), request.getSession(), PRODUCT_STORED,
-                                  SessionNotificationState.OK, request.getAips().size());
+        increment(request.getSessionOwner(), request.getSession(), PRODUCT_STORED, SessionNotificationState.OK,
+                  request.getAips().size());
     }
 
     public void incrementProductStoreError(IngestRequest request) {
-        sessionNotificationClient.increment(request.getSessionOwner(), request.getSession(), PRODUCT_STORE_ERROR,
-                                  SessionNotificationState.ERROR, request.getAips().size());
+        increment(request.getSessionOwner(), request.getSession(), PRODUCT_STORE_ERROR, SessionNotificationState.ERROR,
+                  request.getAips().size());
     }
 
     public void decrementProductStoreError(IngestRequest request) {
-        sessionNotificationClient.decrement(request.getSessionOwner(), request.getSession(), PRODUCT_STORE_ERROR,
-                                  SessionNotificationState.ERROR, request.getAips().size());
+        decrement(request.getSessionOwner(), request.getSession(), PRODUCT_STORE_ERROR, SessionNotificationState.ERROR,
+                  request.getAips().size());
     }
 
     public void incrementProductIgnored(IngestRequest request) {
         if (request.getState() == InternalRequestState.IGNORED) {
             this.decrementProductGenerationPending(request);
-            sessionNotificationClient.increment(request.getSessionOwner(), request.getSession(), PRODUCT_IGNORED,
-                                      SessionNotificationState.OK, 1);
+            increment(request.getSessionOwner(), request.getSession(), PRODUCT_IGNORED, SessionNotificationState.OK, 1);
         }
     }
 
     public void incrementNewProductVersion(AIPEntity aipEntity) {
-        sessionNotificationClient.increment(aipEntity.getSessionOwner(), aipEntity.getSession(), NEW_PRODUCT_VERSIONS,
-                                  SessionNotificationState.OK, 1);
+        increment(aipEntity.getSessionOwner(), aipEntity.getSession(), NEW_PRODUCT_VERSIONS,
+                  SessionNotificationState.OK, 1);
     }
 
     public void incrementProductReplace(AIPEntity aipEntity) {
-        sessionNotificationClient.increment(aipEntity.getSessionOwner(), aipEntity.getSession(), PRODUCT_REPLACED,
-                                  SessionNotificationState.OK, 1);
+        increment(aipEntity.getSessionOwner(), aipEntity.getSession(), PRODUCT_REPLACED, SessionNotificationState.OK,
+                  1);
     }
 
     public void incrementProductWaitingVersioningMode(IngestRequest request) {
         if (request.getState() == InternalRequestState.WAITING_VERSIONING_MODE) {
             this.decrementProductGenerationPending(request);
-            sessionNotificationClient.increment(request.getSessionOwner(), request.getSession(), PRODUCT_WAITING_VERSIONING_MODE,
-                                      SessionNotificationState.OK, 1);
+            increment(request.getSessionOwner(), request.getSession(), PRODUCT_WAITING_VERSIONING_MODE,
+                      SessionNotificationState.OK, 1);
         }
     }
 
     public void decrementProductWaitingVersioningMode(IngestRequest request) {
         if (request.getState() == InternalRequestState.WAITING_VERSIONING_MODE) {
-            sessionNotificationClient.decrement(request.getSessionOwner(), request.getSession(), PRODUCT_WAITING_VERSIONING_MODE,
-                                      SessionNotificationState.OK, 1);
+            decrement(request.getSessionOwner(), request.getSession(), PRODUCT_WAITING_VERSIONING_MODE,
+                      SessionNotificationState.OK, 1);
         }
     }
 
     // Post Process
 
     public void incrementPostProcessPending(AIPPostProcessRequest request) {
-        sessionNotificationClient.increment(request.getSessionOwner(), request.getSession(), POST_PROCESS_PENDING,
-                                  SessionNotificationState.OK, 1);
+        increment(request.getSessionOwner(), request.getSession(), POST_PROCESS_PENDING, SessionNotificationState.OK,
+                  1);
     }
 
     public void incrementPostProcessSuccess(AIPPostProcessRequest request) {
-        sessionNotificationClient.increment(request.getSessionOwner(), request.getSession(), POST_PROCESS_SUCCESS,
-                                  SessionNotificationState.OK, 1);
-        sessionNotificationClient.decrement(request.getSessionOwner(), request.getSession(), POST_PROCESS_PENDING,
-                                  SessionNotificationState.OK, 1);
+        increment(request.getSessionOwner(), request.getSession(), POST_PROCESS_SUCCESS, SessionNotificationState.OK,
+                  1);
+        decrement(request.getSessionOwner(), request.getSession(), POST_PROCESS_PENDING, SessionNotificationState.OK,
+                  1);
     }
 
     public void incrementPostProcessError(AIPPostProcessRequest request) {
-        sessionNotificationClient.increment(request.getSessionOwner(), request.getSession(), POST_PROCESS_ERROR,
-                                  SessionNotificationState.ERROR, 1);
-        sessionNotificationClient.decrement(request.getSessionOwner(), request.getSession(), POST_PROCESS_PENDING,
-                                  SessionNotificationState.OK, 1);
+        increment(request.getSessionOwner(), request.getSession(), POST_PROCESS_ERROR, SessionNotificationState.ERROR,
+                  1);
+        decrement(request.getSessionOwner(), request.getSession(), POST_PROCESS_PENDING, SessionNotificationState.OK,
+                  1);
     }
 
     public void decrementPostProcessError(AIPPostProcessRequest request) {
-        sessionNotificationClient.decrement(request.getSessionOwner(), request.getSession(), POST_PROCESS_ERROR,
-                                  SessionNotificationState.OK, 1);
+        decrement(request.getSessionOwner(), request.getSession(), POST_PROCESS_ERROR, SessionNotificationState.OK, 1);
     }
 
     public void decrementPostProcessPending(AIPPostProcessRequest request) {
-        sessionNotificationClient.decrement(request.getSessionOwner(), request.getSession(), POST_PROCESS_PENDING,
-                                  SessionNotificationState.OK, 1);
+        decrement(request.getSessionOwner(), request.getSession(), POST_PROCESS_PENDING, SessionNotificationState.OK,
+                  1);
     }
 
     // AIP storage
@@ -304,15 +330,107 @@ public class SessionNotifier {
         }
         if ((nbStorePending > 0)) {
             // -x product_storing
-            sessionNotificationClient.decrement(sessionOwner, session, PRODUCT_STORE_PENDING, SessionNotificationState.OK,
-                                      nbStorePending);
+            decrement(sessionOwner, session, PRODUCT_STORE_PENDING, SessionNotificationState.OK, nbStorePending);
         }
         if (nbStored > 0) {
             // -x product_stored
-            sessionNotificationClient.decrement(sessionOwner, session, PRODUCT_STORED, SessionNotificationState.OK, nbStored);
+            decrement(sessionOwner, session, PRODUCT_STORED, SessionNotificationState.OK, nbStored);
+        }
+        decrement(sessionOwner, session, PRODUCT_COUNT, SessionNotificationState.OK, nbGenerated + nbStored);
+    }
+
+    private void increment(String sessionOwner, String session, String property, SessionNotificationState state,
+            int value) {
+        addDelta(sessionOwner, session, property, state, value);
+    }
+
+    private void decrement(String sessionOwner, String session, String property, SessionNotificationState state,
+            int value) {
+        addDelta(sessionOwner, session, property, state, -value);
+    }
+
+    /**
+     * Accumulate net delta of a session property in the current transaction.<br/>
+     * Deltas are notified once, on transaction commit or on next {@link #flush()} if notification is deferred.
+     * Deltas of a rolled back transaction are never notified.
+     */
+    private void addDelta(String sessionOwner, String session, String property, SessionNotificationState state,
+            int delta) {
+        SessionDeltas.Key key = new SessionDeltas.Key(runtimeTenantResolver.getTenant(), sessionOwner, session,
+                property, state);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            getTransactionDeltas().add(key, delta);
+        } else {
+            notifyDelta(key, delta);
+        }
+    }
+
+    /**
+     * Retrieve deltas of the current transaction, registering them for commit on first use
+     */
+    private SessionDeltas getTransactionDeltas() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if ((synchronization instanceof DeltasSynchronization)
+                    && (((DeltasSynchronization) synchronization).getNotifier() == this)) {
+                return ((DeltasSynchronization) synchronization).getDeltas();
+            }
+        }
+        DeltasSynchronization synchronization = new DeltasSynchronization();
+        TransactionSynchronizationManager.registerSynchronization(synchronization);
+        return synchronization.getDeltas();
+    }
+
+    private void notifyDelta(SessionDeltas.Key key, int delta) {
+        String currentTenant = runtimeTenantResolver.getTenant();
+        boolean switchTenant = !Objects.equals(currentTenant, key.getTenant());
+        try {
+            if (switchTenant) {
+                runtimeTenantResolver.forceTenant(key.getTenant());
+            }
+            if (delta > 0) {
+                sessionNotificationClient.increment(key.getSessionOwner(), key.getSession(), key.getProperty(),
+                                                    key.getState(), delta);
+            } else {
+                sessionNotificationClient.decrement(key.getSessionOwner(), key.getSession(), key.getProperty(),
+                                                    key.getState(), -delta);
+            }
+        } finally {
+            if (switchTenant) {
+                if (currentTenant == null) {
+                    runtimeTenantResolver.clearTenant();
+                } else {
+                    runtimeTenantResolver.forceTenant(currentTenant);
+                }
+            }
         }
-        sessionNotificationClient.decrement(sessionOwner, session, PRODUCT_COUNT, SessionNotificationState.OK,
-                                  nbGenerated + nbStored);
     }
 
+    /**
+     * Notify net deltas of a transaction when it commits
+     */
+    private class DeltasSynchronization extends TransactionSynchronizationAdapter {
+
+        private final SessionDeltas deltas = new SessionDeltas();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            // Notify inside the transaction, as notifications were sent before coalescing
+            if (!confProperties.isSessionNotificationDeferred()) {
+                deltas.drain(SessionNotifier.this::notifyDelta);
+            }
+        }
+
+        @Override
+        public void afterCommit() {
+            deltas.drainTo(committedDeltas);
+        }
+
+        SessionNotifier getNotifier() {
+            return SessionNotifier.this;
+        }
+
+        SessionDeltas getDeltas() {
+            return deltas;
+        }
+    }
 }
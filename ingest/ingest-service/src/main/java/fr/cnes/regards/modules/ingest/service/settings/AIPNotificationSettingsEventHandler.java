@@ -0,0 +1,54 @@
+/*
+ * Copyright 2017-2020 CNES - CENTRE NATIONAL d'ETUDES SPATIALES
+ *
+ * This file is part of REGARDS.
+ *
+ * REGARDS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * REGARDS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with REGARDS. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.cnes.regards.modules.ingest.service.settings;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+import fr.cnes.regards.framework.amqp.ISubscriber;
+import fr.cnes.regards.framework.amqp.domain.IHandler;
+import fr.cnes.regards.framework.amqp.domain.TenantWrapper;
+import fr.cnes.regards.modules.ingest.domain.settings.AIPNotificationSettingsEvent;
+
+/**
+ * Handler to evict {@link AIPNotificationSettingsService} cache when settings are updated by any ingest instance
+ * @author Sébastien Binda
+ */
+@Component
+public class AIPNotificationSettingsEventHandler
+        implements ApplicationListener<ApplicationReadyEvent>, IHandler<AIPNotificationSettingsEvent> {
+
+    @Autowired
+    private ISubscriber subscriber;
+
+    @Autowired
+    private AIPNotificationSettingsService notificationSettingsService;
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        subscriber.subscribeTo(AIPNotificationSettingsEvent.class, this);
+    }
+
+    @Override
+    public void handle(TenantWrapper<AIPNotificationSettingsEvent> wrapper) {
+        notificationSettingsService.evictCache(wrapper.getTenant());
+    }
+}
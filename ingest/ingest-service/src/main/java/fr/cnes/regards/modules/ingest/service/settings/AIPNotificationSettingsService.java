@@ -20,6 +20,7 @@
 
 package fr.cnes.regards.modules.ingest.service.settings;
 
+import fr.cnes.regards.framework.amqp.IPublisher;
 import fr.cnes.regards.framework.jpa.multitenant.event.spring.TenantConnectionReady;
 import fr.cnes.regards.framework.jpa.multitenant.transactional.MultitenantTransactional;
 import fr.cnes.regards.framework.multitenant.IRuntimeTenantResolver;
@@ -27,13 +28,18 @@ import fr.cnes.regards.framework.multitenant.ITenantResolver;
 import fr.cnes.regards.framework.utils.RsRuntimeException;
 import fr.cnes.regards.modules.ingest.dao.IAIPNotificationSettingsRepository;
 import fr.cnes.regards.modules.ingest.domain.settings.AIPNotificationSettings;
+import fr.cnes.regards.modules.ingest.domain.settings.AIPNotificationSettingsEvent;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.context.event.ApplicationStartedEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * see {@link IAIPNotificationSettingsService}
@@ -56,6 +62,14 @@ public class AIPNotificationSettingsService implements IAIPNotificationSettingsS
     @Autowired
     private IAIPNotificationSettingsService self;
 
+    @Autowired
+    private IPublisher publisher;
+
+    /**
+     * Settings by tenant. Settings are read by every request batch and almost never change.
+     */
+    private final Map<String, AIPNotificationSettings> settingsByTenant = new ConcurrentHashMap<>();
+
     @EventListener
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void onApplicationStartedEvent(ApplicationStartedEvent applicationStartedEvent) {
@@ -77,6 +91,7 @@ public class AIPNotificationSettingsService implements IAIPNotificationSettingsS
             // init new settings
             notificationSettingsRepository.save(new AIPNotificationSettings());
         }
+        evictCache(runtimeTenantResolver.getTenant());
     }
 
     @EventListener
@@ -92,8 +107,14 @@ public class AIPNotificationSettingsService implements IAIPNotificationSettingsS
 
     @Override
     public AIPNotificationSettings retrieve() {
-        return notificationSettingsRepository.findFirstBy().orElseThrow(() -> new RsRuntimeException(
-                "Tenant has not been correctly initialized by system!! Go and shout on the devs!"));
+        AIPNotificationSettings settings = settingsByTenant
+                .computeIfAbsent(runtimeTenantResolver.getTenant(), tenant -> notificationSettingsRepository
+                        .findFirstBy().orElseThrow(() -> new RsRuntimeException(
+                                "Tenant has not been correctly initialized by system!! Go and shout on the devs!")));
+        // Cached settings are shared, give a copy to the caller
+        AIPNotificationSettings copy = new AIPNotificationSettings();
+        copy.setActiveNotification(settings.isActiveNotification());
+        return copy;
     }
 
     @Override
@@ -105,6 +126,7 @@ public class AIPNotificationSettingsService implements IAIPNotificationSettingsS
         Optional<AIPNotificationSettings> aipSettingsOpt = notificationSettingsRepository.findById(aipNotificationSettings.getId());
         if (!aipSettingsOpt.isPresent() || !aipSettingsOpt.get().equals(aipNotificationSettings)) {
             notificationSettingsRepository.save(aipNotificationSettings);
+            notifySettingsChange();
         }
     }
 
@@ -112,5 +134,35 @@ public class AIPNotificationSettingsService implements IAIPNotificationSettingsS
     public void resetSettings() {
         notificationSettingsRepository.deleteAll();
         initNotificationSettings();
+        notifySettingsChange();
+    }
+
+    /**
+     * Evict cached settings of the given tenant
+     */
+    public void evictCache(String tenant) {
+        if (tenant != null) {
+            settingsByTenant.remove(tenant);
+        }
+    }
+
+    /**
+     * Evict cached settings of the current tenant on every ingest instance, once the change is committed
+     */
+    private void notifySettingsChange() {
+        String tenant = runtimeTenantResolver.getTenant();
+        evictCache(tenant);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCommit() {
+                    evictCache(tenant);
+                    publisher.publish(new AIPNotificationSettingsEvent());
+                }
+            });
+        } else {
+            publisher.publish(new AIPNotificationSettingsEvent());
+        }
     }
 }
@@ -20,7 +20,11 @@ package fr.cnes.regards.modules.ingest.service.sip;
 
 import java.io.IOException;
 import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -79,6 +83,13 @@ public interface ISIPService {
      */
     SIPEntity save(SIPEntity sip);
 
+    /**
+     * Update the last update date of the given {@link SIPEntity}s and save them all at once
+     * @param sips {@link SIPEntity}s to update
+     * @return {@link SIPEntity}s updated
+     */
+    List<SIPEntity> saveAll(Collection<SIPEntity> sips);
+
     /**
      * Compute checksum for current SIP using {@link SIPService#MD5_ALGORITHM}
      */
@@ -94,6 +105,17 @@ public interface ISIPService {
      */
     Integer getNextVersion(SIP sip);
 
+    /**
+     * Retrieve among given checksums the ones of already stored {@link SIPEntity}s in a set-based way
+     */
+    Set<String> findExistingChecksums(Collection<String> checksums);
+
+    /**
+     * Get current max version of the {@link SIPEntity}s of each given provider id in a set-based way.<br/>
+     * Provider ids without any SIP are not part of the result.
+     */
+    Map<String, Integer> getCurrentVersions(Collection<String> providerIds);
+
     /**
      * Retrieve partial SIP avoiding mutating SIP state that may be mutated on other thread.<br/>
      *
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2017-2020 CNES - CENTRE NATIONAL d'ETUDES SPATIALES
+ *
+ * This file is part of REGARDS.
+ *
+ * REGARDS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * REGARDS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with REGARDS. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.cnes.regards.modules.ingest.service.sip;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import com.google.gson.Gson;
+
+/**
+ * Checksum of the JSON representation of an object.<br/>
+ * Gson output is streamed straight into a {@link MessageDigest} so no intermediate JSON string or byte array is built.
+ * The digest is the one of the bytes of {@link Gson#toJson(Object)} encoded with the default charset.
+ *
+ * @author Sébastien Binda
+ */
+public final class JsonChecksumUtils {
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private JsonChecksumUtils() {
+    }
+
+    /**
+     * Compute the hexadecimal checksum of the JSON representation of the given object
+     * @param gson serializer
+     * @param src object to serialize
+     * @param algorithm {@link MessageDigest} algorithm
+     * @return lower case hexadecimal checksum
+     */
+    public static String computeHexChecksum(Gson gson, Object src, String algorithm)
+            throws NoSuchAlgorithmException, IOException {
+        MessageDigest digest = MessageDigest.getInstance(algorithm);
+        // Same charset as String#getBytes() to keep checksums of already ingested SIPs
+        try (Writer writer = new OutputStreamWriter(newDigestOutputStream(digest), Charset.defaultCharset())) {
+            gson.toJson(src, writer);
+        }
+        return toHex(digest.digest());
+    }
+
+    /**
+     * @param digest digest to update
+     * @return an {@link OutputStream} that only updates the given digest with written bytes
+     */
+    public static OutputStream newDigestOutputStream(MessageDigest digest) {
+        return new DigestingOutputStream(digest);
+    }
+
+    /**
+     * @return lower case hexadecimal representation of the given digest bytes
+     */
+    public static String toHex(byte[] bytes) {
+        char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            hex[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0x0F];
+            hex[(i * 2) + 1] = HEX_DIGITS[bytes[i] & 0x0F];
+        }
+        return new String(hex);
+    }
+
+    /**
+     * {@link OutputStream} only updating a {@link MessageDigest}
+     */
+    private static class DigestingOutputStream extends OutputStream {
+
+        private final MessageDigest digest;
+
+        private DigestingOutputStream(MessageDigest digest) {
+            this.digest = digest;
+        }
+
+        @Override
+        public void write(int b) {
+            digest.update((byte) b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            digest.update(b, off, len);
+        }
+    }
+}
@@ -18,13 +18,16 @@
  */
 package fr.cnes.regards.modules.ingest.service.sip;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.security.NoSuchAlgorithmException;
 import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,10 +36,10 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import com.google.common.collect.Iterables;
 import com.google.gson.Gson;
 
 import fr.cnes.regards.framework.jpa.multitenant.transactional.MultitenantTransactional;
-import fr.cnes.regards.framework.utils.file.ChecksumUtils;
 import fr.cnes.regards.modules.ingest.dao.ILastSIPRepository;
 import fr.cnes.regards.modules.ingest.dao.ISIPRepository;
 import fr.cnes.regards.modules.ingest.dao.SIPEntitySpecifications;
@@ -60,6 +63,11 @@ public class SIPService implements ISIPService {
 
     public static final String MD5_ALGORITHM = "MD5";
 
+    /**
+     * Maximum number of values bound in a single IN clause
+     */
+    private static final int IN_CLAUSE_MAX_SIZE = 1000;
+
     @Autowired
     private Gson gson;
 
@@ -137,11 +145,16 @@ public class SIPService implements ISIPService {
         return sipRepository.save(sip);
     }
 
+    @Override
+    public List<SIPEntity> saveAll(Collection<SIPEntity> sips) {
+        OffsetDateTime now = OffsetDateTime.now();
+        sips.forEach(sip -> sip.setLastUpdate(now));
+        return sipRepository.saveAll(sips);
+    }
+
     @Override
     public String calculateChecksum(SIP sip) throws NoSuchAlgorithmException, IOException {
-        String jsonSip = gson.toJson(sip);
-        InputStream inputStream = new ByteArrayInputStream(jsonSip.getBytes());
-        return ChecksumUtils.computeHexChecksum(inputStream, MD5_ALGORITHM);
+        return JsonChecksumUtils.computeHexChecksum(gson, sip, MD5_ALGORITHM);
     }
 
     @Override
@@ -154,6 +167,25 @@ public class SIPService implements ISIPService {
         return sipRepository.getNextVersion(sip.getId());
     }
 
+    @Override
+    public Set<String> findExistingChecksums(Collection<String> checksums) {
+        Set<String> existing = new HashSet<>();
+        for (List<String> chunk : Iterables.partition(checksums, IN_CLAUSE_MAX_SIZE)) {
+            existing.addAll(sipRepository.findChecksumsIn(chunk));
+        }
+        return existing;
+    }
+
+    @Override
+    public Map<String, Integer> getCurrentVersions(Collection<String> providerIds) {
+        Map<String, Integer> versions = new HashMap<>();
+        for (List<String> chunk : Iterables.partition(providerIds, IN_CLAUSE_MAX_SIZE)) {
+            sipRepository.findMaxVersionByProviderIdIn(chunk)
+                    .forEach(v -> versions.put(v.getProviderId(), v.getVersion()));
+        }
+        return versions;
+    }
+
     @Override
     public ISipIdAndVersion getLatestSip(String providerId) {
         List<ISipIdAndVersion> versions = sipRepository.findByProviderIdAndLast(providerId, true);
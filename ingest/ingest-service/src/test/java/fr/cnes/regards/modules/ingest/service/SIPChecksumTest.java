@@ -18,6 +18,7 @@
  */
 package fr.cnes.regards.modules.ingest.service;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.Reader;
@@ -32,6 +33,7 @@ import org.springframework.test.context.TestPropertySource;
 import com.google.gson.Gson;
 
 import fr.cnes.regards.framework.jpa.multitenant.test.AbstractMultitenantServiceTest;
+import fr.cnes.regards.framework.utils.file.ChecksumUtils;
 import fr.cnes.regards.modules.ingest.dto.sip.SIP;
 import fr.cnes.regards.modules.ingest.service.sip.ISIPService;
 
@@ -59,6 +61,24 @@ public class SIPChecksumTest extends AbstractMultitenantServiceTest {
         Assert.assertEquals(checksum1, checksum2);
     }
 
+    /**
+     * Streamed checksum must be the same as the one computed from the full JSON string
+     */
+    @Test
+    public void testStreamedChecksum() throws IOException, NoSuchAlgorithmException {
+        SIP sip = getSip("SIPV2.json");
+        String legacy = ChecksumUtils.computeHexChecksum(new ByteArrayInputStream(gson.toJson(sip).getBytes()),
+                                                         "MD5");
+        Assert.assertEquals(legacy, sipService.calculateChecksum(sip));
+    }
+
+    private SIP getSip(String filename) throws IOException {
+        try (Reader json = new InputStreamReader(this.getClass().getResourceAsStream(filename),
+                Charset.forName("UTF-8"))) {
+            return gson.fromJson(json, SIP.class);
+        }
+    }
+
     private String getChecksum(String filename) throws NoSuchAlgorithmException, IOException {
         String checksum;
         try (Reader json = new InputStreamReader(this.getClass().getResourceAsStream(filename),
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2017-2020 CNES - CENTRE NATIONAL d'ETUDES SPATIALES
+ *
+ * This file is part of REGARDS.
+ *
+ * REGARDS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * REGARDS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with REGARDS. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.cnes.regards.modules.ingest.service;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.gson.Gson;
+
+import fr.cnes.regards.framework.module.rest.exception.EntityInvalidException;
+import fr.cnes.regards.framework.module.rest.exception.ModuleException;
+import fr.cnes.regards.modules.ingest.dto.sip.IngestMetadataDto;
+import fr.cnes.regards.modules.ingest.dto.sip.SIP;
+
+/**
+ * Test {@link SIPCollectionReader}
+ * @author Sébastien Binda
+ */
+public class SIPCollectionReaderTest {
+
+    private static final String METADATA = "\"metadata\":{\"sessionOwner\":\"owner\",\"session\":\"session\"}";
+
+    private static final String FEATURES = "\"features\":[" + feature("sip1") + ",{\"type\":\"Feature\",\"id\":{}},"
+            + feature("sip3") + "]";
+
+    private final SIPCollectionReader reader = new SIPCollectionReader(new Gson());
+
+    @Test
+    public void readMetadataFirst() throws ModuleException, IOException {
+        List<String> events = read("{\"type\":\"FeatureCollection\"," + METADATA + "," + FEATURES + "}");
+        Assert.assertEquals(4, events.size());
+        Assert.assertEquals("metadata owner", events.get(0));
+        Assert.assertEquals("1 sip1", events.get(1));
+        Assert.assertTrue(events.get(2).startsWith("invalid 2"));
+        Assert.assertEquals("3 sip3", events.get(3));
+    }
+
+    @Test
+    public void readFeaturesFirst() throws ModuleException, IOException {
+        List<String> events = read("{\"type\":\"FeatureCollection\"," + FEATURES + "," + METADATA + "}");
+        Assert.assertEquals(4, events.size());
+        Assert.assertEquals("Metadata must be handed over before SIPs", "metadata owner", events.get(0));
+        Assert.assertEquals("1 sip1", events.get(1));
+        Assert.assertEquals("3 sip3", events.get(3));
+    }
+
+    @Test(expected = EntityInvalidException.class)
+    public void readWithoutMetadata() throws ModuleException, IOException {
+        read("{\"type\":\"FeatureCollection\"," + FEATURES + "}");
+    }
+
+    private List<String> read(String json) throws ModuleException, IOException {
+        List<String> events = new ArrayList<>();
+        reader.read(new StringReader(json), new SIPCollectionReader.Handler() {
+
+            @Override
+            public void onMetadata(IngestMetadataDto metadata) {
+                events.add("metadata " + metadata.getSessionOwner());
+            }
+
+            @Override
+            public void onSIP(int index, SIP sip) {
+                events.add(index + " " + sip.getId());
+            }
+
+            @Override
+            public void onInvalidSIP(int index, String reason) {
+                events.add("invalid " + index + " " + reason);
+            }
+        });
+        return events;
+    }
+
+    private static String feature(String id) {
+        return "{\"type\":\"Feature\",\"id\":\"" + id + "\",\"ipType\":\"DATA\",\"geometry\":null}";
+    }
+}
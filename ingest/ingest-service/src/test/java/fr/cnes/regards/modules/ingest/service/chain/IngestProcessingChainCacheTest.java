@@ -0,0 +1,115 @@
+/*
+ * Copyright 2017-2020 CNES - CENTRE NATIONAL d'ETUDES SPATIALES
+ *
+ * This file is part of REGARDS.
+ *
+ * REGARDS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * REGARDS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with REGARDS. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.cnes.regards.modules.ingest.service.chain;
+
+import java.util.Optional;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import fr.cnes.regards.framework.multitenant.IRuntimeTenantResolver;
+import fr.cnes.regards.modules.ingest.dao.IIngestProcessingChainRepository;
+import fr.cnes.regards.modules.ingest.domain.chain.IngestProcessingChain;
+import fr.cnes.regards.modules.ingest.service.metrics.IngestMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Test {@link IngestProcessingChainCache} lookups and evictions
+ *
+ * @author Sébastien Binda
+ */
+public class IngestProcessingChainCacheTest {
+
+    private static final String TENANT = "PROJECT";
+
+    private static final String CHAIN = "chain";
+
+    private SimpleMeterRegistry registry;
+
+    private IIngestProcessingChainRepository chainRepository;
+
+    private IngestProcessingChainCache cache;
+
+    @Before
+    public void init() {
+        registry = new SimpleMeterRegistry();
+        IRuntimeTenantResolver runtimeTenantResolver = Mockito.mock(IRuntimeTenantResolver.class);
+        Mockito.when(runtimeTenantResolver.getTenant()).thenReturn(TENANT);
+        IngestMetrics ingestMetrics = new IngestMetrics();
+        ReflectionTestUtils.setField(ingestMetrics, "registry", registry);
+        ReflectionTestUtils.setField(ingestMetrics, "runtimeTenantResolver", runtimeTenantResolver);
+
+        IngestProcessingChain chain = new IngestProcessingChain();
+        chain.setName(CHAIN);
+        chainRepository = Mockito.mock(IIngestProcessingChainRepository.class);
+        Mockito.when(chainRepository.findOneByName(CHAIN)).thenReturn(Optional.of(chain));
+        Mockito.when(chainRepository.findOneByName("unknown")).thenReturn(Optional.empty());
+
+        cache = new IngestProcessingChainCache();
+        ReflectionTestUtils.setField(cache, "processingChainRepository", chainRepository);
+        ReflectionTestUtils.setField(cache, "runtimeTenantResolver", runtimeTenantResolver);
+        ReflectionTestUtils.setField(cache, "ingestMetrics", ingestMetrics);
+    }
+
+    @Test
+    public void testChainLoadedOnce() {
+        Assert.assertTrue(cache.getChain(CHAIN).isPresent());
+        Assert.assertTrue(cache.getChain(CHAIN).isPresent());
+        Mockito.verify(chainRepository, Mockito.times(1)).findOneByName(CHAIN);
+        Assert.assertEquals(1, count(IngestProcessingChainCache.CHAIN_CACHE_NAME, "hit"), 0);
+        Assert.assertEquals(1, count(IngestProcessingChainCache.CHAIN_CACHE_NAME, "miss"), 0);
+    }
+
+    @Test
+    public void testUnknownChainNotCached() {
+        Assert.assertFalse(cache.getChain("unknown").isPresent());
+        Assert.assertFalse(cache.getChain("unknown").isPresent());
+        Mockito.verify(chainRepository, Mockito.times(2)).findOneByName("unknown");
+    }
+
+    @Test
+    public void testChainEvicted() {
+        cache.getChain(CHAIN);
+        cache.evict(TENANT, "other");
+        cache.getChain(CHAIN);
+        Mockito.verify(chainRepository, Mockito.times(1)).findOneByName(CHAIN);
+        cache.evict(TENANT, CHAIN);
+        cache.getChain(CHAIN);
+        Mockito.verify(chainRepository, Mockito.times(2)).findOneByName(CHAIN);
+    }
+
+    @Test
+    public void testEvictAll() {
+        cache.getChain(CHAIN);
+        cache.evictAll("other");
+        cache.getChain(CHAIN);
+        Mockito.verify(chainRepository, Mockito.times(1)).findOneByName(CHAIN);
+        cache.evictAll(TENANT);
+        cache.getChain(CHAIN);
+        Mockito.verify(chainRepository, Mockito.times(2)).findOneByName(CHAIN);
+    }
+
+    private double count(String cacheName, String outcome) {
+        return registry.get(IngestMetrics.CHAIN_CACHE).tag(IngestMetrics.TENANT_TAG, TENANT)
+                .tag(IngestMetrics.CACHE_TAG, cacheName).tag(IngestMetrics.OUTCOME_TAG, outcome).counter().count();
+    }
+}
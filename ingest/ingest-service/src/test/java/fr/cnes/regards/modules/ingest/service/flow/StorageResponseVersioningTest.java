@@ -0,0 +1,180 @@
+/*
+ * Copyright 2017-2020 CNES - CENTRE NATIONAL d'ETUDES SPATIALES
+ *
+ * This file is part of REGARDS.
+ *
+ * REGARDS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * REGARDS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with REGARDS. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.cnes.regards.modules.ingest.service.flow;
+
+import java.nio.file.Paths;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+import fr.cnes.regards.framework.oais.urn.OAISIdentifier;
+import fr.cnes.regards.framework.oais.urn.OaisUniformResourceName;
+import fr.cnes.regards.framework.urn.DataType;
+import fr.cnes.regards.framework.urn.EntityType;
+import fr.cnes.regards.modules.ingest.dao.ILastAIPRepository;
+import fr.cnes.regards.modules.ingest.domain.aip.AIPEntity;
+import fr.cnes.regards.modules.ingest.domain.aip.AIPState;
+import fr.cnes.regards.modules.ingest.domain.aip.LastAIPEntity;
+import fr.cnes.regards.modules.ingest.domain.request.InternalRequestState;
+import fr.cnes.regards.modules.ingest.domain.request.ingest.IngestRequest;
+import fr.cnes.regards.modules.ingest.domain.request.ingest.IngestRequestStep;
+import fr.cnes.regards.modules.ingest.domain.sip.IngestMetadata;
+import fr.cnes.regards.modules.ingest.domain.sip.SIPEntity;
+import fr.cnes.regards.modules.ingest.domain.sip.SIPState;
+import fr.cnes.regards.modules.ingest.domain.sip.VersioningMode;
+import fr.cnes.regards.modules.ingest.dto.aip.AIP;
+import fr.cnes.regards.modules.ingest.dto.aip.StorageMetadata;
+import fr.cnes.regards.modules.ingest.dto.sip.SIP;
+import fr.cnes.regards.modules.ingest.service.IngestMultitenantServiceTest;
+import fr.cnes.regards.modules.storage.client.RequestInfo;
+import fr.cnes.regards.modules.storage.domain.dto.FileLocationDTO;
+import fr.cnes.regards.modules.storage.domain.dto.FileReferenceDTO;
+import fr.cnes.regards.modules.storage.domain.dto.FileReferenceMetaInfoDTO;
+import fr.cnes.regards.modules.storage.domain.dto.request.RequestResultInfoDTO;
+
+/**
+ * Test last version handling when several versions of the same provider id are stored in a single batch of storage
+ * responses
+ *
+ * @author Sébastien Binda
+ */
+@TestPropertySource(properties = { "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.default_schema=ingest_versioning_batch_tests" },
+        locations = { "classpath:application-test.properties" })
+@ActiveProfiles({ "noschedule" })
+public class StorageResponseVersioningTest extends IngestMultitenantServiceTest {
+
+    private static final String PROVIDER_ID = "provider 1";
+
+    private static final String STORAGE = "storage";
+
+    @Autowired
+    private StorageResponseFlowHandler storageResponseFlowHandler;
+
+    @Autowired
+    private ILastAIPRepository lastAipRepository;
+
+    @Test
+    public void testIncVersionInSameBatch() {
+        testVersionsInSameBatch(VersioningMode.INC_VERSION);
+    }
+
+    @Test
+    public void testReplaceInSameBatch() {
+        testVersionsInSameBatch(VersioningMode.REPLACE);
+    }
+
+    /**
+     * Store a first version, then handle storage responses of versions 2 and 3 at once.<br/>
+     * Only version 3 must be the last one, the last flags of versions 1 and 2 must be cleared.
+     */
+    private void testVersionsInSameBatch(VersioningMode versioningMode) {
+        AIPEntity firstVersion = initStoredAip(versioningMode);
+        Set<RequestInfo> responses = Sets.newHashSet(initAip(2, versioningMode), initAip(3, versioningMode));
+
+        storageResponseFlowHandler.onStoreSuccess(responses);
+
+        List<AIPEntity> aips = Lists.newArrayList(aipRepository.findAllByProviderIdOrderByVersionAsc(PROVIDER_ID));
+        Assert.assertEquals("There should be 3 AIP versions", 3, aips.size());
+        List<AIPEntity> lasts = aips.stream().filter(AIPEntity::isLast).collect(Collectors.toList());
+        Assert.assertEquals("Only one AIP should be the last version", 1, lasts.size());
+        Assert.assertEquals("The last version should be the greatest one", 3, lasts.get(0).getVersion().intValue());
+        Assert.assertFalse("Previous last flag should be cleared", aips.get(0).isLast());
+        Assert.assertEquals(firstVersion.getId(), aips.get(0).getId());
+        Assert.assertFalse("Intermediate version should not be the last one", aips.get(1).isLast());
+
+        List<LastAIPEntity> lastEntries = lastAipRepository.findAll().stream()
+                .filter(l -> PROVIDER_ID.equals(l.getProviderId())).collect(Collectors.toList());
+        Assert.assertEquals("Only one last AIP entry should remain", 1, lastEntries.size());
+        Assert.assertEquals(lasts.get(0).getId(), lastEntries.get(0).getAipId());
+    }
+
+    private AIPEntity initStoredAip(VersioningMode versioningMode) {
+        SIPEntity sipEntity = initSip(1, versioningMode, SIPState.STORED);
+        AIPEntity aipEntity = AIPEntity.build(sipEntity, AIPState.STORED, buildAip(sipEntity, UUID.randomUUID()
+                .toString()));
+        aipEntity.setLast(true);
+        aipEntity = aipRepository.save(aipEntity);
+        lastAipRepository.save(new LastAIPEntity(aipEntity.getId(), PROVIDER_ID));
+        return aipEntity;
+    }
+
+    private RequestInfo initAip(int version, VersioningMode versioningMode) {
+        String checksum = UUID.randomUUID().toString();
+        SIPEntity sipEntity = initSip(version, versioningMode, SIPState.INGESTED);
+        AIP aip = buildAip(sipEntity, checksum);
+        AIPEntity aipEntity = aipRepository.save(AIPEntity.build(sipEntity, AIPState.GENERATED, aip));
+        Set<String> owners = Sets.newHashSet(aip.getId().toString());
+
+        // Generated associated storage response
+        String groupId = UUID.randomUUID().toString();
+        Set<RequestResultInfoDTO> results = Sets.newHashSet();
+        results.add(RequestResultInfoDTO.build(groupId, checksum, STORAGE, null, owners, FileReferenceDTO
+                .build(OffsetDateTime.now(), FileReferenceMetaInfoDTO
+                        .build(checksum, "MD5", checksum, 10L, null, null, MediaType.APPLICATION_JSON, null),
+                       FileLocationDTO.build(STORAGE, "storage://in/the/place/" + checksum), owners), null));
+
+        // Create associated IngestRequest
+        IngestRequest request = IngestRequest.build(null, buildMetadata(versioningMode), InternalRequestState.RUNNING,
+                                                    IngestRequestStep.LOCAL_INIT, sipEntity.getSip());
+        request.setStep(IngestRequestStep.REMOTE_STORAGE_REQUESTED, 1000);
+        request.setRemoteStepGroupIds(Lists.newArrayList(groupId));
+        request.setAips(Lists.newArrayList(aipEntity));
+        ingestRequestRepository.save(request);
+
+        return RequestInfo.build(groupId, results, Sets.newHashSet());
+    }
+
+    private SIPEntity initSip(int version, VersioningMode versioningMode, SIPState state) {
+        SIP sip = SIP.build(EntityType.DATA, PROVIDER_ID);
+        SIPEntity sipEntity = SIPEntity.build(getDefaultTenant(), buildMetadata(versioningMode), sip, version, state);
+        sipEntity.setChecksum(UUID.randomUUID().toString());
+        sipEntity.setLastUpdate(OffsetDateTime.now());
+        return sipRepository.save(sipEntity);
+    }
+
+    private AIP buildAip(SIPEntity sipEntity, String checksum) {
+        OaisUniformResourceName sipId = sipEntity.getSipIdUrn();
+        OaisUniformResourceName aipId = OaisUniformResourceName.fromString(sipId.toString());
+        aipId.setIdentifier(OAISIdentifier.AIP);
+        AIP aip = AIP.build(EntityType.DATA, aipId, Optional.of(sipId), PROVIDER_ID, sipEntity.getVersion());
+        aip.withDataObject(DataType.RAWDATA, Paths.get("file:///somewhere/", checksum), "MD5", checksum);
+        aip.withSyntax(MediaType.APPLICATION_JSON);
+        aip.registerContentInformation();
+        return aip;
+    }
+
+    private IngestMetadata buildMetadata(VersioningMode versioningMode) {
+        return IngestMetadata.build("sessionOwner", "session", "ingestChain", Sets.newHashSet(), versioningMode,
+                                    StorageMetadata.build(STORAGE));
+    }
+}
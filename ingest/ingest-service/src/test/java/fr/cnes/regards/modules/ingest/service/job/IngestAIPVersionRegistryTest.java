@@ -0,0 +1,81 @@
+/*
+ * Copyright 2017-2020 CNES - CENTRE NATIONAL d'ETUDES SPATIALES
+ *
+ * This file is part of REGARDS.
+ *
+ * REGARDS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * REGARDS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with REGARDS. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.cnes.regards.modules.ingest.service.job;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Sets;
+
+import fr.cnes.regards.modules.ingest.dto.aip.AIP;
+
+/**
+ * Test {@link IngestAIPVersionRegistry}
+ * @author Sébastien Binda
+ */
+public class IngestAIPVersionRegistryTest {
+
+    @Test
+    public void checkVersionsInsideJob() {
+        List<Collection<String>> loads = new ArrayList<>();
+        IngestAIPVersionRegistry registry = new IngestAIPVersionRegistry(providerIds -> {
+            loads.add(providerIds);
+            Multimap<String, Integer> versions = HashMultimap.create();
+            if (providerIds.contains("provider1")) {
+                versions.putAll("provider1", Arrays.asList(1, 2));
+            }
+            return versions;
+        });
+
+        // Prefetch
+        registry.load(Sets.newHashSet("provider1", "provider2"));
+        Assert.assertEquals(1, loads.size());
+        Multimap<String, Integer> versions = registry.getVersions(Sets.newHashSet("provider1", "provider2"));
+        Assert.assertEquals(Sets.newHashSet(1, 2), versions.get("provider1"));
+        Assert.assertTrue(versions.get("provider2").isEmpty());
+        Assert.assertEquals("Prefetched provider ids must not be loaded again", 1, loads.size());
+
+        // Provider id unknown to the prefetch is loaded on demand, once
+        registry.getVersions(Sets.newHashSet("provider1", "provider3"));
+        registry.getVersions(Sets.newHashSet("provider3"));
+        Assert.assertEquals(2, loads.size());
+        Assert.assertEquals(Sets.newHashSet("provider3"), loads.get(1));
+
+        // AIPs persisted by the job
+        registry.register(Arrays.asList(buildAip("provider1", 3), buildAip("provider2", 1)));
+        versions = registry.getVersions(Sets.newHashSet("provider1", "provider2"));
+        Assert.assertEquals(Sets.newHashSet(1, 2, 3), versions.get("provider1"));
+        Assert.assertEquals(Sets.newHashSet(1), versions.get("provider2"));
+        Assert.assertEquals(2, loads.size());
+    }
+
+    private static AIP buildAip(String providerId, Integer version) {
+        AIP aip = new AIP();
+        aip.setProviderId(providerId);
+        aip.setVersion(version);
+        return aip;
+    }
+}
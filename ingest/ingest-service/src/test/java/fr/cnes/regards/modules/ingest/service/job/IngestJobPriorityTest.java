@@ -0,0 +1,44 @@
+/*
+ * Copyright 2017-2020 CNES - CENTRE NATIONAL d'ETUDES SPATIALES
+ *
+ * This file is part of REGARDS.
+ *
+ * REGARDS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * REGARDS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with REGARDS. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.cnes.regards.modules.ingest.service.job;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import fr.cnes.regards.modules.ingest.domain.sip.IngestRequestPriority;
+
+/**
+ * Test ingest processing job priorities computed from request priorities
+ *
+ * @author Sébastien Binda
+ */
+public class IngestJobPriorityTest {
+
+    private static int priority(IngestRequestPriority requestPriority) {
+        return IngestJobPriority.getIngestProcessingPriority(requestPriority);
+    }
+
+    @Test
+    public void testRequestPriority() {
+        Assert.assertEquals(IngestJobPriority.INGEST_PROCESSING_JOB_PRIORITY.getPriority(),
+                            priority(IngestRequestPriority.NORMAL));
+        Assert.assertTrue(priority(IngestRequestPriority.HIGH) > priority(IngestRequestPriority.NORMAL));
+        Assert.assertTrue(priority(IngestRequestPriority.LOW) < priority(IngestRequestPriority.NORMAL));
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2017-2020 CNES - CENTRE NATIONAL d'ETUDES SPATIALES
+ *
+ * This file is part of REGARDS.
+ *
+ * REGARDS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * REGARDS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with REGARDS. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.cnes.regards.modules.ingest.service.job;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Sets;
+
+import fr.cnes.regards.modules.ingest.domain.sip.SIPEntity;
+
+/**
+ * Test {@link IngestSIPRegistry}
+ * @author Sébastien Binda
+ */
+public class IngestSIPRegistryTest {
+
+    @Test
+    public void checkVersionsAndDuplicatesInsideJob() {
+        Map<String, Integer> versions = new HashMap<>();
+        versions.put("provider1", 2);
+        IngestSIPRegistry registry = new IngestSIPRegistry(Sets.newHashSet("checksum1"), versions);
+
+        // Existing entries
+        Assert.assertTrue(registry.isAlreadyIngested("checksum1"));
+        Assert.assertFalse(registry.isAlreadyIngested("checksum2"));
+        Assert.assertEquals(Integer.valueOf(3), registry.getNextVersion("provider1"));
+        Assert.assertEquals(Integer.valueOf(1), registry.getNextVersion("provider2"));
+
+        // SIPs persisted by the job
+        registry.register(buildEntity("provider2", 1, "checksum2"));
+        registry.register(buildEntity("provider1", 3, "checksum3"));
+        Assert.assertTrue(registry.isAlreadyIngested("checksum2"));
+        Assert.assertTrue(registry.isAlreadyIngested("checksum3"));
+        Assert.assertEquals(Integer.valueOf(2), registry.getNextVersion("provider2"));
+        Assert.assertEquals(Integer.valueOf(4), registry.getNextVersion("provider1"));
+    }
+
+    private static SIPEntity buildEntity(String providerId, Integer version, String checksum) {
+        SIPEntity entity = new SIPEntity();
+        entity.setProviderId(providerId);
+        entity.setVersion(version);
+        entity.setChecksum(checksum);
+        return entity;
+    }
+}
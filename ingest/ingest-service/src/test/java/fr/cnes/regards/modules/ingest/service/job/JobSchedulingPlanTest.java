@@ -0,0 +1,80 @@
+/*
+ * Copyright 2017-2020 CNES - CENTRE NATIONAL d'ETUDES SPATIALES
+ *
+ * This file is part of REGARDS.
+ *
+ * REGARDS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * REGARDS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with REGARDS. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.cnes.regards.modules.ingest.service.job;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test number of jobs and batch sizes computed for a scheduler tick
+ *
+ * @author Sébastien Binda
+ */
+public class JobSchedulingPlanTest {
+
+    private static final int MAX_ACTIVE_JOBS = 8;
+
+    private static final int MAX_JOBS_PER_TICK = 4;
+
+    private static final int MIN_BATCH_SIZE = 100;
+
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    private static JobSchedulingPlan plan(long backlog, long activeJobs) {
+        return JobSchedulingPlan.compute(backlog, activeJobs, MAX_ACTIVE_JOBS, MAX_JOBS_PER_TICK, MIN_BATCH_SIZE,
+                                         MAX_BATCH_SIZE);
+    }
+
+    @Test
+    public void testSmallBacklog() {
+        JobSchedulingPlan plan = plan(50, 0);
+        Assert.assertEquals(1, plan.getNbJobs());
+        Assert.assertEquals(MIN_BATCH_SIZE, plan.getBatchSize());
+
+        plan = plan(250, 0);
+        Assert.assertEquals("Small backlog should not be split in tiny jobs", 3, plan.getNbJobs());
+        Assert.assertEquals(MIN_BATCH_SIZE, plan.getBatchSize());
+    }
+
+    @Test
+    public void testLargeBacklog() {
+        JobSchedulingPlan plan = plan(2000, 0);
+        Assert.assertEquals(MAX_JOBS_PER_TICK, plan.getNbJobs());
+        Assert.assertEquals(500, plan.getBatchSize());
+
+        plan = plan(1_000_000, 0);
+        Assert.assertEquals(MAX_JOBS_PER_TICK, plan.getNbJobs());
+        Assert.assertEquals(MAX_BATCH_SIZE, plan.getBatchSize());
+    }
+
+    @Test
+    public void testFreeSlots() {
+        JobSchedulingPlan plan = plan(2000, 6);
+        Assert.assertEquals(2, plan.getNbJobs());
+        Assert.assertEquals(MAX_BATCH_SIZE, plan.getBatchSize());
+
+        Assert.assertEquals(0, plan(2000, MAX_ACTIVE_JOBS).getNbJobs());
+        Assert.assertEquals(0, plan(2000, MAX_ACTIVE_JOBS + 1).getNbJobs());
+    }
+
+    @Test
+    public void testEmptyBacklog() {
+        Assert.assertEquals(0, plan(0, 0).getNbJobs());
+    }
+}
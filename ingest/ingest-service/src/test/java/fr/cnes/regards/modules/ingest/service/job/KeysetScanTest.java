@@ -0,0 +1,87 @@
+/*
+ * Copyright 2017-2020 CNES - CENTRE NATIONAL d'ETUDES SPATIALES
+ *
+ * This file is part of REGARDS.
+ *
+ * REGARDS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * REGARDS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with REGARDS. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.cnes.regards.modules.ingest.service.job;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test keyset scan of entities
+ *
+ * @author Sébastien Binda
+ */
+public class KeysetScanTest {
+
+    /**
+     * Ids of the entities to scan, with gaps
+     */
+    private final List<Long> ids = LongStream.rangeClosed(1, 25).map(i -> i * 3).boxed().collect(Collectors.toList());
+
+    private int nbQueries = 0;
+
+    private List<Long> load(Long lastId, int limit) {
+        nbQueries++;
+        return ids.stream().filter(id -> (lastId == null) || (id > lastId)).limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testScan() {
+        KeysetScan<Long> scan = new KeysetScan<>(this::load, id -> id, 10, ids.size());
+        Assert.assertEquals(3, scan.getTotalPages());
+        List<Long> scanned = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        while (scan.hasNext()) {
+            List<Long> page = scan.next();
+            pageSizes.add(page.size());
+            scanned.addAll(page);
+        }
+        Assert.assertEquals(ids, scanned);
+        Assert.assertEquals("[10, 10, 5]", pageSizes.toString());
+        // Last page is not full so no query is needed to detect the end
+        Assert.assertEquals(3, nbQueries);
+    }
+
+    @Test
+    public void testFullLastPage() {
+        KeysetScan<Long> scan = new KeysetScan<>(this::load, id -> id, 5, ids.size());
+        int pages = 0;
+        while (scan.hasNext()) {
+            scan.next();
+            pages++;
+        }
+        Assert.assertEquals(5, pages);
+        Assert.assertEquals(6, nbQueries);
+    }
+
+    @Test
+    public void testEmpty() {
+        ids.clear();
+        KeysetScan<Long> scan = new KeysetScan<>(this::load, id -> id, 10, 0);
+        Assert.assertEquals(0, scan.getTotalPages());
+        Assert.assertFalse(scan.hasNext());
+        Assert.assertFalse(scan.hasNext());
+        Assert.assertEquals(1, nbQueries);
+    }
+}
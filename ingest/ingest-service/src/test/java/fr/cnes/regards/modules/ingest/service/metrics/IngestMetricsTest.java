@@ -0,0 +1,119 @@
+/*
+ * Copyright 2017-2020 CNES - CENTRE NATIONAL d'ETUDES SPATIALES
+ *
+ * This file is part of REGARDS.
+ *
+ * REGARDS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * REGARDS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with REGARDS. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.cnes.regards.modules.ingest.service.metrics;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import fr.cnes.regards.framework.multitenant.IRuntimeTenantResolver;
+import fr.cnes.regards.modules.ingest.domain.request.IRequestStateCount;
+import fr.cnes.regards.modules.ingest.domain.request.InternalRequestState;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Test ingest metrics registration
+ *
+ * @author Sébastien Binda
+ */
+public class IngestMetricsTest {
+
+    private SimpleMeterRegistry registry;
+
+    private IngestMetrics ingestMetrics;
+
+    @Before
+    public void init() {
+        registry = new SimpleMeterRegistry();
+        IRuntimeTenantResolver runtimeTenantResolver = Mockito.mock(IRuntimeTenantResolver.class);
+        Mockito.when(runtimeTenantResolver.getTenant()).thenReturn("PROJECT");
+        ingestMetrics = new IngestMetrics();
+        ReflectionTestUtils.setField(ingestMetrics, "registry", registry);
+        ReflectionTestUtils.setField(ingestMetrics, "runtimeTenantResolver", runtimeTenantResolver);
+        ingestMetrics.init();
+    }
+
+    @Test
+    public void testStepTimer() {
+        Timer.Sample sample = ingestMetrics.start();
+        ingestMetrics.stopStep(sample, "chain", "ValidationStep", true);
+        Timer timer = registry.find(IngestMetrics.STEP_TIMER).tag(IngestMetrics.TENANT_TAG, "PROJECT")
+                .tag(IngestMetrics.CHAIN_TAG, "chain").tag(IngestMetrics.STEP_TAG, "ValidationStep")
+                .tag(IngestMetrics.OUTCOME_TAG, "success").timer();
+        Assert.assertNotNull(timer);
+        Assert.assertEquals(1, timer.count());
+    }
+
+    @Test
+    public void testBatchSize() {
+        ingestMetrics.stopBatch(ingestMetrics.start(), "handler", 10, true);
+        ingestMetrics.stopBatch(ingestMetrics.start(), "handler", 30, true);
+        ingestMetrics.stopBatch(ingestMetrics.start(), "handler", 5, false);
+        Assert.assertEquals(45, registry.get(IngestMetrics.BATCH_SIZE).summary().totalAmount(), 0);
+        Assert.assertEquals(2, registry.get(IngestMetrics.BATCH_TIMER).tag(IngestMetrics.OUTCOME_TAG, "success")
+                .timer().count());
+        Assert.assertEquals("Failed batches must be timed", 1, registry.get(IngestMetrics.BATCH_TIMER)
+                .tag(IngestMetrics.OUTCOME_TAG, "error").timer().count());
+    }
+
+    @Test
+    public void testRequestCounts() {
+        ingestMetrics.updateRequestCounts(Arrays.asList(count(InternalRequestState.CREATED, "INGEST", 5L),
+                                                        count(InternalRequestState.ERROR, "INGEST", 2L)));
+        Assert.assertEquals(5, gauge(InternalRequestState.CREATED), 0);
+        Assert.assertEquals(2, gauge(InternalRequestState.ERROR), 0);
+
+        // No more errors
+        ingestMetrics.updateRequestCounts(Collections.singletonList(count(InternalRequestState.CREATED, "INGEST",
+                                                                          3L)));
+        Assert.assertEquals(3, gauge(InternalRequestState.CREATED), 0);
+        Assert.assertEquals(0, gauge(InternalRequestState.ERROR), 0);
+    }
+
+    private double gauge(InternalRequestState state) {
+        return registry.get(IngestMetrics.REQUEST_COUNT).tag(IngestMetrics.STATE_TAG, state.toString())
+                .tag(IngestMetrics.TYPE_TAG, "INGEST").gauge().value();
+    }
+
+    private static IRequestStateCount count(InternalRequestState state, String dtype, Long nbRequests) {
+        return new IRequestStateCount() {
+
+            @Override
+            public InternalRequestState getState() {
+                return state;
+            }
+
+            @Override
+            public String getDtype() {
+                return dtype;
+            }
+
+            @Override
+            public Long getNbRequests() {
+                return nbRequests;
+            }
+        };
+    }
+}
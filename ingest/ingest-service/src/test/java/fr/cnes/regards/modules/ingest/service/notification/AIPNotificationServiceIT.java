@@ -24,7 +24,6 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import fr.cnes.regards.framework.amqp.IPublisher;
 import fr.cnes.regards.framework.test.report.annotation.Purpose;
-import fr.cnes.regards.modules.ingest.dao.IAIPNotificationSettingsRepository;
 import fr.cnes.regards.modules.ingest.dao.IAbstractRequestRepository;
 import fr.cnes.regards.modules.ingest.domain.aip.AIPEntity;
 import fr.cnes.regards.modules.ingest.domain.aip.AIPState;
@@ -89,9 +88,6 @@ public class AIPNotificationServiceIT extends IngestMultitenantServiceTest {
     @Autowired
     private IAbstractRequestRepository abstractRequestRepository;
 
-    @Autowired
-    private IAIPNotificationSettingsRepository aipNotificationSettingsRepository;
-
     /**
      * Services
      */
@@ -328,7 +324,7 @@ public class AIPNotificationServiceIT extends IngestMultitenantServiceTest {
     private void initNotificationSettings(boolean state) {
        AIPNotificationSettings notificationSettings = new AIPNotificationSettings();
        notificationSettings.setActiveNotification(state);
-       aipNotificationSettingsRepository.save(notificationSettings);
+       notificationSettingsService.update(notificationSettings);
     }
 
 }
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2017-2020 CNES - CENTRE NATIONAL d'ETUDES SPATIALES
+ *
+ * This file is part of REGARDS.
+ *
+ * REGARDS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * REGARDS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with REGARDS. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.cnes.regards.modules.ingest.service.request;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.SetMultimap;
+import com.google.common.collect.Sets;
+
+import fr.cnes.regards.modules.ingest.domain.request.AbstractRequest;
+import fr.cnes.regards.modules.ingest.domain.request.ingest.IngestRequest;
+
+/**
+ * Test {@link RequestService#indexByRemoteStepGroupId(java.util.Collection, java.util.Set)}
+ * @author Sébastien Binda
+ */
+public class RemoteStepGroupIndexTest {
+
+    @Test
+    public void indexRequestsByGroupId() {
+        IngestRequest first = buildRequest("group1", "group2");
+        IngestRequest second = buildRequest("group2", "group3", "group2");
+        IngestRequest third = buildRequest("other");
+        List<AbstractRequest> requests = Lists.newArrayList(first, second, third);
+
+        SetMultimap<String, AbstractRequest> index = RequestService
+                .indexByRemoteStepGroupId(requests, Sets.newHashSet("group1", "group2", "unknown"));
+
+        Assert.assertEquals(Lists.newArrayList(first), Lists.newArrayList(index.get("group1")));
+        // Request order is kept and duplicated group ids do not duplicate requests
+        Assert.assertEquals(Lists.newArrayList(first, second), Lists.newArrayList(index.get("group2")));
+        // Only requested group ids are indexed
+        Assert.assertFalse(index.containsKey("group3"));
+        Assert.assertFalse(index.containsKey("other"));
+        Assert.assertTrue(index.get("unknown").isEmpty());
+    }
+
+    private static IngestRequest buildRequest(String... groupIds) {
+        IngestRequest request = new IngestRequest();
+        request.setRemoteStepGroupIds(Lists.newArrayList(groupIds));
+        return request;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2017-2020 CNES - CENTRE NATIONAL d'ETUDES SPATIALES
+ *
+ * This file is part of REGARDS.
+ *
+ * REGARDS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * REGARDS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with REGARDS. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.cnes.regards.modules.ingest.service.request;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.google.common.collect.Lists;
+
+import fr.cnes.regards.modules.ingest.domain.request.AbstractRequest;
+import fr.cnes.regards.modules.ingest.domain.request.IRequestTypeAndSession;
+import fr.cnes.regards.modules.ingest.dto.request.RequestTypeConstant;
+
+/**
+ * Test in memory evaluation of the {@link RequestBlockingRules} on a {@link RunningRequestsSnapshot}
+ *
+ * @author Sébastien Binda
+ */
+public class RunningRequestsSnapshotTest {
+
+    private static final String OWNER = "owner";
+
+    private static final String SESSION = "session";
+
+    private static final String OTHER_SESSION = "other";
+
+    private static AbstractRequest request(String dtype, String sessionOwner, String session) {
+        AbstractRequest request = Mockito.mock(AbstractRequest.class);
+        Mockito.when(request.getDtype()).thenReturn(dtype);
+        Mockito.when(request.getSessionOwner()).thenReturn(sessionOwner);
+        Mockito.when(request.getSession()).thenReturn(session);
+        return request;
+    }
+
+    private static IRequestTypeAndSession running(String dtype, String sessionOwner, String session) {
+        IRequestTypeAndSession running = Mockito.mock(IRequestTypeAndSession.class);
+        Mockito.when(running.getDtype()).thenReturn(dtype);
+        Mockito.when(running.getSessionOwner()).thenReturn(sessionOwner);
+        Mockito.when(running.getSession()).thenReturn(session);
+        return running;
+    }
+
+    @Test
+    public void testSessionBlocking() {
+        RunningRequestsSnapshot snapshot = new RunningRequestsSnapshot();
+        snapshot.addSession(OWNER, SESSION);
+        snapshot.addSession(OWNER, OTHER_SESSION);
+        snapshot.addSessionType(running(RequestTypeConstant.OAIS_DELETION_VALUE, OWNER, SESSION));
+        // Running requests of sessions not loaded in the snapshot are ignored
+        snapshot.addSessionType(running(RequestTypeConstant.OAIS_DELETION_VALUE, OWNER, "unknown"));
+
+        AbstractRequest update = request(RequestTypeConstant.UPDATE_VALUE, OWNER, SESSION);
+        Assert.assertTrue(snapshot.covers(update));
+        Assert.assertTrue("Update should be blocked by a deletion of its session", snapshot.isBlocked(update));
+
+        AbstractRequest otherUpdate = request(RequestTypeConstant.UPDATE_VALUE, OWNER, OTHER_SESSION);
+        Assert.assertTrue(snapshot.covers(otherUpdate));
+        Assert.assertFalse("Update should not be blocked by a deletion of another session",
+                           snapshot.isBlocked(otherUpdate));
+
+        AbstractRequest deletion = request(RequestTypeConstant.OAIS_DELETION_VALUE, OWNER, SESSION);
+        Assert.assertFalse("Deletion should not be blocked by another deletion", snapshot.isBlocked(deletion));
+    }
+
+    @Test
+    public void testCoverage() {
+        RunningRequestsSnapshot snapshot = new RunningRequestsSnapshot();
+        snapshot.addSession(OWNER, SESSION);
+        Assert.assertFalse(snapshot.covers(request(RequestTypeConstant.UPDATE_VALUE, OWNER, OTHER_SESSION)));
+        Assert.assertFalse(snapshot.covers(request(RequestTypeConstant.UPDATE_VALUE, null, SESSION)));
+        // Only blocked by global types, always covered
+        Assert.assertTrue(snapshot.covers(request(RequestTypeConstant.AIP_UPDATES_CREATOR_VALUE, null, null)));
+    }
+
+    @Test
+    public void testGlobalBlocking() {
+        RunningRequestsSnapshot snapshot = new RunningRequestsSnapshot();
+        snapshot.addSession(OWNER, SESSION);
+        snapshot.addGlobalTypes(Lists.newArrayList(RequestTypeConstant.OAIS_DELETION_CREATOR_VALUE));
+        Assert.assertTrue(snapshot.isBlocked(request(RequestTypeConstant.AIP_UPDATES_CREATOR_VALUE, null, null)));
+        Assert.assertTrue(snapshot.isBlocked(request(RequestTypeConstant.UPDATE_VALUE, OWNER, SESSION)));
+        Assert.assertFalse(snapshot.isBlocked(request(RequestTypeConstant.OAIS_DELETION_VALUE, OWNER, SESSION)));
+    }
+
+    @Test
+    public void testRegister() {
+        RunningRequestsSnapshot snapshot = new RunningRequestsSnapshot();
+        snapshot.addSession(OWNER, SESSION);
+        AbstractRequest creator = request(RequestTypeConstant.OAIS_DELETION_CREATOR_VALUE, null, null);
+        Assert.assertFalse(snapshot.isBlocked(creator));
+        // Once accepted, a deletion creator blocks the next ones
+        snapshot.register(creator);
+        Assert.assertTrue(snapshot.isBlocked(request(RequestTypeConstant.OAIS_DELETION_CREATOR_VALUE, null, null)));
+
+        AbstractRequest postProcess = request(RequestTypeConstant.AIP_POST_PROCESS_VALUE, OWNER, SESSION);
+        snapshot.register(postProcess);
+        Assert.assertTrue(snapshot.isBlocked(request(RequestTypeConstant.OAIS_DELETION_VALUE, OWNER, SESSION)));
+    }
+}
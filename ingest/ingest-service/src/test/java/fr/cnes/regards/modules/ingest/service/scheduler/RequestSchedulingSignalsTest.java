@@ -0,0 +1,111 @@
+/*
+ * Copyright 2017-2020 CNES - CENTRE NATIONAL d'ETUDES SPATIALES
+ *
+ * This file is part of REGARDS.
+ *
+ * REGARDS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * REGARDS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with REGARDS. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.cnes.regards.modules.ingest.service.scheduler;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+import fr.cnes.regards.framework.amqp.IPublisher;
+import fr.cnes.regards.framework.multitenant.IRuntimeTenantResolver;
+import fr.cnes.regards.modules.ingest.domain.request.RequestSchedulerType;
+import fr.cnes.regards.modules.ingest.domain.request.RequestSchedulingEvent;
+import fr.cnes.regards.modules.ingest.service.schedule.RequestSchedulingSignals;
+
+/**
+ * Test for {@link RequestSchedulingSignals}
+ * @author Sébastien Binda
+ */
+public class RequestSchedulingSignalsTest {
+
+    private static final String TENANT = "tenant";
+
+    private RequestSchedulingSignals signals;
+
+    private IPublisher publisher;
+
+    @Before
+    public void init() {
+        signals = new RequestSchedulingSignals();
+        publisher = Mockito.mock(IPublisher.class);
+        IRuntimeTenantResolver runtimeTenantResolver = Mockito.mock(IRuntimeTenantResolver.class);
+        Mockito.when(runtimeTenantResolver.getTenant()).thenReturn(TENANT);
+        ReflectionTestUtils.setField(signals, "publisher", publisher);
+        ReflectionTestUtils.setField(signals, "runtimeTenantResolver", runtimeTenantResolver);
+        ReflectionTestUtils.setField(signals, "minIdleDelay", 60_000L);
+        ReflectionTestUtils.setField(signals, "maxIdleDelay", 600_000L);
+    }
+
+    @Test
+    public void runUntilIdle() {
+        Assert.assertTrue("Scheduler must run at first tick",
+                          signals.shouldRun(RequestSchedulerType.AIP_UPDATE, TENANT));
+        signals.reportRun(RequestSchedulerType.AIP_UPDATE, TENANT, false);
+        Assert.assertTrue("Busy scheduler must run at next tick",
+                          signals.shouldRun(RequestSchedulerType.AIP_UPDATE, TENANT));
+        signals.reportRun(RequestSchedulerType.AIP_UPDATE, TENANT, true);
+        Assert.assertFalse("Idle scheduler must wait for its idle delay",
+                           signals.shouldRun(RequestSchedulerType.AIP_UPDATE, TENANT));
+        Assert.assertTrue("Other schedulers are not affected",
+                          signals.shouldRun(RequestSchedulerType.AIP_DELETION, TENANT));
+        Assert.assertTrue("Other tenants are not affected",
+                          signals.shouldRun(RequestSchedulerType.AIP_UPDATE, "other"));
+    }
+
+    @Test
+    public void signalWakesUpIdleScheduler() {
+        signals.reportRun(RequestSchedulerType.AIP_DELETION, TENANT, true);
+        Assert.assertFalse(signals.shouldRun(RequestSchedulerType.AIP_DELETION, TENANT));
+
+        signals.signal(RequestSchedulerType.AIP_DELETION);
+        Mockito.verify(publisher).publish(Mockito.any(RequestSchedulingEvent.class));
+        Assert.assertTrue("Signaled scheduler must run", signals.shouldRun(RequestSchedulerType.AIP_DELETION, TENANT));
+        Assert.assertFalse("Signal must be consumed", signals.shouldRun(RequestSchedulerType.AIP_DELETION, TENANT));
+    }
+
+    @Test
+    public void remoteSignal() {
+        signals.reportRun(RequestSchedulerType.REQUEST_PENDING, TENANT, true);
+        signals.wakeUp(TENANT, Sets.newHashSet(RequestSchedulerType.REQUEST_PENDING));
+        Assert.assertTrue(signals.shouldRun(RequestSchedulerType.REQUEST_PENDING, TENANT));
+    }
+
+    @Test
+    public void tenantsInTurn() {
+        List<String> first = signals.getTenantsInTurn(RequestSchedulerType.AIP_UPDATE,
+                                                      Sets.newHashSet("c", "a", "b"));
+        List<String> second = signals.getTenantsInTurn(RequestSchedulerType.AIP_UPDATE,
+                                                       Sets.newHashSet("c", "a", "b"));
+        List<String> third = signals.getTenantsInTurn(RequestSchedulerType.AIP_UPDATE,
+                                                      Sets.newHashSet("c", "a", "b"));
+        Assert.assertEquals(Lists.newArrayList("a", "b", "c"), first);
+        Assert.assertEquals(Lists.newArrayList("b", "c", "a"), second);
+        Assert.assertEquals(Lists.newArrayList("c", "a", "b"), third);
+        Assert.assertEquals("Each scheduler has its own turn", first,
+                            signals.getTenantsInTurn(RequestSchedulerType.AIP_DELETION,
+                                                     Sets.newHashSet("c", "a", "b")));
+    }
+}
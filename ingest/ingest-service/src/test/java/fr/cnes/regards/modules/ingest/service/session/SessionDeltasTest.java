@@ -0,0 +1,73 @@
+/*
+ * Copyright 2017-2020 CNES - CENTRE NATIONAL d'ETUDES SPATIALES
+ *
+ * This file is part of REGARDS.
+ *
+ * REGARDS is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * REGARDS is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with REGARDS. If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.cnes.regards.modules.ingest.service.session;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import fr.cnes.regards.modules.sessionmanager.domain.event.SessionNotificationState;
+
+/**
+ * Test coalescing of session deltas
+ *
+ * @author Sébastien Binda
+ */
+public class SessionDeltasTest {
+
+    private static final SessionDeltas.Key COUNT = new SessionDeltas.Key("tenant", "owner", "session",
+            SessionNotifier.PRODUCT_COUNT, SessionNotificationState.OK);
+
+    private static final SessionDeltas.Key PENDING = new SessionDeltas.Key("tenant", "owner", "session",
+            SessionNotifier.PRODUCT_GEN_PENDING, SessionNotificationState.OK);
+
+    @Test
+    public void testNetDeltas() {
+        SessionDeltas deltas = new SessionDeltas();
+        // Same property, distinct key instances
+        deltas.add(new SessionDeltas.Key("tenant", "owner", "session", SessionNotifier.PRODUCT_COUNT,
+                SessionNotificationState.OK), 3);
+        deltas.add(COUNT, -1);
+        // Cancelled out
+        deltas.add(PENDING, 2);
+        deltas.add(PENDING, -2);
+
+        Map<SessionDeltas.Key, Integer> notified = new HashMap<>();
+        deltas.drain(notified::put);
+        Assert.assertEquals(1, notified.size());
+        Assert.assertEquals(Integer.valueOf(2), notified.get(COUNT));
+        Assert.assertTrue(deltas.isEmpty());
+    }
+
+    @Test
+    public void testDrainTo() {
+        SessionDeltas transaction = new SessionDeltas();
+        SessionDeltas committed = new SessionDeltas();
+        committed.add(COUNT, 1);
+        transaction.add(COUNT, 4);
+        transaction.drainTo(committed);
+        Assert.assertTrue(transaction.isEmpty());
+
+        Map<SessionDeltas.Key, Integer> notified = new HashMap<>();
+        committed.drain(notified::put);
+        Assert.assertEquals(Integer.valueOf(5), notified.get(COUNT));
+    }
+}